@@ -43,6 +43,8 @@ import java.util.stream.Collectors;
 @Repository
 public class RecordsMetadataRepositoryImplMongoDB implements IRecordsMetadataRepository<String> {
 
+    private static final String METADATA = "metadata.";
+
     private final MongoDBHelper queryHelper;
 
     @PostConstruct
@@ -52,6 +54,8 @@ public class RecordsMetadataRepositoryImplMongoDB implements IRecordsMetadataRep
         queryHelper.ensureIndex(RecordMetadataDocMongoDB.class, new Index().on("kind", Sort.Direction.ASC));
         queryHelper.ensureIndex(RecordMetadataDocMongoDB.class, new Index().on("status", Sort.Direction.ASC));
         queryHelper.ensureIndex(RecordMetadataDocMongoDB.class, new Index().on("user", Sort.Direction.ASC));
+        queryHelper.ensureIndex(RecordMetadataDocMongoDB.class, new Index().on(METADATA + CREATE_TIME, Sort.Direction.ASC).on("id", Sort.Direction.ASC));
+        queryHelper.ensureIndex(RecordMetadataDocMongoDB.class, new Index().on(METADATA + MODIFY_TIME, Sort.Direction.ASC).on("id", Sort.Direction.ASC));
     }
 
     /**
@@ -125,6 +129,20 @@ public class RecordsMetadataRepositoryImplMongoDB implements IRecordsMetadataRep
         return null;
     }
 
+    @Override
+    public List<RecordMetadata> queryByTime(String timeField, long after, String afterId, int limit) {
+        String field = METADATA + timeField;
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where(field).gt(after),
+                new Criteria().andOperator(Criteria.where(field).is(after), Criteria.where("id").gt(afterId))))
+                .with(Sort.by(Sort.Direction.ASC, field, "id"))
+                .limit(limit);
+        return queryHelper.getByQuery(query, RecordMetadataDocMongoDB.class)
+                .stream()
+                .map(RecordMetadataDocMongoDB::getMetadata)
+                .collect(Collectors.toList());
+    }
+
     private void saveLegalTagAssociation(String recordId, Set<String> legalTags) {
         for (String legalTag : legalTags) {
             LegalTagAssociationDocMongoDB doc = new LegalTagAssociationDocMongoDB();
@@ -21,6 +21,7 @@ import org.opengroup.osdu.core.common.model.storage.DatastoreQueryResult;
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
 import org.opengroup.osdu.storage.provider.interfaces.IQueryRepository;
 import org.opengroup.osdu.storage.service.BatchServiceImpl;
+import org.opengroup.osdu.storage.service.KindRegistry;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
@@ -35,6 +36,9 @@ public class BatchServiceAWSImpl extends BatchServiceImpl {
     @Inject
     private IQueryRepository queryRepository;
 
+    @Inject
+    private KindRegistry kindRegistry;
+
 //    @Inject
 //    private JaxRsDpsLog logger;
 
@@ -42,7 +46,7 @@ public class BatchServiceAWSImpl extends BatchServiceImpl {
     public DatastoreQueryResult getAllKinds(String cursor, Integer limit)
     {
         try {
-            DatastoreQueryResult result = this.queryRepository.getAllKinds(limit, cursor);
+            DatastoreQueryResult result = this.kindRegistry.getAllKinds(limit, cursor);
             this.auditLogger.readAllKindsSuccess(result.getResults());
             return result;
         } catch (InvalidCursorException e) {
@@ -35,6 +35,7 @@ import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
 import org.opengroup.osdu.storage.StorageApplication;
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
 import org.opengroup.osdu.storage.provider.mongodb.cache.LegalTagCache;
+import org.opengroup.osdu.storage.cache.LegalTagNearCache;
 import org.opengroup.osdu.storage.provider.mongodb.jobs.LegalComplianceChangeServiceAWSImpl;
 import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
 import org.opengroup.osdu.storage.provider.interfaces.IRecordsMetadataRepository;
@@ -66,6 +67,9 @@ public class LegalComplianceChangeServiceAWSImplTest {
     @Mock
     private LegalTagCache legalTagCache;
 
+    @Mock
+    private LegalTagNearCache legalTagNearCache;
+
     @Test
     public void updateComplianceOnRecordsTest() throws ComplianceUpdateStoppedException {
         // arrange
@@ -167,6 +171,10 @@ public class LegalComplianceChangeServiceAWSImplTest {
         Assert.assertEquals(compliantPubSubInfos[0].getId(), compliantPubSub.getId());
         Assert.assertEquals(compliantPubSubInfos[0].getOp(), compliantPubSub.getOp());
 
+        // that both cache tiers drop the incompliant tag
+        Mockito.verify(legalTagCache, Mockito.times(1)).delete(incompliantTagName);
+        Mockito.verify(legalTagNearCache, Mockito.times(1)).delete(headers.getPartitionId(), incompliantTagName);
+
         // that output returned is expected
         Assert.assertEquals(output.get(incompliantRecordId), expectedOutput.get(incompliantRecordId));
         Assert.assertEquals(output.get(compliantRecordId), expectedOutput.get(compliantRecordId));
@@ -14,33 +14,58 @@
 
 package org.opengroup.osdu.storage.provider.aws;
 
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.AmazonSNSAsyncClientBuilder;
 import com.amazonaws.services.sns.model.MessageAttributeValue;
 import com.amazonaws.services.sns.model.PublishRequest;
+import org.apache.http.HttpStatus;
 import org.opengroup.osdu.core.aws.ssm.K8sLocalParameterProvider;
-import com.google.gson.Gson;
-import com.amazonaws.services.sns.AmazonSNS;
+import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.storage.messaging.ChangeEventEncoder;
+import org.opengroup.osdu.storage.provider.aws.util.sns.SnsPublisher;
 import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
-import org.opengroup.osdu.core.aws.sns.AmazonSNSConfig;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Component
 public class MessageBusImpl implements IMessageBus {
 
     private String amazonSNSTopic;
-    private AmazonSNS snsClient;
+    private AmazonSNSAsync snsClient;
     @Value("${AWS.REGION}")
     private String currentRegion;
+    // points the client at an SNS compatible stand-in such as LocalStack when set
+    @Value("${aws.sns.endpoint:}")
+    private String snsEndpoint;
+    @Value("${aws.sns.max-in-flight:32}")
+    private int maxInFlight;
+    // the caller waits for SNS so a failed publish fails the request, or keeps the outbox entry for a retry
+    @Value("${aws.sns.publish-timeout-ms:30000}")
+    private long publishTimeoutMillis;
+
+    @Inject
+    private SnsPublisher snsPublisher;
+
+    @Inject
+    private ChangeEventEncoder changeEventEncoder;
 
     @Inject
     private JaxRsDpsLog logger;
@@ -51,17 +76,31 @@ public class MessageBusImpl implements IMessageBus {
         K8sLocalParameterProvider provider = new K8sLocalParameterProvider();
         amazonSNSRegion = provider.getParameterAsStringOrDefault("primary-region", currentRegion);
         amazonSNSTopic = provider.getParameterAsString("storage-sns-topic-arn");
-        snsClient = new AmazonSNSConfig(amazonSNSRegion).AmazonSNS();
+        AmazonSNSAsyncClientBuilder builder = AmazonSNSAsyncClientBuilder.standard()
+                .withExecutorFactory(() -> Executors.newFixedThreadPool(Math.max(1, maxInFlight)));
+        if (snsEndpoint == null || snsEndpoint.isEmpty()) {
+            builder.withRegion(amazonSNSRegion);
+        } else {
+            builder.withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(snsEndpoint, amazonSNSRegion));
+        }
+        snsClient = builder.build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (snsClient != null) {
+            snsClient.shutdown();
+        }
     }
 
     @Override
     public void publishMessage(DpsHeaders headers, PubSubInfo... messages) {
-        final int BATCH_SIZE = 50;
-        Gson gson = new Gson();
+        final int BATCH_SIZE = changeEventEncoder.getBatchSize();
+        List<PublishRequest> publishRequests = new ArrayList<>();
         for (int i =0; i < messages.length; i+= BATCH_SIZE){
 
             PubSubInfo[] batch = Arrays.copyOfRange(messages, i, Math.min(messages.length, i + BATCH_SIZE));
-            String json = gson.toJson(batch);
+            String json = changeEventEncoder.encodeToString(batch);
 
             // Attributes
             Map<String, MessageAttributeValue> messageAttributes = new HashMap<>();
@@ -81,12 +120,28 @@ public class MessageBusImpl implements IMessageBus {
             messageAttributes.put(DpsHeaders.AUTHORIZATION, new MessageAttributeValue()
                     .withDataType("String")
                     .withStringValue(headers.getAuthorization()));
+            messageAttributes.put(ChangeEventEncoder.ENCODING_ATTRIBUTE, new MessageAttributeValue()
+                    .withDataType("String")
+                    .withStringValue(changeEventEncoder.getEncoding()));
             PublishRequest publishRequest = new PublishRequest(amazonSNSTopic, json)
                     .withMessageAttributes(messageAttributes);
 
-            logger.info("Storage publishes message " + headers.getCorrelationId());
-            snsClient.publish(publishRequest);
+            publishRequests.add(publishRequest);
+        }
 
+        logger.info("Storage publishes message " + headers.getCorrelationId());
+        try {
+            snsPublisher.publish(snsClient, publishRequests).get(publishTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Publishing failed",
+                    "Could not publish the record changes to SNS", e.getCause());
+        } catch (TimeoutException e) {
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Publishing failed",
+                    "SNS did not confirm the record changes in time", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Publishing interrupted",
+                    "The request was interrupted while waiting for SNS", e);
         }
     }
 }
@@ -28,6 +28,7 @@ import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChangedCollection
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.storage.provider.aws.cache.LegalTagCache;
+import org.opengroup.osdu.storage.cache.LegalTagNearCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -61,6 +62,9 @@ public class LegalComplianceChangeServiceAWSImpl implements ILegalComplianceChan
     @Autowired
     private LegalTagCache legalTagCache;
 
+    @Autowired
+    private LegalTagNearCache legalTagNearCache;
+
     @Override
     public Map<String, LegalCompliance> updateComplianceOnRecords(LegalTagChangedCollection legalTagsChanged,
                                                                   DpsHeaders headers) throws ComplianceUpdateStoppedException {
@@ -71,7 +75,7 @@ public class LegalComplianceChangeServiceAWSImpl implements ILegalComplianceChan
         // reflect that
         for (LegalTagChanged lt : legalTagsChanged.getStatusChangedTags()) {
 
-            ComplianceChangeInfo complianceChangeInfo = this.getComplianceChangeInfo(lt);
+            ComplianceChangeInfo complianceChangeInfo = this.getComplianceChangeInfo(lt, headers.getPartitionId());
             if (complianceChangeInfo == null) {
                 continue;
             }
@@ -116,13 +120,14 @@ public class LegalComplianceChangeServiceAWSImpl implements ILegalComplianceChan
         return pubsubInfo;
     }
 
-    private ComplianceChangeInfo getComplianceChangeInfo(LegalTagChanged lt) {
+    private ComplianceChangeInfo getComplianceChangeInfo(LegalTagChanged lt, String partitionId) {
         ComplianceChangeInfo output = null;
 
         if (lt.getChangedTagStatus().equalsIgnoreCase(compliantName)) {
             output = new ComplianceChangeInfo(LegalCompliance.compliant, OperationType.create, RecordState.active);
         } else if (lt.getChangedTagStatus().equalsIgnoreCase(incompliantName)) {
             this.legalTagCache.delete(lt.getChangedTagName());
+            this.legalTagNearCache.delete(partitionId, lt.getChangedTagName());
             output = new ComplianceChangeInfo(LegalCompliance.incompliant, OperationType.delete, RecordState.deleted);
         } else {
             this.logger.warning(String.format("Unknown LegalTag compliance status received %s %s",
@@ -22,6 +22,7 @@ import org.opengroup.osdu.storage.provider.interfaces.IQueryRepository;
 import org.apache.http.HttpStatus;
 
 import org.opengroup.osdu.storage.service.BatchServiceImpl;
+import org.opengroup.osdu.storage.service.KindRegistry;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
@@ -36,6 +37,9 @@ public class BatchServiceAWSImpl extends BatchServiceImpl {
     @Inject
     private IQueryRepository queryRepository;
 
+    @Inject
+    private KindRegistry kindRegistry;
+
 //    @Inject
 //    private JaxRsDpsLog logger;
 
@@ -43,7 +47,7 @@ public class BatchServiceAWSImpl extends BatchServiceImpl {
     public DatastoreQueryResult getAllKinds(String cursor, Integer limit)
     {
         try {
-            DatastoreQueryResult result = this.queryRepository.getAllKinds(limit, cursor);
+            DatastoreQueryResult result = this.kindRegistry.getAllKinds(limit, cursor);
             this.auditLogger.readAllKindsSuccess(result.getResults());
             return result;
         } catch (InvalidCursorException e) {
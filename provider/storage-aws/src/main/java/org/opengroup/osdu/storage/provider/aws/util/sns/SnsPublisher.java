@@ -0,0 +1,109 @@
+// Copyright © 2020 Amazon Web Services
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.provider.aws.util.sns;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sns.model.PublishResult;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands publish requests to the async SNS client, keeping at most aws.sns.max-in-flight requests outstanding across
+ * the instance. The batches of one call are sent concurrently and the returned future reports their outcome, which
+ * callers wait for so that no failure goes unnoticed. The published and failed counters are for diagnostics only.
+ */
+@Component
+public class SnsPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnsPublisher.class);
+
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public SnsPublisher(@Value("${aws.sns.max-in-flight:32}") int maxInFlight) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlight = new Semaphore(this.maxInFlight);
+    }
+
+    /**
+     * Starts publishing the requests and returns a future that completes once SNS has answered all of them, and
+     * completes exceptionally with the first failure.
+     */
+    public CompletableFuture<Void> publish(AmazonSNSAsync snsClient, List<PublishRequest> requests) {
+        List<CompletableFuture<PublishResult>> results = new ArrayList<>(requests.size());
+        for (PublishRequest request : requests) {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Publishing interrupted",
+                        "The record changes were not all handed to SNS before the request was interrupted", e);
+            }
+
+            CompletableFuture<PublishResult> result = new CompletableFuture<>();
+            try {
+                snsClient.publishAsync(request, new AsyncHandler<PublishRequest, PublishResult>() {
+                    @Override
+                    public void onError(Exception exception) {
+                        inFlight.release();
+                        LOGGER.error(String.format("Publishing to SNS failed, %d failures so far: %s",
+                                failed.incrementAndGet(), exception.getMessage()), exception);
+                        result.completeExceptionally(exception);
+                    }
+
+                    @Override
+                    public void onSuccess(PublishRequest publishRequest, PublishResult publishResult) {
+                        inFlight.release();
+                        published.incrementAndGet();
+                        result.complete(publishResult);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // the client rejected the request before it was sent, so no handler will run for it
+                inFlight.release();
+                failed.incrementAndGet();
+                result.completeExceptionally(e);
+            }
+            results.add(result);
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]));
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public int getInFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+}
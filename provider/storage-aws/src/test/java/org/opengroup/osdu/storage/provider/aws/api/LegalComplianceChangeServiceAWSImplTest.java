@@ -34,6 +34,7 @@ import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChanged;
 import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChangedCollection;
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
 import org.opengroup.osdu.storage.provider.aws.cache.LegalTagCache;
+import org.opengroup.osdu.storage.cache.LegalTagNearCache;
 import org.opengroup.osdu.storage.provider.aws.jobs.LegalComplianceChangeServiceAWSImpl;
 import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
 import org.opengroup.osdu.storage.provider.interfaces.IRecordsMetadataRepository;
@@ -64,6 +65,9 @@ public class LegalComplianceChangeServiceAWSImplTest {
     @Mock
     private LegalTagCache legalTagCache;
 
+    @Mock
+    private LegalTagNearCache legalTagNearCache;
+
     @Test
     public void updateComplianceOnRecordsTest() throws ComplianceUpdateStoppedException {
         // arrange
@@ -163,6 +167,10 @@ public class LegalComplianceChangeServiceAWSImplTest {
         Assert.assertEquals(compliantPubSubInfos[0].getId(), compliantPubSub.getId());
         Assert.assertEquals(compliantPubSubInfos[0].getOp(), compliantPubSub.getOp());
 
+        // that both cache tiers drop the incompliant tag
+        Mockito.verify(legalTagCache, Mockito.times(1)).delete(incompliantTagName);
+        Mockito.verify(legalTagNearCache, Mockito.times(1)).delete(headers.getPartitionId(), incompliantTagName);
+
         // that output returned is expected
         Assert.assertEquals(output.get(incompliantRecordId), expectedOutput.get(incompliantRecordId));
         Assert.assertEquals(output.get(compliantRecordId), expectedOutput.get(compliantRecordId));
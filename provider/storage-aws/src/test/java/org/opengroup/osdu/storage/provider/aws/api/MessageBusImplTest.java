@@ -14,7 +14,9 @@
 
 package org.opengroup.osdu.storage.provider.aws.api;
 
-import com.amazonaws.services.sns.AmazonSNS;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sns.AmazonSNSAsync;
+import com.amazonaws.services.sns.model.AmazonSNSException;
 import com.amazonaws.services.sns.model.MessageAttributeValue;
 import com.amazonaws.services.sns.model.PublishRequest;
 import com.amazonaws.services.sns.model.PublishResult;
@@ -25,14 +27,19 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.indexer.OperationType;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.storage.StorageApplication;
 import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
+import org.opengroup.osdu.storage.messaging.ChangeEventEncoder;
 import org.opengroup.osdu.storage.provider.aws.MessageBusImpl;
+import org.opengroup.osdu.storage.provider.aws.util.sns.SnsPublisher;
 
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Arrays;
@@ -49,7 +56,13 @@ public class MessageBusImplTest {
     private MessageBusImpl messageBus = new MessageBusImpl();
 
     @Mock
-    private AmazonSNS snsClient;
+    private AmazonSNSAsync snsClient;
+
+    @Spy
+    private SnsPublisher snsPublisher = new SnsPublisher(4);
+
+    @Spy
+    private ChangeEventEncoder changeEventEncoder = new ChangeEventEncoder();
 
     @Mock
     private JaxRsDpsLog logger;
@@ -57,6 +70,21 @@ public class MessageBusImplTest {
     @Before
     public void setUp() {
         initMocks(this);
+        ReflectionTestUtils.setField(messageBus, "publishTimeoutMillis", 5000L);
+    }
+
+    private void answerPublish(Exception failure) {
+        Mockito.doAnswer(invocation -> {
+            PublishRequest request = (PublishRequest) invocation.getArguments()[0];
+            AsyncHandler<PublishRequest, PublishResult> handler =
+                    (AsyncHandler<PublishRequest, PublishResult>) invocation.getArguments()[1];
+            if (failure == null) {
+                handler.onSuccess(request, new PublishResult());
+            } else {
+                handler.onError(failure);
+            }
+            return null;
+        }).when(snsClient).publishAsync(Mockito.any(PublishRequest.class), Mockito.any(AsyncHandler.class));
     }
 
     @Test
@@ -70,9 +98,6 @@ public class MessageBusImplTest {
 
         PubSubInfo[] messages = new PubSubInfo[1];
         messages[0] = message;
-        Mockito.when(snsClient.publish(Mockito.any(PublishRequest.class)))
-                .thenReturn(Mockito.any(PublishResult.class));
-
         final int BATCH_SIZE = 50;
         Gson gson = new Gson();
         PublishRequest publishRequest = new PublishRequest();
@@ -99,14 +124,29 @@ public class MessageBusImplTest {
             messageAttributes.put(DpsHeaders.AUTHORIZATION, new MessageAttributeValue()
                     .withDataType("String")
                     .withStringValue(headers.getAuthorization()));
+            messageAttributes.put(ChangeEventEncoder.ENCODING_ATTRIBUTE, new MessageAttributeValue()
+                    .withDataType("String")
+                    .withStringValue(ChangeEventEncoder.JSON));
             publishRequest.setMessage(json);
             publishRequest.setMessageAttributes(messageAttributes);
         }
 
+        answerPublish(null);
+
         // act
         messageBus.publishMessage(headers, message);
 
         // assert
-        Mockito.verify(snsClient, Mockito.times(1)).publish(Mockito.eq(publishRequest));
+        Mockito.verify(snsClient, Mockito.times(1)).publishAsync(Mockito.eq(publishRequest), Mockito.any(AsyncHandler.class));
+    }
+
+    @Test(expected = AppException.class)
+    public void publishMessage_fails_when_snsRejectsThePublish() {
+        answerPublish(new AmazonSNSException("throttled"));
+        PubSubInfo message = new PubSubInfo();
+        message.setKind("common:welldb:wellbore:1.0.12311");
+        message.setOp(OperationType.create);
+
+        messageBus.publishMessage(new DpsHeaders(), message);
     }
 }
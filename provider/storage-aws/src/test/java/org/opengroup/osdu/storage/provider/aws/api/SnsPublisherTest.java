@@ -0,0 +1,124 @@
+// Copyright © 2020 Amazon Web Services
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.provider.aws.api;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sns.AbstractAmazonSNSAsync;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sns.model.PublishResult;
+import org.junit.After;
+import org.junit.Test;
+import org.opengroup.osdu.storage.provider.aws.util.sns.SnsPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SnsPublisherTest {
+
+    private static final int MAX_IN_FLIGHT = 3;
+
+    private final SnsPublisher publisher = new SnsPublisher(MAX_IN_FLIGHT);
+
+    private final FakeSns sns = new FakeSns(20);
+
+    @After
+    public void tearDown() {
+        sns.shutdown();
+    }
+
+    @Test
+    public void should_keepRequestsInFlight_upToTheBound() {
+        publisher.publish(sns, requests(12, "ok")).join();
+
+        assertEquals(12, sns.received.get());
+        assertEquals(MAX_IN_FLIGHT, sns.maxInFlight.get());
+        assertEquals(12, publisher.getPublishedCount());
+        assertEquals(0, publisher.getInFlightCount());
+    }
+
+    @Test
+    public void should_countFailures_andCompleteExceptionally() {
+        List<PublishRequest> requests = requests(4, "ok");
+        requests.add(new PublishRequest("topic", "fail"));
+
+        CompletableFuture<Void> result = publisher.publish(sns, requests);
+
+        try {
+            result.join();
+            fail("Should not succeed");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof AmazonServiceException);
+            assertEquals(4, publisher.getPublishedCount());
+            assertEquals(1, publisher.getFailedCount());
+            assertEquals(0, publisher.getInFlightCount());
+        }
+    }
+
+    private static List<PublishRequest> requests(int count, String message) {
+        List<PublishRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(new PublishRequest("topic", message));
+        }
+        return requests;
+    }
+
+    // local stand-in for SNS, answering each publish after latencyMillis and rejecting the "fail" message
+    private static class FakeSns extends AbstractAmazonSNSAsync {
+        private final long latencyMillis;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger received = new AtomicInteger();
+
+        FakeSns(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public Future<PublishResult> publishAsync(PublishRequest request,
+                                                  AsyncHandler<PublishRequest, PublishResult> handler) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return executor.submit(() -> {
+                Thread.sleep(latencyMillis);
+                received.incrementAndGet();
+                inFlight.decrementAndGet();
+                if ("fail".equals(request.getMessage())) {
+                    AmazonServiceException exception = new AmazonServiceException("Rejected");
+                    handler.onError(exception);
+                    throw exception;
+                }
+                PublishResult result = new PublishResult().withMessageId(String.valueOf(received.get()));
+                handler.onSuccess(request, result);
+                return result;
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -17,19 +17,25 @@ package org.opengroup.osdu.storage.provider.azure;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.microsoft.azure.eventgrid.models.EventGridEvent;
+import com.microsoft.azure.servicebus.IMessage;
 import com.microsoft.azure.servicebus.Message;
 import org.joda.time.DateTime;
 import org.opengroup.osdu.azure.eventgrid.EventGridTopicStore;
 import org.opengroup.osdu.azure.servicebus.ITopicClientFactory;
+import org.apache.http.HttpStatus;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
+import org.opengroup.osdu.storage.messaging.ChangeEventEncoder;
 import org.opengroup.osdu.storage.provider.azure.di.EventGridConfig;
 import org.opengroup.osdu.storage.provider.azure.di.PubSubConfig;
+import org.opengroup.osdu.storage.provider.azure.pubsub.ParallelPublisher;
 import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Named;
@@ -50,6 +56,19 @@ public class MessageBusImpl implements IMessageBus {
     private EventGridTopicStore eventGridTopicStore;
     @Autowired
     private PubSubConfig pubSubConfig;
+    @Autowired
+    private ParallelPublisher parallelPublisher;
+    @Autowired
+    private ChangeEventEncoder changeEventEncoder;
+    // each send carries up to this many messages of 50 records, well under the 256 KB Service Bus batch limit
+    @Value("${azure.servicebus.messages-per-send:10}")
+    private int messagesPerSend = 10;
+    // events per Event Grid publish call; consumers get one event per delivery when left at 1
+    @Value("${azure.eventGrid.events-per-publish:1}")
+    private int eventsPerPublish = 1;
+    // messages come from the outbox relay, which has to see failures to keep the entry for a retry
+    @Value("${outbox.enabled:false}")
+    private boolean failOnError;
 
     @Override
     public void publishMessage(DpsHeaders headers, PubSubInfo... messages) {
@@ -61,8 +80,8 @@ public class MessageBusImpl implements IMessageBus {
 
     private void publishToEventGrid(DpsHeaders headers, PubSubInfo[] messages) { //1000
         final int BATCH_SIZE = eventGridConfig.getEventGridBatchSize();
+        List<EventGridEvent> events = new ArrayList<>();
         for (int i = 0; i < messages.length; i += BATCH_SIZE) {
-            List<EventGridEvent> eventsList = new ArrayList<>();
             PubSubInfo[] batch = Arrays.copyOfRange(messages, i, Math.min(messages.length, i + BATCH_SIZE));
 
             HashMap<String, Object> data = new HashMap<>();
@@ -72,7 +91,7 @@ public class MessageBusImpl implements IMessageBus {
             data.put(DpsHeaders.CORRELATION_ID, headers.getCorrelationId());
 
             String messageId = UUID.randomUUID().toString();
-            eventsList.add(new EventGridEvent(
+            events.add(new EventGridEvent(
                     messageId,
                     RECORDS_CHANGED_EVENT_SUBJECT,
                     data,
@@ -81,22 +100,29 @@ public class MessageBusImpl implements IMessageBus {
                     RECORDS_CHANGED_EVENT_DATA_VERSION
             ));
             LOGGER.debug("Event generated: " + messageId);
+        }
 
-            // If a record change is not published (publishToEventGridTopic throws) we fail the job.
-            // This is done to make sure no notifications are missed.
-
-            // Event Grid has a capability to publish multiple events in an array. This will have perf implications,
-            // hence publishing one event at a time. If we are confident about the perf capabilities of consumer services,
-            // we can publish more more than one event in an array.
-            eventGridTopicStore.publishToEventGridTopic(headers.getPartitionId(), eventGridConfig.getTopicName(), eventsList);
+        // If a record change is not published (publishToEventGridTopic throws on every attempt) we fail the job.
+        // This is done to make sure no notifications are missed.
+
+        // Event Grid has a capability to publish multiple events in an array. This will have perf implications,
+        // hence publishing one event at a time by default. If we are confident about the perf capabilities of
+        // consumer services, azure.eventGrid.events-per-publish can be raised.
+        String partitionId = headers.getPartitionId();
+        String topicName = eventGridConfig.getTopicName();
+        List<ParallelPublisher.Send> sends = new ArrayList<>();
+        for (List<EventGridEvent> eventsList : partition(events, eventsPerPublish)) {
+            sends.add(() -> eventGridTopicStore.publishToEventGridTopic(partitionId, topicName, eventsList));
         }
+        parallelPublisher.sendAll(sends);
     }
 
-
     private void publishToServiceBus(DpsHeaders headers, PubSubInfo[] messages) {
-        final int BATCH_SIZE = 50;
+        final int BATCH_SIZE = changeEventEncoder.getBatchSize();
         Gson gson = new Gson();
+        headers.addCorrelationIdIfMissing();
 
+        List<IMessage> serviceBusMessages = new ArrayList<>();
         for (int i = 0; i < messages.length; i += BATCH_SIZE) {
             Message message = new Message();
             Map<String, Object> properties = new HashMap<>();
@@ -104,13 +130,21 @@ public class MessageBusImpl implements IMessageBus {
             // properties
             properties.put(DpsHeaders.ACCOUNT_ID, headers.getPartitionIdWithFallbackToAccountId());
             properties.put(DpsHeaders.DATA_PARTITION_ID, headers.getPartitionIdWithFallbackToAccountId());
-            headers.addCorrelationIdIfMissing();
             properties.put(DpsHeaders.CORRELATION_ID, headers.getCorrelationId());
+            properties.put(ChangeEventEncoder.ENCODING_ATTRIBUTE, changeEventEncoder.getEncoding());
             message.setProperties(properties);
 
             // data
             PubSubInfo[] batch = Arrays.copyOfRange(messages, i, Math.min(messages.length, i + BATCH_SIZE));
 
+            // compact encoding: the encoded notifications are the whole body, the rest is in the properties
+            if (changeEventEncoder.isCompact()) {
+                message.setBody(changeEventEncoder.encode(batch));
+                message.setContentType("application/octet-stream");
+                serviceBusMessages.add(message);
+                continue;
+            }
+
             // add all to body {"message": {"data":[], "id":...}}
             JsonObject jo = new JsonObject();
             jo.add("data", gson.toJsonTree(batch));
@@ -122,14 +156,34 @@ public class MessageBusImpl implements IMessageBus {
 
             message.setBody(jomsg.toString().getBytes(StandardCharsets.UTF_8));
             message.setContentType("application/json");
+            serviceBusMessages.add(message);
+        }
+
+        String partitionId = headers.getPartitionId();
+        String topicName = pubSubConfig.getServiceBusTopic();
+        List<ParallelPublisher.Send> sends = new ArrayList<>();
+        for (List<IMessage> messageBatch : partition(serviceBusMessages, messagesPerSend)) {
+            sends.add(() -> topicClientFactory.getClient(partitionId, topicName).sendBatch(messageBatch));
+        }
 
-            try {
-                LOGGER.debug("Storage publishes message to Service Bus " + headers.getCorrelationId());
-                topicClientFactory.getClient(headers.getPartitionId(), pubSubConfig.getServiceBusTopic()).send(message);
-            } catch (Exception e) {
-                LOGGER.error(e.getMessage(), e);
+        try {
+            LOGGER.debug("Storage publishes message to Service Bus " + headers.getCorrelationId());
+            parallelPublisher.sendAll(sends);
+        } catch (Exception e) {
+            LOGGER.error(e.getMessage(), e);
+            if (failOnError) {
+                throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Publishing failed",
+                        "Could not publish the record changes to Service Bus", e);
             }
         }
     }
 
-}
\ No newline at end of file
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        int step = Math.max(1, size);
+        List<List<T>> partitions = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += step) {
+            partitions.add(items.subList(i, Math.min(items.size(), i + step)));
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,37 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.provider.azure;
+
+import com.azure.spring.data.cosmos.core.mapping.PartitionKey;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+/**
+ * Claim of one outbox relay lease of a partition, stored in the outbox container next to the entries.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxLeaseDoc {
+    // lease-<number>, unique within the data partition
+    @Id
+    private String id;
+    @PartitionKey
+    private String partitionId;
+    private String owner;
+    private long lease;
+}
@@ -74,6 +74,18 @@ public class ThreadScopeContext {
         bean.destructionCallback = callback;
     }
 
+    /**
+     * Create a context exposing the beans of this one to another thread. Beans created in the copy are not seen
+     * here and the destruction callbacks stay with this context.
+     *
+     * @return context sharing the current bean values
+     */
+    public ThreadScopeContext copy() {
+        ThreadScopeContext copy = new ThreadScopeContext();
+        beans.forEach((name, bean) -> copy.setBean(name, bean.object));
+        return copy;
+    }
+
     /** Clear all beans and call the destruction callback. */
     public void clear() {
         for (Bean bean : beans.values()) {
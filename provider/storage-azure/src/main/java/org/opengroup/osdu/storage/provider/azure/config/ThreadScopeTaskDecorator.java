@@ -0,0 +1,39 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.provider.azure.config;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands the thread scoped beans of the submitting thread, such as the {@link ThreadDpsHeaders} of a legal tag
+ * message, to the pool thread running the task.
+ */
+@Component
+public class ThreadScopeTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        ThreadScopeContext context = ThreadScopeContextHolder.getContext().copy();
+        return () -> {
+            ThreadScopeContextHolder.setContext(context);
+            try {
+                runnable.run();
+            } finally {
+                ThreadScopeContextHolder.clearContext();
+            }
+        };
+    }
+}
@@ -16,6 +16,12 @@ public class CosmosContainerConfig {
     @Value("${azure.cosmosdb.tenantinfo.collection}")
     private String tenantInfoCollection;
 
+    @Value("${azure.cosmosdb.legaltagindex.collection:LegalTagRecordIndex}")
+    private String legalTagIndexCollectionName;
+
+    @Value("${azure.cosmosdb.outbox.collection:StorageOutbox}")
+    private String outboxCollectionName;
+
     @Bean
     public String schemaCollection() {
         return schemaCollectionName;
@@ -31,4 +37,14 @@ public class CosmosContainerConfig {
         return tenantInfoCollection;
     }
 
+    @Bean
+    public String legalTagIndexCollection() {
+        return legalTagIndexCollectionName;
+    }
+
+    @Bean
+    public String outboxCollection() {
+        return outboxCollectionName;
+    }
+
 }
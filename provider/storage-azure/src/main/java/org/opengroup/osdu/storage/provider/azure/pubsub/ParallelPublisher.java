@@ -0,0 +1,140 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.provider.azure.pubsub;
+
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.storage.jobs.CallerContextTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the sends of a publication on a shared pool, so that at most azure.publisher.max-in-flight sends are
+ * outstanding across all requests, and retries each send with exponential backoff before reporting it as failed.
+ * Sends run with the caller's request attributes and logging context, see {@link CallerContextTask}.
+ */
+@Component
+public class ParallelPublisher {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(ParallelPublisher.class);
+
+    @FunctionalInterface
+    public interface Send {
+        void send() throws Exception;
+    }
+
+    private final ExecutorService executor;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    @Autowired(required = false)
+    private TaskDecorator taskDecorator;
+
+    @Autowired
+    public ParallelPublisher(@Value("${azure.publisher.max-in-flight:8}") int maxInFlight,
+                             @Value("${azure.publisher.max-attempts:3}") int maxAttempts,
+                             @Value("${azure.publisher.initial-backoff-ms:100}") long initialBackoffMillis,
+                             @Value("${azure.publisher.max-backoff-ms:2000}") long maxBackoffMillis) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("record-change-publisher-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(Math.max(1, maxInFlight), threadFactory);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * Returns once every send has succeeded or used up its attempts. The sends are independent of each other: a
+     * failing one does not cancel the others, and the first failure is rethrown after all of them are done.
+     */
+    public void sendAll(List<Send> sends) {
+        // even a single send goes through the pool, so that the bound holds for every request
+        List<CallerContextTask<Void>> futures = new ArrayList<>(sends.size());
+        for (Send send : sends) {
+            futures.add(this.submit(() -> this.sendWithRetry(send)));
+        }
+
+        RuntimeException failure = null;
+        for (CallerContextTask<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(CallerContextTask::cancelAndAwait);
+                throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Publishing interrupted",
+                        "The record changes were not all published before the request was interrupted", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                            : new IllegalStateException(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    void sendWithRetry(Send send) {
+        long backoff = this.initialBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                send.send();
+                return;
+            } catch (Exception e) {
+                if (attempt >= this.maxAttempts) {
+                    throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Publishing failed",
+                            String.format("Could not publish the record changes after %d attempts", attempt), e);
+                }
+                LOGGER.warn(String.format("Publishing attempt %d failed, retrying in %d ms: %s",
+                        attempt, backoff, e.getMessage()));
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Publishing interrupted",
+                        "The record changes were not published before the request was interrupted", e);
+            }
+            backoff = Math.min(backoff * 2, this.maxBackoffMillis);
+        }
+    }
+
+    private CallerContextTask<Void> submit(Runnable runnable) {
+        return CallerContextTask.submit(this.executor, this.taskDecorator, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+}
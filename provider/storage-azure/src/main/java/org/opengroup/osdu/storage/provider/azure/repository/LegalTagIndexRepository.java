@@ -0,0 +1,97 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.provider.azure.repository;
+
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+import org.opengroup.osdu.storage.provider.azure.LegalTagIndexDoc;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reverse index from legal tag to record id, kept in its own container partitioned by legal tag so that the records
+ * of a tag are paged from a single partition instead of scanning the whole record metadata container.
+ */
+@Repository
+public class LegalTagIndexRepository extends SimpleCosmosStoreRepository<LegalTagIndexDoc> {
+
+    private static final String QUERY_BY_LEGAL_TAG = "SELECT * FROM c WHERE c.legalTag = @legalTag";
+
+    @Autowired
+    private DpsHeaders headers;
+
+    @Autowired
+    private String legalTagIndexCollection;
+
+    @Autowired
+    private String cosmosDBName;
+
+    @Autowired
+    private int minBatchSizeToUseBulkUpload;
+
+    public LegalTagIndexRepository() {
+        super(LegalTagIndexDoc.class);
+    }
+
+    /**
+     * Adds an entry for every legal tag of the records, in bulk when the batch is large enough.
+     */
+    public void index(List<RecordMetadata> recordsMetadata) {
+        Collection<LegalTagIndexDoc> docs = new ArrayList<>();
+        for (RecordMetadata recordMetadata : recordsMetadata) {
+            if (recordMetadata.getLegal() == null || recordMetadata.getLegal().getLegaltags() == null) {
+                continue;
+            }
+            for (String legalTag : recordMetadata.getLegal().getLegaltags()) {
+                docs.add(new LegalTagIndexDoc(recordMetadata.getId(), legalTag));
+            }
+        }
+
+        if (docs.size() >= minBatchSizeToUseBulkUpload) {
+            this.bulkInsert(headers.getPartitionId(), cosmosDBName, legalTagIndexCollection, docs);
+        } else {
+            for (LegalTagIndexDoc doc : docs) {
+                this.upsertItem(headers.getPartitionId(), cosmosDBName, legalTagIndexCollection, doc.getLegalTag(), doc);
+            }
+        }
+    }
+
+    public void remove(String recordId, Collection<String> legalTags) {
+        for (String legalTag : legalTags) {
+            try {
+                this.deleteItem(headers.getPartitionId(), cosmosDBName, legalTagIndexCollection, recordId, legalTag);
+            } catch (AppException e) {
+                if (e.getError().getCode() != HttpStatus.SC_NOT_FOUND) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public Page<LegalTagIndexDoc> findByLegalTag(String legalTag, int limit, String cursor) {
+        SqlQuerySpec query = new SqlQuerySpec(QUERY_BY_LEGAL_TAG, new SqlParameter("@legalTag", legalTag));
+        return this.queryItemsPage(headers.getPartitionId(), cosmosDBName, legalTagIndexCollection, query,
+                LegalTagIndexDoc.class, limit, cursor);
+    }
+}
@@ -0,0 +1,63 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.provider.azure.repository;
+
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.storage.provider.azure.OutboxLeaseDoc;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Relay leases of the outbox. Creating an item fails with a conflict when its id already exists in the partition,
+ * so creating lease-<number> claims the lease for exactly one instance.
+ */
+@Repository
+public class OutboxLeaseRepository extends SimpleCosmosStoreRepository<OutboxLeaseDoc> {
+
+    private static final String LEASE_ID = "lease-%d";
+
+    @Autowired
+    private String outboxCollection;
+
+    @Autowired
+    private String cosmosDBName;
+
+    public OutboxLeaseRepository() {
+        super(OutboxLeaseDoc.class);
+    }
+
+    public boolean claim(String partitionId, long lease, String owner) {
+        try {
+            this.createItem(partitionId, cosmosDBName, outboxCollection, partitionId,
+                    new OutboxLeaseDoc(String.format(LEASE_ID, lease), partitionId, owner, lease));
+        } catch (AppException e) {
+            if (e.getError().getCode() == HttpStatus.SC_CONFLICT) {
+                return false;
+            }
+            throw e;
+        }
+
+        // leases older than the previous one are no longer looked at
+        try {
+            this.deleteItem(partitionId, cosmosDBName, outboxCollection, String.format(LEASE_ID, lease - 2), partitionId);
+        } catch (AppException e) {
+            if (e.getError().getCode() != HttpStatus.SC_NOT_FOUND) {
+                throw e;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,115 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.provider.azure.repository;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.TransactionalBatch;
+import com.azure.cosmos.TransactionalBatchResponse;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.models.SqlQuerySpec;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.azure.cosmosdb.ICosmosClientFactory;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.storage.messaging.OutboxEntry;
+import org.opengroup.osdu.storage.provider.interfaces.IOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Outbox kept in a container of the partition's Cosmos account, next to the record metadata. The container is
+ * partitioned by data partition id (/partitionId) so the relay drains it from a single Cosmos partition, and it
+ * also holds the relay leases.
+ */
+@Repository
+public class OutboxRepository extends SimpleCosmosStoreRepository<OutboxEntry> implements IOutboxRepository {
+
+    // leases share the container, only entries carry messages
+    private static final String QUERY_OLDEST = "SELECT TOP %d * FROM c WHERE IS_DEFINED(c.messages) ORDER BY c.createdAt ASC";
+
+    // most operations Cosmos takes in one transactional batch
+    private static final int DELETE_BATCH_SIZE = 100;
+
+    @Autowired
+    private String outboxCollection;
+
+    @Autowired
+    private String cosmosDBName;
+
+    @Autowired
+    private OutboxLeaseRepository leaseRepository;
+
+    @Autowired
+    private ICosmosClientFactory cosmosClientFactory;
+
+    public OutboxRepository() {
+        super(OutboxEntry.class);
+    }
+
+    @Override
+    public void add(OutboxEntry entry) {
+        this.upsertItem(entry.getPartitionId(), cosmosDBName, outboxCollection, entry.getPartitionId(), entry);
+    }
+
+    @Override
+    public List<OutboxEntry> fetch(String partitionId, int limit) {
+        SqlQuerySpec query = new SqlQuerySpec(String.format(QUERY_OLDEST, limit));
+        CosmosQueryRequestOptions options = new CosmosQueryRequestOptions();
+        options.setPartitionKey(new PartitionKey(partitionId));
+        return this.queryItems(partitionId, cosmosDBName, outboxCollection, query, options);
+    }
+
+    /**
+     * Entries of a partition share its Cosmos partition, so they are deleted a transactional batch at a time. A batch
+     * is rolled back as a whole when one of its entries is already gone, e.g. removed by the previous leaseholder,
+     * and its entries are then deleted one by one.
+     */
+    @Override
+    public void delete(String partitionId, List<String> ids) {
+        CosmosContainer container = this.cosmosClientFactory.getClient(partitionId)
+                .getDatabase(cosmosDBName)
+                .getContainer(outboxCollection);
+        for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+            List<String> batchIds = ids.subList(from, Math.min(from + DELETE_BATCH_SIZE, ids.size()));
+            TransactionalBatch batch = TransactionalBatch.createTransactionalBatch(new PartitionKey(partitionId));
+            for (String id : batchIds) {
+                batch.deleteItemOperation(id);
+            }
+            TransactionalBatchResponse response = container.executeTransactionalBatch(batch);
+            if (!response.isSuccessStatusCode()) {
+                this.deleteOneByOne(partitionId, batchIds);
+            }
+        }
+    }
+
+    private void deleteOneByOne(String partitionId, List<String> ids) {
+        for (String id : ids) {
+            try {
+                this.deleteItem(partitionId, cosmosDBName, outboxCollection, id, partitionId);
+            } catch (AppException e) {
+                if (e.getError().getCode() != HttpStatus.SC_NOT_FOUND) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean claimLease(String partitionId, long lease, String owner) {
+        return this.leaseRepository.claim(partitionId, lease, owner);
+    }
+}
@@ -30,6 +30,7 @@ import org.opengroup.osdu.storage.provider.azure.SchemaDoc;
 import org.opengroup.osdu.storage.provider.interfaces.IQueryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -55,6 +56,10 @@ public class QueryRepository implements IQueryRepository {
     @Qualifier("CursorCache")
     private ICache<String, String> cursorCache;
 
+    // the cursors are the continuation tokens themselves, SignedCursorCodec keeps them opaque to clients
+    @Value("${azure.feature.stateless-cursors.enabled:false}")
+    private boolean statelessCursors;
+
     @Override
     public DatastoreQueryResult getAllKinds(Integer limit, String cursor) {
 
@@ -116,7 +121,10 @@ public class QueryRepository implements IQueryRepository {
         }
 
         String cursor = null;
-        if (hashedCursorKey != null && !hashedCursorKey.isEmpty()) {
+        if (hashedCursorKey != null && !hashedCursorKey.isEmpty() && statelessCursors) {
+            paginated = true;
+            cursor = hashedCursorKey;
+        } else if (hashedCursorKey != null && !hashedCursorKey.isEmpty()) {
             paginated = true;
             try {
                 cursor = this.cursorCache.get(hashedCursorKey);
@@ -142,7 +150,9 @@ public class QueryRepository implements IQueryRepository {
                     continuation = ((CosmosStorePageRequest) pageable).getRequestContinuation();
                 }
 
-                if (!Strings.isNullOrEmpty(continuation)) {
+                if (!Strings.isNullOrEmpty(continuation) && statelessCursors) {
+                    dqr.setCursor(continuation);
+                } else if (!Strings.isNullOrEmpty(continuation)) {
                     String hashedCursor = Crc32c.hashToBase64EncodedString(continuation);
                     this.cursorCache.put(hashedCursor, continuation);
                     dqr.setCursor(hashedCursor);
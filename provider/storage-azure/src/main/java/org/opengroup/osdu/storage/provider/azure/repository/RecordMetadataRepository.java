@@ -17,6 +17,7 @@ package org.opengroup.osdu.storage.provider.azure.repository;
 
 import com.azure.cosmos.CosmosException;
 import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.SqlParameter;
 import com.azure.cosmos.models.SqlQuerySpec;
 import com.microsoft.azure.documentdb.bulkexecutor.BulkImportResponse;
 import org.apache.http.HttpStatus;
@@ -26,11 +27,13 @@ import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.legal.LegalCompliance;
 import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+import org.opengroup.osdu.storage.provider.azure.LegalTagIndexDoc;
 import org.opengroup.osdu.storage.provider.azure.RecordMetadataDoc;
 import org.opengroup.osdu.storage.provider.azure.di.AzureBootstrapConfig;
 import org.opengroup.osdu.storage.provider.azure.di.CosmosContainerConfig;
 import org.opengroup.osdu.storage.provider.interfaces.IRecordsMetadataRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.lang.NonNull;
@@ -60,6 +63,17 @@ public class RecordMetadataRepository extends SimpleCosmosStoreRepository<Record
     @Autowired
     private int minBatchSizeToUseBulkUpload;
 
+    @Autowired
+    private LegalTagIndexRepository legalTagIndex;
+
+    // maintains the legal tag index on writes
+    @Value("${azure.feature.legaltag-index.enabled:false}")
+    private boolean legalTagIndexEnabled;
+
+    // pages legal tag queries from the index, to be enabled once the index of existing records is built
+    @Value("${azure.feature.legaltag-index.query.enabled:false}")
+    private boolean legalTagIndexQueryEnabled;
+
     public RecordMetadataRepository() {
         super(RecordMetadataDoc.class);
     }
@@ -71,6 +85,8 @@ public class RecordMetadataRepository extends SimpleCosmosStoreRepository<Record
         if(recordsMetadata.size() >= minBatchSizeToUseBulkUpload) createOrUpdateParallel(recordsMetadata);
         else createOrUpdateSerial(recordsMetadata);
 
+        if (legalTagIndexEnabled) legalTagIndex.index(recordsMetadata);
+
         return recordsMetadata;
     }
 
@@ -115,6 +131,8 @@ public class RecordMetadataRepository extends SimpleCosmosStoreRepository<Record
 
     @Override
     public AbstractMap.SimpleEntry<String, List<RecordMetadata>> queryByLegalTagName(String legalTagName, int limit, String cursor) {
+        if (legalTagIndexQueryEnabled) return queryByLegalTagIndex(legalTagName, limit, cursor);
+
         List<RecordMetadata> outputRecords = new ArrayList<>();
         String continuation = null;
 
@@ -148,6 +166,48 @@ public class RecordMetadataRepository extends SimpleCosmosStoreRepository<Record
         return new AbstractMap.SimpleEntry<>(continuation, outputRecords);
     }
 
+    /**
+     * Pages the record ids of the tag from the legal tag index and reads their metadata. Index entries left behind
+     * by a record whose legal tags changed are dropped as they are met, pages made only of such entries are skipped
+     * so that an empty page still means the end of the results.
+     */
+    private AbstractMap.SimpleEntry<String, List<RecordMetadata>> queryByLegalTagIndex(String legalTagName, int limit, String cursor) {
+        List<RecordMetadata> outputRecords = new ArrayList<>();
+        String continuation = cursor;
+
+        try {
+            do {
+                Page<LegalTagIndexDoc> indexPage = legalTagIndex.findByLegalTag(legalTagName, limit, continuation);
+                continuation = null;
+                Pageable pageable = indexPage.getPageable();
+                if (pageable instanceof CosmosStorePageRequest) {
+                    continuation = ((CosmosStorePageRequest) pageable).getRequestContinuation();
+                }
+
+                List<String> ids = new ArrayList<>();
+                indexPage.getContent().forEach(d -> ids.add(d.getId()));
+                if (ids.isEmpty()) continue;
+
+                Map<String, RecordMetadata> records = this.get(ids);
+                for (String id : ids) {
+                    RecordMetadata record = records.get(id);
+                    if (record != null && record.getLegal() != null && record.getLegal().getLegaltags() != null
+                            && record.getLegal().getLegaltags().contains(legalTagName)) {
+                        outputRecords.add(record);
+                    } else {
+                        legalTagIndex.remove(id, Collections.singleton(legalTagName));
+                    }
+                }
+            } while (outputRecords.isEmpty() && continuation != null);
+        } catch (CosmosException e) {
+            if (e.getStatusCode() == HttpStatus.SC_BAD_REQUEST && e.getMessage().contains("INVALID JSON in continuation token"))
+                throw this.getInvalidCursorException();
+            else
+                throw e;
+        }
+        return new AbstractMap.SimpleEntry<>(continuation, outputRecords);
+    }
+
     @Override
     public Map<String, RecordMetadata> get(List<String> ids) {
         String sqlQueryString = createCosmosBatchGetQueryById(ids);
@@ -164,6 +224,26 @@ public class RecordMetadataRepository extends SimpleCosmosStoreRepository<Record
         return results;
     }
 
+    /**
+     * Relies on a composite index on the time field and the id of the record metadata container, without it the
+     * ORDER BY on two properties is rejected.
+     */
+    @Override
+    public List<RecordMetadata> queryByTime(String timeField, long after, String afterId, int limit) {
+        String field = "c.metadata." + timeField;
+        SqlQuerySpec query = new SqlQuerySpec(String.format(
+                "SELECT TOP %d * FROM c WHERE %s > @time OR (%s = @time AND c.id > @id) ORDER BY %s ASC, c.id ASC",
+                limit, field, field, field),
+                new SqlParameter("@time", after), new SqlParameter("@id", afterId));
+
+        List<RecordMetadata> records = new ArrayList<>();
+        for (RecordMetadataDoc doc : this.queryItems(headers.getPartitionId(), cosmosDBName, recordMetadataCollection, query,
+                new CosmosQueryRequestOptions())) {
+            if (doc.getMetadata() != null) records.add(doc.getMetadata());
+        }
+        return records;
+    }
+
     private AppException getInvalidCursorException() {
         return new AppException(HttpStatus.SC_BAD_REQUEST, "Cursor invalid",
                 "The requested cursor does not exist or is invalid");
@@ -204,7 +284,11 @@ public class RecordMetadataRepository extends SimpleCosmosStoreRepository<Record
 
     @Override
     public void delete(String id) {
+        RecordMetadata recordMetadata = legalTagIndexEnabled ? this.get(id) : null;
         this.deleteById(id, headers.getPartitionId(), cosmosDBName, recordMetadataCollection, id);
+        if (recordMetadata != null && recordMetadata.getLegal() != null && recordMetadata.getLegal().getLegaltags() != null) {
+            legalTagIndex.remove(id, recordMetadata.getLegal().getLegaltags());
+        }
     }
 
     /**
@@ -14,6 +14,9 @@
 
 package org.opengroup.osdu.storage.provider.azure.repository;
 
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.storage.Schema;
@@ -29,9 +32,17 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Repository
 public class SchemaRepository extends SimpleCosmosStoreRepository<SchemaDoc> implements ISchemaRepository {
 
+    private static final String QUERY_BY_KINDS = "SELECT * FROM c WHERE ARRAY_CONTAINS(@kinds, c.id)";
+
     @Autowired
     private DpsHeaders headers;
 
@@ -77,6 +88,21 @@ public class SchemaRepository extends SimpleCosmosStoreRepository<SchemaDoc> imp
         return (item == null) ? null : map(item);
     }
 
+    @Override
+    public Map<String, Schema> get(Collection<String> kinds) {
+        Map<String, Schema> schemas = new HashMap<>();
+        if (kinds.isEmpty()) {
+            return schemas;
+        }
+        SqlQuerySpec query = new SqlQuerySpec(QUERY_BY_KINDS, new SqlParameter("@kinds", new ArrayList<>(kinds)));
+        List<SchemaDoc> docs = this.queryItems(headers.getPartitionId(), cosmosDBName, schemaCollection, query,
+                new CosmosQueryRequestOptions());
+        for (SchemaDoc doc : docs) {
+            schemas.put(doc.getKind(), map(doc));
+        }
+        return schemas;
+    }
+
     public Schema map(SchemaDoc item) {
         Schema schema = new Schema();
         schema.setKind(item.getKind());
@@ -19,6 +19,7 @@ import org.opengroup.osdu.storage.logging.StorageAuditLogger;
 import org.opengroup.osdu.core.common.model.storage.DatastoreQueryResult;
 import org.opengroup.osdu.storage.provider.interfaces.IQueryRepository;
 import org.opengroup.osdu.storage.service.BatchServiceImpl;
+import org.opengroup.osdu.storage.service.KindRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -32,13 +33,16 @@ public class BatchServiceAzureImpl extends BatchServiceImpl {
     @Autowired
     private IQueryRepository queryRepository;
 
+    @Autowired
+    private KindRegistry kindRegistry;
+
     @Autowired
     private JaxRsDpsLog logger;
 
     @Override
     public DatastoreQueryResult getAllKinds(String cursor, Integer limit)
     {
-        DatastoreQueryResult result = this.queryRepository.getAllKinds(limit, cursor);
+        DatastoreQueryResult result = this.kindRegistry.getAllKinds(limit, cursor);
         this.auditLogger.readAllKindsSuccess(result.getResults());
         return result;
     }
@@ -21,19 +21,20 @@ import org.opengroup.osdu.core.common.model.legal.jobs.*;
 import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
 import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
 import org.opengroup.osdu.core.common.model.storage.RecordState;
+import org.opengroup.osdu.storage.jobs.ComplianceUpdatePipeline;
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
-import org.opengroup.osdu.storage.provider.azure.MessageBusImpl;
 import org.opengroup.osdu.storage.provider.azure.cache.LegalTagCache;
+import org.opengroup.osdu.storage.cache.LegalTagNearCache;
+import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
 import org.opengroup.osdu.storage.provider.interfaces.IRecordsMetadataRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.AbstractMap;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import static java.util.Collections.singletonList;
 
 @Component
@@ -46,26 +47,33 @@ public class LegalComplianceChangeServiceAzureImpl implements ILegalComplianceCh
     @Autowired
     private LegalTagCache legalTagCache;
     @Autowired
-    private MessageBusImpl pubSubclient;
+    private LegalTagNearCache legalTagNearCache;
+    @Autowired
+    private IMessageBus pubSubclient;
+    @Autowired
+    private ComplianceUpdatePipeline complianceUpdatePipeline;
 
     @Override
     public Map<String, LegalCompliance> updateComplianceOnRecords(LegalTagChangedCollection legalTagsChanged,
                                                                   DpsHeaders headers) throws ComplianceUpdateStoppedException {
-        Map<String, LegalCompliance> output = new HashMap<>();
+        Map<String, LegalCompliance> output = new ConcurrentHashMap<>();
+
+        this.complianceUpdatePipeline.forEachTag(legalTagsChanged.getStatusChangedTags(),
+                lt -> this.updateComplianceOnRecords(lt, headers, output));
+        return output;
+    }
 
-        for (LegalTagChanged lt : legalTagsChanged.getStatusChangedTags()) {
-            ComplianceChangeInfo complianceChangeInfo = this.getComplianceChangeInfo(lt);
-            if (complianceChangeInfo == null) {
-                continue;
-            }
-            String cursor = null;
-            do {
-                //TODO replace with the new method queryByLegal
-                AbstractMap.SimpleEntry<String, List<RecordMetadata>> results = recordsRepo
-                        .queryByLegalTagName(lt.getChangedTagName(), 500, cursor);
-                cursor = results.getKey();
-                if (results.getValue() != null && !results.getValue().isEmpty()) {
-                    List<RecordMetadata> recordsMetadata = results.getValue();
+    private void updateComplianceOnRecords(LegalTagChanged lt, DpsHeaders headers, Map<String, LegalCompliance> output)
+            throws ComplianceUpdateStoppedException {
+        ComplianceChangeInfo complianceChangeInfo = this.getComplianceChangeInfo(lt, headers.getPartitionId());
+        if (complianceChangeInfo == null) {
+            return;
+        }
+        //TODO replace with the new method queryByLegal
+        this.complianceUpdatePipeline.<String>forEachPage(
+                cursor -> recordsRepo.queryByLegalTagName(lt.getChangedTagName(), 500, cursor),
+                null, true,
+                (recordsMetadata, nextCursor) -> {
                     PubSubInfo[] pubsubInfos = this.updateComplianceStatus(complianceChangeInfo, recordsMetadata, output);
                     this.recordsRepo.createOrUpdate(recordsMetadata);
                     StringBuilder recordsId = new StringBuilder();
@@ -75,10 +83,7 @@ public class LegalComplianceChangeServiceAzureImpl implements ILegalComplianceCh
                     LOGGER.debug("Record Updated Successfully {}",recordsId.substring(2));
 
                     this.pubSubclient.publishMessage(headers, pubsubInfos);
-                }
-            } while (cursor != null);
-        }
-        return output;
+                });
     }
 
     private PubSubInfo[] updateComplianceStatus(ComplianceChangeInfo complianceChangeInfo,
@@ -98,13 +103,14 @@ public class LegalComplianceChangeServiceAzureImpl implements ILegalComplianceCh
         return pubsubInfo;
     }
 
-    private ComplianceChangeInfo getComplianceChangeInfo(LegalTagChanged lt) {
+    private ComplianceChangeInfo getComplianceChangeInfo(LegalTagChanged lt, String partitionId) {
         ComplianceChangeInfo output = null;
 
         if (lt.getChangedTagStatus().equalsIgnoreCase("compliant")) {
             output = new ComplianceChangeInfo(LegalCompliance.compliant, OperationType.create, RecordState.active);
         } else if (lt.getChangedTagStatus().equalsIgnoreCase("incompliant")) {
             this.legalTagCache.delete(lt.getChangedTagName());
+            this.legalTagNearCache.delete(partitionId, lt.getChangedTagName());
             output = new ComplianceChangeInfo(LegalCompliance.incompliant, OperationType.delete, RecordState.deleted);
         } else {
             this.LOGGER.warn(String.format("Unknown LegalTag compliance status received %s %s",
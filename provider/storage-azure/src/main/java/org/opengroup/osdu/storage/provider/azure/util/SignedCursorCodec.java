@@ -0,0 +1,156 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.provider.azure.util;
+
+import com.google.common.base.Strings;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.storage.provider.interfaces.ICursorCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Puts the Cosmos continuation token itself in the cursors of the query API, deflated and signed with
+ * azure.cursor.signing-key together with the data partition, so paging needs no cursor cache and its cursors
+ * outlive cache evictions and restarts. A cursor that was altered or issued for another partition is rejected.
+ * The key has to be shared by all instances, rotating it invalidates the cursors in flight.
+ */
+@Component
+@ConditionalOnProperty(value = "azure.feature.stateless-cursors.enabled", havingValue = "true", matchIfMissing = false)
+public class SignedCursorCodec implements ICursorCodec {
+
+    private static final byte VERSION = 1;
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 16;
+    // continuation tokens are a few KB at most, anything inflating beyond this is not one
+    private static final int MAX_CURSOR_LENGTH = 64 * 1024;
+
+    private final SecretKeySpec key;
+
+    @Autowired
+    private DpsHeaders headers;
+
+    @Autowired
+    public SignedCursorCodec(@Value("${azure.cursor.signing-key:}") String signingKey) {
+        if (Strings.isNullOrEmpty(signingKey)) {
+            throw new IllegalStateException("azure.cursor.signing-key is required with stateless cursors enabled");
+        }
+        this.key = new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    @Override
+    public String encodeCursor(String providerCursor) {
+        if (Strings.isNullOrEmpty(providerCursor)) {
+            return providerCursor;
+        }
+        byte[] payload = deflate(providerCursor.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer cursor = ByteBuffer.allocate(1 + payload.length + MAC_LENGTH);
+        cursor.put(VERSION).put(payload).put(this.sign(payload), 0, MAC_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.array());
+    }
+
+    @Override
+    public String decodeCursor(String cursor) {
+        if (Strings.isNullOrEmpty(cursor)) {
+            return cursor;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length <= 1 + MAC_LENGTH || bytes[0] != VERSION) {
+                throw getInvalidCursorException();
+            }
+            byte[] payload = Arrays.copyOfRange(bytes, 1, bytes.length - MAC_LENGTH);
+            byte[] mac = Arrays.copyOfRange(bytes, bytes.length - MAC_LENGTH, bytes.length);
+            if (!MessageDigest.isEqual(mac, Arrays.copyOf(this.sign(payload), MAC_LENGTH))) {
+                throw getInvalidCursorException();
+            }
+            return new String(inflate(payload), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException | DataFormatException e) {
+            throw getInvalidCursorException();
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(this.key);
+            mac.update(VERSION);
+            mac.update(this.headers.getPartitionId().getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cursor signing is not available", e);
+        }
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated cursor");
+                }
+                out.write(buffer, 0, inflated);
+                if (out.size() > MAX_CURSOR_LENGTH) {
+                    throw new DataFormatException("Cursor too long");
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static AppException getInvalidCursorException() {
+        return new AppException(HttpStatus.SC_BAD_REQUEST, "Cursor invalid",
+                "The requested cursor does not exist or is invalid");
+    }
+}
@@ -15,6 +15,7 @@
 package org.opengroup.osdu.storage.provider.azure;
 
 import com.microsoft.azure.eventgrid.models.EventGridEvent;
+import com.microsoft.azure.servicebus.IMessage;
 import com.microsoft.azure.servicebus.TopicClient;
 import com.microsoft.azure.servicebus.primitives.ServiceBusException;
 import org.joda.time.DateTime;
@@ -24,21 +25,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.opengroup.osdu.azure.eventgrid.EventGridTopicStore;
 import org.opengroup.osdu.azure.servicebus.ITopicClientFactory;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
+import org.opengroup.osdu.storage.messaging.ChangeEventEncoder;
 import org.opengroup.osdu.storage.provider.azure.di.EventGridConfig;
+import org.opengroup.osdu.storage.provider.azure.pubsub.ParallelPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -69,6 +77,9 @@ public class MessageBusImplTest {
     @Mock
     private JaxRsDpsLog logger;
 
+    @Spy
+    private ChangeEventEncoder changeEventEncoder = new ChangeEventEncoder();
+
     @InjectMocks
     private MessageBusImpl sut;
 
@@ -80,6 +91,8 @@ public class MessageBusImplTest {
         doReturn(PARTITION_ID).when(dpsHeaders).getPartitionId();
         doReturn(CORRELATION_ID).when(dpsHeaders).getCorrelationId();
         doReturn(topicClient).when(topicClientFactory).getClient(eq(PARTITION_ID), any());
+        // a single send in flight keeps the order of the published batches deterministic
+        ReflectionTestUtils.setField(sut, "parallelPublisher", new ParallelPublisher(1, 3, 0, 0));
     }
 
     @Test
@@ -119,6 +132,45 @@ public class MessageBusImplTest {
         assertTrue(observedIds.containsAll(Arrays.asList(ids)) && Arrays.asList(ids).containsAll(observedIds));
     }
 
+    @Test
+    public void should_groupServiceBusMessages_intoBatchSends() throws Exception {
+        PubSubInfo[] pubSubInfo = new PubSubInfo[120];
+        for (int i = 0; i < pubSubInfo.length; ++i) {
+            pubSubInfo[i] = getPubsInfo("id" + i, "kind" + i);
+        }
+        ReflectionTestUtils.setField(sut, "messagesPerSend", 2);
+
+        sut.publishMessage(this.dpsHeaders, pubSubInfo);
+
+        ArgumentCaptor<Collection<IMessage>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(this.topicClient, times(2)).sendBatch(batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).size());
+        assertEquals(1, batches.getAllValues().get(1).size());
+    }
+
+    @Test
+    public void should_retryEventGridPublishing_beforeFailing() {
+        PubSubInfo[] pubSubInfo = {getPubsInfo("id1", "kind1")};
+        when(this.eventGridConfig.isPublishingToEventGridEnabled()).thenReturn(true);
+        when(this.eventGridConfig.getEventGridBatchSize()).thenReturn(5);
+        when(this.eventGridConfig.getTopicName()).thenReturn("recordstopic");
+        doThrow(new AppException(500, "Server error", "Event Grid unavailable"))
+                .doNothing()
+                .doThrow(new AppException(500, "Server error", "Event Grid unavailable"))
+                .when(this.eventGridTopicStore).publishToEventGridTopic(any(), any(), anyList());
+
+        sut.publishMessage(this.dpsHeaders, pubSubInfo);
+        verify(this.eventGridTopicStore, times(2)).publishToEventGridTopic(any(), any(), anyList());
+
+        try {
+            sut.publishMessage(this.dpsHeaders, pubSubInfo);
+            fail("Should not succeed");
+        } catch (AppException e) {
+            assertEquals(500, e.getError().getCode());
+            verify(this.eventGridTopicStore, times(5)).publishToEventGridTopic(any(), any(), anyList());
+        }
+    }
+
     private List<String> getListOfId(List<List<EventGridEvent>> value) {
         List<String> ids = new ArrayList<>();
         for (List<EventGridEvent> list: value) {
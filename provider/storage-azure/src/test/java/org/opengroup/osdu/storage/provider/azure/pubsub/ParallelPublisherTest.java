@@ -0,0 +1,104 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.provider.azure.pubsub;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opengroup.osdu.core.common.model.http.AppException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelPublisherTest {
+
+    private static final int MAX_IN_FLIGHT = 4;
+
+    private final ParallelPublisher sut = new ParallelPublisher(MAX_IN_FLIGHT, 3, 0, 0);
+
+    @AfterEach
+    void shutdown() {
+        sut.shutdown();
+    }
+
+    @Test
+    void should_keepSendsInFlight_upToTheBound() {
+        FakeBroker broker = new FakeBroker(50);
+
+        sut.sendAll(sends(broker, 16));
+
+        assertEquals(16, broker.received.get());
+        assertEquals(MAX_IN_FLIGHT, broker.maxInFlight.get());
+    }
+
+    @Test
+    void should_sendEveryBatch_when_oneOfThemFails() {
+        FakeBroker broker = new FakeBroker(0);
+        List<ParallelPublisher.Send> sends = sends(broker, 5);
+        sends.add(() -> {
+            throw new IllegalStateException("broker down");
+        });
+
+        AppException e = assertThrows(AppException.class, () -> sut.sendAll(sends));
+
+        assertEquals(500, e.getError().getCode());
+        assertEquals(5, broker.received.get());
+    }
+
+    @Test
+    void should_runSingleSendOnThePool() {
+        AtomicReference<String> thread = new AtomicReference<>();
+
+        sut.sendAll(Collections.singletonList(() -> thread.set(Thread.currentThread().getName())));
+
+        assertTrue(thread.get().startsWith("record-change-publisher-"));
+    }
+
+    private static List<ParallelPublisher.Send> sends(FakeBroker broker, int count) {
+        List<ParallelPublisher.Send> sends = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            sends.add(broker::send);
+        }
+        return sends;
+    }
+
+    // stands in for Service Bus or Event Grid, taking latencyMillis to acknowledge each send
+    private static class FakeBroker {
+        private final long latencyMillis;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger received = new AtomicInteger();
+
+        FakeBroker(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        void send() throws InterruptedException {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(latencyMillis);
+                received.incrementAndGet();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.provider.azure.repository;
+
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.SqlQuerySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengroup.osdu.azure.cosmosdb.CosmosStore;
+import org.opengroup.osdu.azure.query.CosmosStorePageRequest;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.legal.Legal;
+import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+import org.opengroup.osdu.storage.provider.azure.LegalTagIndexDoc;
+import org.opengroup.osdu.storage.provider.azure.RecordMetadataDoc;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RecordMetadataRepositoryTest {
+
+    private static final String PARTITION_ID = "opendes";
+    private static final String DATABASE = "osdu-db";
+    private static final String COLLECTION = "StorageRecord";
+
+    @Mock
+    private CosmosStore cosmosStore;
+
+    @Mock
+    private LegalTagIndexRepository legalTagIndex;
+
+    @Mock
+    private DpsHeaders headers;
+
+    @InjectMocks
+    private RecordMetadataRepository sut;
+
+    @BeforeEach
+    public void setup() {
+        ReflectionTestUtils.setField(sut, "cosmosDBName", DATABASE);
+        ReflectionTestUtils.setField(sut, "recordMetadataCollection", COLLECTION);
+        ReflectionTestUtils.setField(sut, "minBatchSizeToUseBulkUpload", 100);
+        ReflectionTestUtils.setField(sut, "legalTagIndexEnabled", true);
+        ReflectionTestUtils.setField(sut, "legalTagIndexQueryEnabled", true);
+        lenient().when(headers.getPartitionId()).thenReturn(PARTITION_ID);
+    }
+
+    @Test
+    public void should_pageRecordsFromIndex_and_dropStaleEntries() {
+        when(legalTagIndex.findByLegalTag("tag1", 2, null))
+                .thenReturn(indexPage("next", "r1", "r2"));
+        when(cosmosStore.queryItems(eq(PARTITION_ID), eq(DATABASE), eq(COLLECTION), any(SqlQuerySpec.class),
+                any(CosmosQueryRequestOptions.class), eq(RecordMetadataDoc.class)))
+                .thenReturn(Arrays.asList(recordDoc("r1", "tag1"), recordDoc("r2", "tag2")));
+
+        AbstractMap.SimpleEntry<String, List<RecordMetadata>> result = sut.queryByLegalTagName("tag1", 2, null);
+
+        assertEquals("next", result.getKey());
+        assertEquals(1, result.getValue().size());
+        assertEquals("r1", result.getValue().get(0).getId());
+        verify(legalTagIndex).remove("r2", Collections.singleton("tag1"));
+    }
+
+    @Test
+    public void should_skipPagesOfStaleEntries_when_pagingIndex() {
+        when(legalTagIndex.findByLegalTag("tag1", 1, null)).thenReturn(indexPage("c1", "r2"));
+        when(legalTagIndex.findByLegalTag("tag1", 1, "c1")).thenReturn(indexPage(null, "r1"));
+        when(cosmosStore.queryItems(eq(PARTITION_ID), eq(DATABASE), eq(COLLECTION), any(SqlQuerySpec.class),
+                any(CosmosQueryRequestOptions.class), eq(RecordMetadataDoc.class)))
+                .thenReturn(Collections.singletonList(recordDoc("r2", "tag2")))
+                .thenReturn(Collections.singletonList(recordDoc("r1", "tag1")));
+
+        AbstractMap.SimpleEntry<String, List<RecordMetadata>> result = sut.queryByLegalTagName("tag1", 1, null);
+
+        assertNull(result.getKey());
+        assertEquals(1, result.getValue().size());
+        assertEquals("r1", result.getValue().get(0).getId());
+    }
+
+    @Test
+    public void should_indexLegalTags_when_recordsWritten() {
+        List<RecordMetadata> records = Arrays.asList(recordDoc("r1", "tag1").getMetadata(),
+                recordDoc("r2", "tag2").getMetadata());
+
+        sut.createOrUpdate(records);
+
+        verify(cosmosStore).upsertItem(eq(PARTITION_ID), eq(DATABASE), eq(COLLECTION), eq("r1"), any(RecordMetadataDoc.class));
+        verify(cosmosStore).upsertItem(eq(PARTITION_ID), eq(DATABASE), eq(COLLECTION), eq("r2"), any(RecordMetadataDoc.class));
+        verify(legalTagIndex).index(records);
+    }
+
+    @Test
+    public void should_removeIndexEntries_when_recordDeleted() {
+        RecordMetadataDoc doc = recordDoc("r1", "tag1");
+        when(cosmosStore.findItem(PARTITION_ID, DATABASE, COLLECTION, "r1", "r1", RecordMetadataDoc.class))
+                .thenReturn(Optional.of(doc));
+
+        sut.delete("r1");
+
+        verify(cosmosStore).deleteItem(PARTITION_ID, DATABASE, COLLECTION, "r1", "r1");
+        verify(legalTagIndex).remove("r1", doc.getMetadata().getLegal().getLegaltags());
+    }
+
+    @Test
+    public void should_notTouchIndex_when_indexDisabled() {
+        ReflectionTestUtils.setField(sut, "legalTagIndexEnabled", false);
+
+        sut.delete("r1");
+
+        verify(cosmosStore).deleteItem(PARTITION_ID, DATABASE, COLLECTION, "r1", "r1");
+        verify(legalTagIndex, never()).remove(any(), any());
+    }
+
+    private static PageImpl<LegalTagIndexDoc> indexPage(String continuation, String... ids) {
+        List<LegalTagIndexDoc> docs = new ArrayList<>();
+        for (String id : ids) {
+            docs.add(new LegalTagIndexDoc(id, "tag1"));
+        }
+        return new PageImpl<>(docs, CosmosStorePageRequest.of(0, ids.length, continuation), ids.length);
+    }
+
+    private static RecordMetadataDoc recordDoc(String id, String legalTag) {
+        Legal legal = new Legal();
+        legal.setLegaltags(new HashSet<>(Collections.singletonList(legalTag)));
+        RecordMetadata metadata = new RecordMetadata();
+        metadata.setId(id);
+        metadata.setLegal(legal);
+        return new RecordMetadataDoc(id, metadata);
+    }
+}
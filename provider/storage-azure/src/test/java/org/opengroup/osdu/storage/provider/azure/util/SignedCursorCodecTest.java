@@ -0,0 +1,93 @@
+// Copyright © Microsoft Corporation
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.provider.azure.util;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SignedCursorCodecTest {
+
+    private static final String CONTINUATION = "[{\"compositeToken\":\"{\\\"token\\\":\\\"-RID:~AbCdEfGhIjA=#RT:1#TRC:10#ISV:2#IEO:65551\\\","
+            + "\\\"range\\\":{\\\"min\\\":\\\"\\\",\\\"max\\\":\\\"FF\\\"}}\",\"orderByItems\":[{\"item\":\"opendes:doc:10\"}],"
+            + "\"rid\":\"AbCdEfGhIjAKAAAAAAAAAA==\",\"inclusive\":true}]";
+
+    @Mock
+    private DpsHeaders headers;
+
+    private final SignedCursorCodec sut = new SignedCursorCodec("test-signing-key");
+
+    @Before
+    public void setup() {
+        ReflectionTestUtils.setField(sut, "headers", headers);
+    }
+
+    @Test
+    public void should_roundTripContinuation_inUrlSafeCursor() {
+        when(headers.getPartitionId()).thenReturn("opendes");
+        String cursor = sut.encodeCursor(CONTINUATION);
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+        assertEquals(CONTINUATION, sut.decodeCursor(cursor));
+        assertNull(sut.encodeCursor(null));
+        assertNull(sut.decodeCursor(null));
+    }
+
+    @Test
+    public void should_rejectAlteredCursor() {
+        when(headers.getPartitionId()).thenReturn("opendes");
+        byte[] bytes = Base64.getUrlDecoder().decode(sut.encodeCursor(CONTINUATION));
+        bytes[3] ^= 1;
+
+        assertInvalid(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes));
+        assertInvalid("bm90IGEgY3Vyc29y");
+    }
+
+    @Test
+    public void should_rejectCursorIssuedForAnotherPartition() {
+        when(headers.getPartitionId()).thenReturn("opendes", "other");
+        String cursor = sut.encodeCursor(CONTINUATION);
+
+        assertInvalid(cursor);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_requireSigningKey() {
+        new SignedCursorCodec("");
+    }
+
+    private void assertInvalid(String cursor) {
+        try {
+            sut.decodeCursor(cursor);
+            fail("Should not succeed");
+        } catch (AppException e) {
+            assertEquals(400, e.getError().getCode());
+        }
+    }
+}
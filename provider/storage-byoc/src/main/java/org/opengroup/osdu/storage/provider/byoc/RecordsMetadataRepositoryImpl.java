@@ -21,6 +21,7 @@ import org.opengroup.osdu.storage.provider.interfaces.IRecordsMetadataRepository
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Repository
 public class RecordsMetadataRepositoryImpl implements IRecordsMetadataRepository<String> {
@@ -92,6 +93,26 @@ public class RecordsMetadataRepositoryImpl implements IRecordsMetadataRepository
         return new AbstractMap.SimpleEntry<>("", outputRecords);
     }
 
+    @Override
+    public List<RecordMetadata> queryByTime(String timeField, long after, String afterId, int limit)
+    {
+        boolean creation = CREATE_TIME.equals(timeField);
+        Comparator<RecordMetadata> order = Comparator
+                .comparingLong((RecordMetadata rmd) -> creation ? rmd.getCreateTime() : rmd.getModifyTime())
+                .thenComparing(RecordMetadata::getId);
+        RecordMetadata position = new RecordMetadata();
+        position.setId(afterId);
+        position.setCreateTime(after);
+        position.setModifyTime(after);
+
+        return memMap.keySet().stream()
+                .map(this::get)
+                .filter(rmd -> order.compare(rmd, position) > 0)
+                .sorted(order)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
     private RecordMetadata parseEntityToRecordMetadata(String entityJson) {
         Gson gson = new Gson();
 
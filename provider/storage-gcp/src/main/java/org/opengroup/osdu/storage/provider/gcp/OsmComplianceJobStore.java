@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 Google LLC
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opengroup.osdu.storage.provider.gcp;
+
+import lombok.RequiredArgsConstructor;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+import org.opengroup.osdu.core.common.provider.interfaces.ITenantFactory;
+import org.opengroup.osdu.core.gcp.osm.model.Destination;
+import org.opengroup.osdu.core.gcp.osm.model.Kind;
+import org.opengroup.osdu.core.gcp.osm.model.Namespace;
+import org.opengroup.osdu.core.gcp.osm.model.query.GetQuery;
+import org.opengroup.osdu.core.gcp.osm.service.Context;
+import org.opengroup.osdu.storage.jobs.ComplianceJobCheckpoint;
+import org.opengroup.osdu.storage.provider.interfaces.IComplianceJobStore;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+import static org.opengroup.osdu.core.gcp.osm.model.where.predicate.Eq.eq;
+import static org.springframework.beans.factory.config.BeanDefinition.SCOPE_SINGLETON;
+
+@Repository
+@Scope(SCOPE_SINGLETON)
+@RequiredArgsConstructor
+public class OsmComplianceJobStore implements IComplianceJobStore {
+
+    public static final Kind COMPLIANCE_JOB_KIND = new Kind("StorageComplianceJob");
+
+    private final Context context;
+    private final ITenantFactory tenantFactory;
+
+    // jobs are read and saved in the partition they belong to, whatever partition the current request is for
+    private Destination getDestination(String partitionId) {
+        TenantInfo tenantInfo = tenantFactory.getTenantInfo(partitionId);
+        return Destination.builder().partitionId(tenantInfo.getDataPartitionId())
+                .namespace(new Namespace(tenantInfo.getName())).kind(COMPLIANCE_JOB_KIND).build();
+    }
+
+    @Override
+    public ComplianceJobCheckpoint get(String partitionId, String legalTagName) {
+        GetQuery<ComplianceJobCheckpoint> osmQuery = new GetQuery<>(ComplianceJobCheckpoint.class, getDestination(partitionId), eq("legalTagName", legalTagName));
+        return context.getResultsAsList(osmQuery).stream().findFirst().orElse(null);
+    }
+
+    @Override
+    public List<ComplianceJobCheckpoint> list(String partitionId) {
+        return context.getResultsAsList(new GetQuery<>(ComplianceJobCheckpoint.class, getDestination(partitionId)));
+    }
+
+    @Override
+    public void save(ComplianceJobCheckpoint checkpoint) {
+        context.upsert(checkpoint, getDestination(checkpoint.getPartitionId()));
+    }
+}
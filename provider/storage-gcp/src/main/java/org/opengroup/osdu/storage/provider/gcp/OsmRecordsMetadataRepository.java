@@ -25,6 +25,7 @@ import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
 import org.opengroup.osdu.core.gcp.osm.model.Destination;
 import org.opengroup.osdu.core.gcp.osm.model.Kind;
 import org.opengroup.osdu.core.gcp.osm.model.Namespace;
+import org.opengroup.osdu.core.gcp.osm.model.order.OrderBy;
 import org.opengroup.osdu.core.gcp.osm.model.query.GetQuery;
 import org.opengroup.osdu.core.gcp.osm.service.Context;
 import org.opengroup.osdu.core.gcp.osm.service.Transaction;
@@ -38,6 +39,7 @@ import java.util.*;
 
 import static org.opengroup.osdu.core.gcp.osm.model.where.condition.And.and;
 import static org.opengroup.osdu.core.gcp.osm.model.where.predicate.Eq.eq;
+import static org.opengroup.osdu.core.gcp.osm.model.where.predicate.Gt.gt;
 import static org.springframework.beans.factory.config.BeanDefinition.SCOPE_SINGLETON;
 
 @Repository
@@ -93,6 +95,11 @@ public class OsmRecordsMetadataRepository implements IRecordsMetadataRepository<
 
     @Override
     public AbstractMap.SimpleEntry<String, List<RecordMetadata>> queryByLegal(String legalTagName, LegalCompliance status, int limit) {
+        return queryByLegal(legalTagName, status, limit, null);
+    }
+
+    @Override
+    public AbstractMap.SimpleEntry<String, List<RecordMetadata>> queryByLegal(String legalTagName, LegalCompliance status, int limit, String cursor) {
 
         GetQuery<RecordMetadata>.GetQueryBuilder<RecordMetadata> builder = new GetQuery<>(RecordMetadata.class, getDestination()).toBuilder();
         if (status == null) {
@@ -101,7 +108,7 @@ public class OsmRecordsMetadataRepository implements IRecordsMetadataRepository<
             builder.where(and(eq(LEGAL_TAGS, legalTagName), eq(LEGAL_COMPLIANCE, status.name())));
         }
 
-        Outcome<RecordMetadata> out = context.getResults(builder.build(), null, limit, null).outcome();
+        Outcome<RecordMetadata> out = context.getResults(builder.build(), null, limit, cursor).outcome();
         return new AbstractMap.SimpleEntry<>(out.getPointer(), out.getList());
     }
 
@@ -115,6 +122,23 @@ public class OsmRecordsMetadataRepository implements IRecordsMetadataRepository<
         return output;
     }
 
+    /**
+     * Datastore has no OR across properties, so the records of the same time after the id are read first and the
+     * later ones after them. Both queries need a composite index on the time property and the id.
+     */
+    @Override
+    public List<RecordMetadata> queryByTime(String timeField, long after, String afterId, int limit) {
+        List<RecordMetadata> output = new ArrayList<>(context.getResults(new GetQuery<>(RecordMetadata.class,
+                getDestination(), and(eq(timeField, after), gt("id", afterId)), OrderBy.builder().addAsc("id").build()),
+                null, limit, null).outcome().getList());
+        if (output.size() < limit) {
+            output.addAll(context.getResults(new GetQuery<>(RecordMetadata.class, getDestination(), gt(timeField, after),
+                    OrderBy.builder().addAsc(timeField).addAsc("id").build()), null, limit - output.size(), null)
+                    .outcome().getList());
+        }
+        return output;
+    }
+
     //TODO remove when other providers replace with new method queryByLegal
     @Override
     public AbstractMap.SimpleEntry<String, List<RecordMetadata>> queryByLegalTagName(String legalTagName, int limit, String cursor) {
@@ -16,19 +16,21 @@ package org.opengroup.osdu.storage.provider.gcp.jobs;
 
 import static java.util.Collections.singletonList;
 
-import java.util.AbstractMap;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.opengroup.osdu.core.common.model.legal.jobs.*;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.storage.provider.gcp.cache.LegalTagCache;
+import org.opengroup.osdu.storage.cache.LegalTagNearCache;
 import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import com.google.cloud.datastore.Cursor;
+import org.opengroup.osdu.storage.jobs.ComplianceJobCheckpoint;
+import org.opengroup.osdu.storage.jobs.ComplianceJobTracker;
+import org.opengroup.osdu.storage.jobs.ComplianceUpdatePipeline;
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
 import org.opengroup.osdu.core.common.model.legal.LegalCompliance;
 import org.opengroup.osdu.core.common.model.indexer.OperationType;
@@ -57,46 +59,63 @@ public class LegalComplianceChangeServiceGcpImpl implements ILegalComplianceChan
     @Autowired
     private LegalTagCache legalTagCache;
 
+    @Autowired
+    private LegalTagNearCache legalTagNearCache;
+
+    @Autowired
+    private ComplianceJobTracker complianceJobTracker;
+
+    @Autowired
+    private ComplianceUpdatePipeline complianceUpdatePipeline;
+
     private long maxRunningTimeMills = 115000;
 
     @Override
     public Map<String, LegalCompliance> updateComplianceOnRecords(LegalTagChangedCollection legalTagsChanged,
                                                                   DpsHeaders headers) throws ComplianceUpdateStoppedException {
-        Map<String, LegalCompliance> output = new HashMap<>();
-        long currentTimeMills;
+        Map<String, LegalCompliance> output = new ConcurrentHashMap<>();
         long start = System.currentTimeMillis();
 
-        for (LegalTagChanged lt : legalTagsChanged.getStatusChangedTags()) {
-
-            ComplianceChangeInfo complianceChangeInfo = this.getComplianceChangeInfo(lt);
-            if (complianceChangeInfo == null) {
-                continue;
-            }
-
-            AbstractMap.SimpleEntry<Cursor, List<RecordMetadata>> results = this.recordsRepo
-                    .queryByLegal(lt.getChangedTagName(), complianceChangeInfo.getCurrent(), 500);
-
-            while (results.getValue() != null && !results.getValue().isEmpty()) {
-                currentTimeMills = System.currentTimeMillis() - start;
-                if(currentTimeMills >= maxRunningTimeMills)
-                    throw new ComplianceUpdateStoppedException(currentTimeMills / 1000);
-                List<RecordMetadata> recordsMetadata = results.getValue();
-                PubSubInfo[] pubsubInfos = this.updateComplianceStatus(complianceChangeInfo, recordsMetadata, output);
-                StringBuilder recordsId = new StringBuilder();
-                for (RecordMetadata recordMetadata : recordsMetadata) {
-                    recordsId.append(", ").append(recordMetadata.getId());
-                }
-                this.recordsRepo.createOrUpdate(recordsMetadata);
-                this.pubSubclient.publishMessage(headers, pubsubInfos);
-                this.auditLogger.updateRecordsComplianceStateSuccess(
-                        singletonList("[" + recordsId.toString().substring(2) + "]"));
-                results = this.recordsRepo.queryByLegal(lt.getChangedTagName(), complianceChangeInfo.getCurrent(), 500);
-            }
-        }
+        this.complianceUpdatePipeline.forEachTag(legalTagsChanged.getStatusChangedTags(),
+                lt -> this.updateComplianceOnRecords(lt, headers, output, start));
 
         return output;
     }
 
+    private void updateComplianceOnRecords(LegalTagChanged lt, DpsHeaders headers, Map<String, LegalCompliance> output,
+                                           long start) throws ComplianceUpdateStoppedException {
+        ComplianceChangeInfo complianceChangeInfo = this.getComplianceChangeInfo(lt, headers.getPartitionId());
+        if (complianceChangeInfo == null) {
+            return;
+        }
+
+        ComplianceJobCheckpoint checkpoint = this.complianceJobTracker
+                .start(headers.getPartitionId(), lt.getChangedTagName(), complianceChangeInfo.getNewState());
+
+        // datastore cursors stay valid while the records of the current page leave the status filter
+        this.complianceUpdatePipeline.<String>forEachPage(
+                cursor -> this.recordsRepo.queryByLegal(lt.getChangedTagName(), complianceChangeInfo.getCurrent(), 500, cursor),
+                checkpoint.getCursor(), true,
+                (recordsMetadata, nextCursor) -> {
+                    long currentTimeMills = System.currentTimeMillis() - start;
+                    if(currentTimeMills >= maxRunningTimeMills) {
+                        this.complianceJobTracker.stop(checkpoint);
+                        throw new ComplianceUpdateStoppedException(currentTimeMills / 1000);
+                    }
+                    PubSubInfo[] pubsubInfos = this.updateComplianceStatus(complianceChangeInfo, recordsMetadata, output);
+                    StringBuilder recordsId = new StringBuilder();
+                    for (RecordMetadata recordMetadata : recordsMetadata) {
+                        recordsId.append(", ").append(recordMetadata.getId());
+                    }
+                    this.recordsRepo.createOrUpdate(recordsMetadata);
+                    this.pubSubclient.publishMessage(headers, pubsubInfos);
+                    this.auditLogger.updateRecordsComplianceStateSuccess(
+                            singletonList("[" + recordsId.toString().substring(2) + "]"));
+                    this.complianceJobTracker.checkpoint(checkpoint, nextCursor, recordsMetadata.size());
+                });
+        this.complianceJobTracker.complete(checkpoint);
+    }
+
     private PubSubInfo[] updateComplianceStatus(ComplianceChangeInfo complianceChangeInfo,
                                                 List<RecordMetadata> recordMetadata, Map<String, LegalCompliance> output) {
 
@@ -114,13 +133,14 @@ public class LegalComplianceChangeServiceGcpImpl implements ILegalComplianceChan
         return pubsubInfo;
     }
 
-    private ComplianceChangeInfo getComplianceChangeInfo(LegalTagChanged lt) {
+    private ComplianceChangeInfo getComplianceChangeInfo(LegalTagChanged lt, String partitionId) {
         ComplianceChangeInfo output = null;
 
         if (lt.getChangedTagStatus().equalsIgnoreCase("compliant")) {
             output = new ComplianceChangeInfo(LegalCompliance.compliant, OperationType.create, RecordState.active);
         } else if (lt.getChangedTagStatus().equalsIgnoreCase("incompliant")) {
             this.legalTagCache.delete(lt.getChangedTagName());
+            this.legalTagNearCache.delete(partitionId, lt.getChangedTagName());
             output = new ComplianceChangeInfo(LegalCompliance.incompliant, OperationType.delete, RecordState.deleted);
         } else {
             this.logger.warning(String.format("Unknown LegalTag compliance status received %s %s",
@@ -24,6 +24,7 @@ import org.opengroup.osdu.core.common.model.storage.Schema;
 import org.opengroup.osdu.core.gcp.osm.persistence.IdentityTranslator;
 import org.opengroup.osdu.core.gcp.osm.translate.Instrumentation;
 import org.opengroup.osdu.core.gcp.osm.translate.TypeMapper;
+import org.opengroup.osdu.storage.jobs.ComplianceJobCheckpoint;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -73,6 +74,15 @@ public class OsmTypeMapperImpl extends TypeMapper {
                                 (r, o) -> r.setKind(((Key) o).getName())
                         ),
                         Collections.singletonList("kind")
+                ),
+                new Instrumentation<>(ComplianceJobCheckpoint.class,
+                        new HashMap<String, String>(),
+                        new HashMap<String, Class<?>>(),
+                        new IdentityTranslator<>(
+                                ComplianceJobCheckpoint::getLegalTagName,
+                                (r, o) -> r.setLegalTagName(((Key) o).getName())
+                        ),
+                        Collections.singletonList("legalTagName")
                 )
         ));
     }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 Google LLC
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.storage.provider.gcp.pubsub;
+
+import com.google.gson.Gson;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.legal.jobs.ComplianceUpdateStoppedException;
+import org.opengroup.osdu.core.common.model.legal.jobs.ILegalComplianceChangeService;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChangedCollection;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagConsistencyValidator;
+import org.opengroup.osdu.core.common.util.IServiceAccountJwtClient;
+import org.opengroup.osdu.core.gcp.oqm.model.OqmMessage;
+import org.opengroup.osdu.storage.jobs.DetachedRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Runs the compliance update for a legal tag changed message received from OQM, the way the legaltag-changed push
+ * endpoint does for an HTTP delivery. The beans involved are request scoped, so the update runs inside a request
+ * made up from the message: the subscription's partition, the message's correlation id and a service account token.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "oqmDriver")
+@RequiredArgsConstructor
+public class LegalTagChangedHandler {
+
+    private static final String REQUEST_PATH = "/push-handlers/legaltag-changed";
+
+    private final LegalTagConsistencyValidator legalTagConsistencyValidator;
+    private final ILegalComplianceChangeService legalComplianceChangeService;
+    private final IServiceAccountJwtClient serviceAccountJwtClient;
+    private final DpsHeaders headers;
+
+    public void handle(String partitionId, OqmMessage message) throws ComplianceUpdateStoppedException {
+        Map<String, String> requestHeaders = new HashMap<>();
+        requestHeaders.put(DpsHeaders.DATA_PARTITION_ID, partitionId);
+        requestHeaders.put(DpsHeaders.ACCOUNT_ID, partitionId);
+        String correlationId = message.getAttributes() == null ? null
+                : message.getAttributes().get(DpsHeaders.CORRELATION_ID);
+        requestHeaders.put(DpsHeaders.CORRELATION_ID,
+                StringUtils.isBlank(correlationId) ? UUID.randomUUID().toString() : correlationId);
+
+        DetachedRequest.call(requestHeaders, REQUEST_PATH, () -> {
+            this.headers.put(DpsHeaders.AUTHORIZATION, this.serviceAccountJwtClient.getIdToken(partitionId));
+
+            LegalTagChangedCollection dto = new Gson().fromJson(message.getData(), LegalTagChangedCollection.class);
+            LegalTagChangedCollection validDto = this.legalTagConsistencyValidator.checkLegalTagStatusWithLegalService(dto);
+            this.legalComplianceChangeService.updateComplianceOnRecords(validDto, this.headers);
+            return null;
+        });
+    }
+}
@@ -17,32 +17,36 @@
 
 package org.opengroup.osdu.storage.provider.gcp.pubsub;
 
-import com.google.gson.Gson;
 import lombok.RequiredArgsConstructor;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
 import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
-import org.opengroup.osdu.core.gcp.oqm.driver.OqmDriver;
 import org.opengroup.osdu.core.gcp.oqm.model.OqmDestination;
 import org.opengroup.osdu.core.gcp.oqm.model.OqmMessage;
 import org.opengroup.osdu.core.gcp.oqm.model.OqmTopic;
+import org.opengroup.osdu.storage.messaging.ChangeEventEncoder;
 import org.opengroup.osdu.storage.provider.gcp.util.GcpAppServiceConfig;
 import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 @Repository
 @RequiredArgsConstructor
 public class OqmPubSub implements IMessageBus {
 
     private final GcpAppServiceConfig config;
-    private final OqmDriver driver;
+    private final OqmPublisher publisher;
     private final TenantInfo tenant;
-    private final int BATCH_SIZE = 50;
+    private final ChangeEventEncoder changeEventEncoder;
 
     private OqmTopic oqmTopic = null;
 
@@ -55,23 +59,34 @@ public class OqmPubSub implements IMessageBus {
     public void publishMessage(DpsHeaders headers, PubSubInfo... messages) {
 
         OqmDestination oqmDestination = OqmDestination.builder().partitionId(headers.getPartitionId()).build();
+        List<OqmMessage> oqmMessages = new ArrayList<>();
+        final int BATCH_SIZE = changeEventEncoder.getBatchSize();
 
         for (int i = 0; i < messages.length; i += BATCH_SIZE) {
 
             PubSubInfo[] batch = Arrays.copyOfRange(messages, i, Math.min(messages.length, i + BATCH_SIZE));
 
-            String json = new Gson().toJson(batch);
+            String json = changeEventEncoder.encodeToString(batch);
 
             Map<String, String> attributes = new HashMap<>();
             attributes.put(DpsHeaders.ACCOUNT_ID, this.tenant.getName());
             attributes.put(DpsHeaders.DATA_PARTITION_ID, headers.getPartitionIdWithFallbackToAccountId());
             headers.addCorrelationIdIfMissing();
             attributes.put(DpsHeaders.CORRELATION_ID, headers.getCorrelationId());
+            attributes.put(ChangeEventEncoder.ENCODING_ATTRIBUTE, changeEventEncoder.getEncoding());
 
             OqmMessage oqmMessage = OqmMessage.builder().data(json).attributes(attributes).build();
 
-            driver.publish(oqmMessage, oqmTopic, oqmDestination);
+            oqmMessages.add(oqmMessage);
+        }
 
+        // batches go out concurrently within the publisher window, the request waits for all of them so a
+        // failed publish fails the request instead of being lost
+        try {
+            publisher.publish(oqmMessages, oqmTopic, oqmDestination).join();
+        } catch (CompletionException e) {
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Publishing failed",
+                    "Could not publish the record changes", e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+/*
+  Copyright 2020 Google LLC
+  Copyright 2020 EPAM Systems, Inc
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+
+package org.opengroup.osdu.storage.provider.gcp.pubsub;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.gcp.oqm.driver.OqmDriver;
+import org.opengroup.osdu.core.gcp.oqm.model.OqmDestination;
+import org.opengroup.osdu.core.gcp.oqm.model.OqmMessage;
+import org.opengroup.osdu.core.gcp.oqm.model.OqmTopic;
+import org.opengroup.osdu.storage.provider.gcp.util.GcpAppServiceConfig;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes through the OQM driver on a pool of oqmPublishThreads, so the batches of one request go out concurrently,
+ * each completing once the driver has the broker's acknowledgement. At most oqmPublishWindow publishes are
+ * outstanding; when the window is full, callers wait for room, and the request is rejected with 503 if no room frees
+ * up in time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OqmPublisher {
+
+    private final GcpAppServiceConfig config;
+    private final OqmDriver driver;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private Semaphore window;
+    private ExecutorService executor;
+
+    @PostConstruct
+    void postConstruct() {
+        window = new Semaphore(Math.max(1, config.getOqmPublishWindow()));
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("oqm-publisher-");
+        threadFactory.setDaemon(true);
+        executor = Executors.newFixedThreadPool(Math.max(1, config.getOqmPublishThreads()), threadFactory);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues the messages and returns a future that completes once the driver has published all of them, and
+     * completes exceptionally with the first failure.
+     */
+    public CompletableFuture<Void> publish(List<OqmMessage> messages, OqmTopic topic, OqmDestination destination) {
+        List<CompletableFuture<Void>> results = new ArrayList<>(messages.size());
+        for (OqmMessage message : messages) {
+            acquire();
+            try {
+                results.add(CompletableFuture.runAsync(() -> publish(message, topic, destination), executor));
+            } catch (RejectedExecutionException e) {
+                window.release();
+                throw new AppException(HttpStatus.SC_SERVICE_UNAVAILABLE, "Publisher unavailable",
+                        "The record changes could not be queued for publishing", e);
+            }
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]));
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public int getOutstandingCount() {
+        return Math.max(1, config.getOqmPublishWindow()) - window.availablePermits();
+    }
+
+    private void acquire() {
+        try {
+            if (!window.tryAcquire(config.getOqmPublishBackpressureTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                rejected.incrementAndGet();
+                throw new AppException(HttpStatus.SC_SERVICE_UNAVAILABLE, "Publisher overloaded",
+                        "The message broker is not keeping up, please retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Publishing interrupted",
+                    "The record changes were not all queued before the request was interrupted", e);
+        }
+    }
+
+    private void publish(OqmMessage message, OqmTopic topic, OqmDestination destination) {
+        try {
+            driver.publish(message, topic, destination);
+            published.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.error("Publishing to {} failed, {} failures so far", topic.getName(), failed.incrementAndGet(), e);
+            throw e;
+        } finally {
+            window.release();
+        }
+    }
+}
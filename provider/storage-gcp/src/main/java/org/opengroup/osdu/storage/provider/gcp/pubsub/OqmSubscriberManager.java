@@ -20,17 +20,25 @@ package org.opengroup.osdu.storage.provider.gcp.pubsub;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.model.legal.jobs.ComplianceUpdateStoppedException;
 import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
 import org.opengroup.osdu.core.common.provider.interfaces.ITenantFactory;
 import org.opengroup.osdu.core.gcp.oqm.driver.OqmDriver;
 import org.opengroup.osdu.core.gcp.oqm.model.*;
+import org.opengroup.osdu.storage.provider.gcp.util.GcpAppServiceConfig;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Scope;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
 import static org.springframework.beans.factory.config.BeanDefinition.SCOPE_SINGLETON;
 
@@ -38,6 +46,10 @@ import static org.springframework.beans.factory.config.BeanDefinition.SCOPE_SING
  * Runs once on the service start.
  * Fetches all tenants' oqm destinations for TOPIC existence. If exists - searches for pull SUBSCRIPTION existence.
  * Creates SUBSCRIPTION if doesn't exist. Then subscribe itself on SUBSCRIPTION.
+ * Received messages are handed to the compliance update on a worker pool, at most oqmLegaltagMaxConcurrency at a time
+ * and oqmLegaltagMaxConcurrencyPerTenant per tenant; the subscriber of a tenant at its limit waits before taking more.
+ * A message is acked once its update completed and nacked otherwise, so that a stopped update resumes from its
+ * checkpoint on redelivery.
  */
 @Slf4j
 @Component
@@ -52,10 +64,17 @@ public class OqmSubscriberManager {
 
     private final ITenantFactory tenantInfoFactory;
     private final OqmDriver driver;
+    private final LegalTagChangedHandler legalTagChangedHandler;
+    private final GcpAppServiceConfig config;
+
+    private final Map<String, Semaphore> tenantPermits = new ConcurrentHashMap<>();
+    private Semaphore permits;
+    private ExecutorService executor;
 
     @PostConstruct
     void postConstruct() {
         log.info("OqmSubscriberManager bean constructed. Provisioning STARTED");
+        startWorkers();
 
         //Get all Tenant infos
         for (TenantInfo tenantInfo : tenantInfoFactory.listTenantInfo()) {
@@ -91,37 +110,26 @@ public class OqmSubscriberManager {
         log.info("OqmSubscriberManager bean constructed. Provisioning COMPLETED");
     }
 
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    void startWorkers() {
+        permits = new Semaphore(Math.max(1, config.getOqmLegaltagMaxConcurrency()));
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("oqm-legaltag-");
+        threadFactory.setDaemon(true);
+        // the permits bound the number of threads
+        executor = Executors.newCachedThreadPool(threadFactory);
+    }
+
     private void registerSubscriber(TenantInfo tenantInfo, OqmSubscription subscription) {
         OqmDestination destination = getDestination(tenantInfo);
 
-        OqmMessageReceiver receiver = (oqmMessage, oqmAckReplier) -> {
-
-            String pubsubMessage = oqmMessage.getData();
-            String notificationId = subscription.getName();
-            Map<String, String> headerAttributes = oqmMessage.getAttributes();
-
-
-            HttpResponse response;
-            boolean ackedNacked = false;
-            try {
-
-                //TODO Implement real behaviour instead of stub. See below commented section. It is grabbed from core/PubSubEndlpoints...pushReceiver.receiveMessageFromHttpRequest(). Need for adapting classes used there for NON @RequestScope invocation
-                /*
-                LegalTagChangedCollection dto = (LegalTagChangedCollection)(new Gson()).fromJson(oqmMessage.getData(), LegalTagChangedCollection.class);
-                LegalTagChangedCollection validDto = this.legalTagConsistencyValidator.checkLegalTagStatusWithLegalService(dto);
-                this.legalComplianceChangeService.updateComplianceOnRecords(validDto, this.dpsHeaders);
-                */
-                log.info("OQM STUB message handling for tenant {} topic {} subscription {}. ACK. Message: -data: {}, attributes: {}",
-                        topicName, subscriptionName, pubsubMessage, StringUtils.join(headerAttributes));
-                oqmAckReplier.ack();
-                ackedNacked = true;
-            } catch (Exception e) {
-                log.error("OQM STUB message handling error for tenant {} topic {} subscription {}. Message: -data: {}, attributes: {}",
-                        topicName, subscriptionName, pubsubMessage, StringUtils.join(headerAttributes));
-            }
-
-            if (!ackedNacked) oqmAckReplier.nack();
-        };
+        OqmMessageReceiver receiver = (oqmMessage, oqmAckReplier) ->
+                dispatch(tenantInfo.getDataPartitionId(), oqmMessage, oqmAckReplier);
 
         OqmSubscriber subscriber = OqmSubscriber.builder().subscription(subscription).messageReceiver(receiver).build();
         driver.subscribe(subscriber, destination);
@@ -129,6 +137,57 @@ public class OqmSubscriberManager {
                 subscription.getTopics().get(0).getName(), subscription.getName(), tenantInfo.getDataPartitionId());
     }
 
+    void dispatch(String partitionId, OqmMessage oqmMessage, OqmAckReplier oqmAckReplier) {
+        Semaphore tenantPermit = tenantPermits.computeIfAbsent(partitionId,
+                id -> new Semaphore(Math.max(1, config.getOqmLegaltagMaxConcurrencyPerTenant())));
+        try {
+            tenantPermit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            oqmAckReplier.nack();
+            return;
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tenantPermit.release();
+            oqmAckReplier.nack();
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    process(partitionId, oqmMessage, oqmAckReplier);
+                } finally {
+                    permits.release();
+                    tenantPermit.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            tenantPermit.release();
+            oqmAckReplier.nack();
+        }
+    }
+
+    private void process(String partitionId, OqmMessage oqmMessage, OqmAckReplier oqmAckReplier) {
+        try {
+            legalTagChangedHandler.handle(partitionId, oqmMessage);
+            oqmAckReplier.ack();
+        } catch (ComplianceUpdateStoppedException e) {
+            log.info("Compliance update for tenant {} subscription {} stopped at its checkpoint, will resume on redelivery",
+                    partitionId, subscriptionName);
+            oqmAckReplier.nack();
+        } catch (Exception e) {
+            log.error("OQM message handling error for tenant {} topic {} subscription {}. Message: -data: {}, attributes: {}",
+                    partitionId, topicName, subscriptionName, oqmMessage.getData(),
+                    StringUtils.join(oqmMessage.getAttributes()), e);
+            oqmAckReplier.nack();
+        }
+    }
+
     private OqmDestination getDestination(TenantInfo tenantInfo) {
         return OqmDestination.builder().partitionId(tenantInfo.getDataPartitionId()).build();
     }
@@ -21,6 +21,7 @@ import org.opengroup.osdu.core.common.model.storage.DatastoreQueryResult;
 import org.opengroup.osdu.storage.provider.interfaces.IQueryRepository;
 import org.apache.http.HttpStatus;
 import org.opengroup.osdu.storage.service.BatchServiceImpl;
+import org.opengroup.osdu.storage.service.KindRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.opengroup.osdu.core.common.model.http.AppException;
@@ -36,12 +37,15 @@ public class BatchServiceGcpImpl extends BatchServiceImpl {
     @Autowired
     private IQueryRepository queryRepository;
 
+    @Autowired
+    private KindRegistry kindRegistry;
+
 
     @Override
     public DatastoreQueryResult getAllKinds(String cursor, Integer limit) {
         try {
 
-            DatastoreQueryResult result = this.queryRepository.getAllKinds(limit, cursor);
+            DatastoreQueryResult result = this.kindRegistry.getAllKinds(limit, cursor);
             this.auditLogger.readAllKindsSuccess(result.getResults());
             return result;
         } catch (DatastoreException e) {
@@ -26,4 +26,13 @@ import org.springframework.context.annotation.Configuration;
 @Data
 public class GcpAppServiceConfig {
     private String pubsubSearchTopic = "records-changed";
+    // publishes accepted but not yet acknowledged by the broker, beyond which callers wait
+    private int oqmPublishWindow = 64;
+    // publishes running against the OQM driver at the same time
+    private int oqmPublishThreads = 8;
+    // how long a caller waits for room in a full window before the request is turned away
+    private long oqmPublishBackpressureTimeoutMs = 5000;
+    // legal tag changed messages processed at the same time, across tenants and for a single tenant
+    private int oqmLegaltagMaxConcurrency = 4;
+    private int oqmLegaltagMaxConcurrencyPerTenant = 1;
 }
@@ -0,0 +1,132 @@
+/*
+  Copyright 2020 Google LLC
+  Copyright 2020 EPAM Systems, Inc
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+ */
+
+package org.opengroup.osdu.storage.provider.gcp.pubsub;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.gcp.oqm.driver.OqmDriver;
+import org.opengroup.osdu.core.gcp.oqm.model.OqmDestination;
+import org.opengroup.osdu.core.gcp.oqm.model.OqmMessage;
+import org.opengroup.osdu.core.gcp.oqm.model.OqmTopic;
+import org.opengroup.osdu.storage.provider.gcp.util.GcpAppServiceConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OqmPublisherTest {
+
+    @Mock
+    private OqmDriver driver;
+
+    private OqmPublisher sut;
+
+    private final OqmTopic topic = OqmTopic.builder().name("records-changed").build();
+    private final OqmDestination destination = OqmDestination.builder().partitionId("opendes").build();
+
+    @After
+    public void tearDown() {
+        if (sut != null) {
+            sut.shutdown();
+        }
+    }
+
+    @Test
+    public void should_keepPublishesInFlightConcurrently_forA500RecordBatch() throws Exception {
+        sut = publisher(64, 5, 5000);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch allThreadsPublishing = new CountDownLatch(5);
+        CountDownLatch brokerReleased = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            allThreadsPublishing.countDown();
+            // the broker confirms nothing until every publisher thread is waiting on it
+            brokerReleased.await();
+            inFlight.decrementAndGet();
+            return null;
+        }).when(driver).publish(any(OqmMessage.class), any(OqmTopic.class), any(OqmDestination.class));
+
+        // 500 records are 10 messages of 50
+        CompletableFuture<Void> published = sut.publish(messages(10), topic, destination);
+        try {
+            assertTrue(allThreadsPublishing.await(5, TimeUnit.SECONDS));
+            assertEquals(5, inFlight.get());
+        } finally {
+            brokerReleased.countDown();
+        }
+        published.get(5, TimeUnit.SECONDS);
+
+        assertEquals(10, sut.getPublishedCount());
+        assertEquals(5, maxInFlight.get());
+    }
+
+    @Test
+    public void should_rejectPublishing_when_windowStaysFull() throws Exception {
+        sut = publisher(1, 1, 50);
+        CountDownLatch brokerStalled = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            brokerStalled.await();
+            return null;
+        }).when(driver).publish(any(OqmMessage.class), any(OqmTopic.class), any(OqmDestination.class));
+
+        sut.publish(messages(1), topic, destination);
+        try {
+            sut.publish(messages(1), topic, destination);
+            fail("Should not succeed");
+        } catch (AppException e) {
+            assertEquals(503, e.getError().getCode());
+            assertEquals(1, sut.getRejectedCount());
+        } finally {
+            brokerStalled.countDown();
+        }
+    }
+
+    private OqmPublisher publisher(int window, int threads, long backpressureTimeoutMs) {
+        GcpAppServiceConfig config = new GcpAppServiceConfig();
+        config.setOqmPublishWindow(window);
+        config.setOqmPublishThreads(threads);
+        config.setOqmPublishBackpressureTimeoutMs(backpressureTimeoutMs);
+        OqmPublisher publisher = new OqmPublisher(config, driver);
+        publisher.postConstruct();
+        return publisher;
+    }
+
+    private static List<OqmMessage> messages(int count) {
+        List<OqmMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(OqmMessage.builder().data("[]").attributes(Collections.emptyMap()).build());
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2021 Google LLC
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.storage.provider.gcp.pubsub;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.legal.jobs.ComplianceUpdateStoppedException;
+import org.opengroup.osdu.core.common.provider.interfaces.ITenantFactory;
+import org.opengroup.osdu.core.gcp.oqm.driver.OqmDriver;
+import org.opengroup.osdu.core.gcp.oqm.model.OqmAckReplier;
+import org.opengroup.osdu.core.gcp.oqm.model.OqmMessage;
+import org.opengroup.osdu.storage.provider.gcp.util.GcpAppServiceConfig;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OqmSubscriberManagerTest {
+
+    @Mock
+    private ITenantFactory tenantFactory;
+
+    @Mock
+    private OqmDriver driver;
+
+    @Mock
+    private LegalTagChangedHandler handler;
+
+    @Mock
+    private OqmAckReplier ackReplier;
+
+    private OqmSubscriberManager sut;
+
+    private final OqmMessage message = OqmMessage.builder()
+            .data("{\"statusChangedTags\":[]}").attributes(Collections.emptyMap()).build();
+
+    @Before
+    public void setup() {
+        GcpAppServiceConfig config = new GcpAppServiceConfig();
+        config.setOqmLegaltagMaxConcurrency(2);
+        config.setOqmLegaltagMaxConcurrencyPerTenant(1);
+        sut = new OqmSubscriberManager(tenantFactory, driver, handler, config);
+        sut.startWorkers();
+    }
+
+    @After
+    public void tearDown() {
+        sut.shutdown();
+    }
+
+    @Test
+    public void should_ack_afterComplianceUpdate() throws Exception {
+        sut.dispatch("opendes", message, ackReplier);
+
+        verify(ackReplier, timeout(1000)).ack();
+        verify(handler).handle("opendes", message);
+        verify(ackReplier, never()).nack();
+    }
+
+    @Test
+    public void should_nack_when_complianceUpdateStopsAtItsCheckpoint() throws Exception {
+        doThrow(new ComplianceUpdateStoppedException(115)).when(handler).handle("opendes", message);
+
+        sut.dispatch("opendes", message, ackReplier);
+
+        verify(ackReplier, timeout(1000)).nack();
+        verify(ackReplier, never()).ack();
+    }
+
+    @Test
+    public void should_keepProcessingOtherTenants_when_oneTenantIsAtItsLimit() throws Exception {
+        CountDownLatch slowTenant = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            slowTenant.await();
+            return null;
+        }).when(handler).handle(eq("slow"), any(OqmMessage.class));
+        OqmAckReplier otherAckReplier = mock(OqmAckReplier.class);
+
+        try {
+            sut.dispatch("slow", message, ackReplier);
+            sut.dispatch("other", message, otherAckReplier);
+
+            verify(otherAckReplier, timeout(1000)).ack();
+            verify(ackReplier, never()).ack();
+        } finally {
+            slowTenant.countDown();
+        }
+        verify(ackReplier, timeout(1000)).ack();
+    }
+}
@@ -3,8 +3,10 @@
 
 package org.opengroup.osdu.storage.provider.ibm;
 
+import static com.cloudant.client.api.query.Expression.gt;
 import static com.cloudant.client.api.query.Expression.gte;
 import static com.cloudant.client.api.query.Operation.and;
+import static com.cloudant.client.api.query.Operation.or;
 import static com.cloudant.client.api.query.PredicateExpression.eq;
 import static com.cloudant.client.api.query.PredicatedOperation.elemMatch;
 
@@ -29,6 +31,7 @@ import org.springframework.stereotype.Repository;
 import com.cloudant.client.api.Database;
 import com.cloudant.client.api.model.Params;
 import com.cloudant.client.api.model.Response;
+import com.cloudant.client.api.query.Expression;
 import com.cloudant.client.api.query.JsonIndex;
 import com.cloudant.client.api.query.QueryBuilder;
 import com.cloudant.client.api.query.QueryResult;
@@ -67,6 +70,8 @@ public class RecordsMetadataRepositoryImpl implements IRecordsMetadataRepository
 		System.out.println("creating indexes...");
 		db.createIndex(JsonIndex.builder().name("kind-json-index").asc("kind").asc("_id").definition());
 		db.createIndex(JsonIndex.builder().name("legalTagsNames-json-index").asc("legal.legaltags").asc("_id").definition());
+		db.createIndex(JsonIndex.builder().name("createTime-json-index").asc(CREATE_TIME).asc("_id").definition());
+		db.createIndex(JsonIndex.builder().name("modifyTime-json-index").asc(MODIFY_TIME).asc("_id").definition());
 	}
 
 	@Override
@@ -179,4 +184,17 @@ public class RecordsMetadataRepositoryImpl implements IRecordsMetadataRepository
 		return null;
 	}
 
+	@Override
+	public List<RecordMetadata> queryByTime(String timeField, long after, String afterId, int limit) {
+		QueryResult<RecordMetadataDoc> results = db
+				.query(new QueryBuilder(or(gt(timeField, after), and(Expression.eq(timeField, after), gt("_id", afterId))))
+						.sort(Sort.asc(timeField), Sort.asc("_id")).limit(limit).build(), RecordMetadataDoc.class);
+
+		List<RecordMetadata> outputRecords = new ArrayList<>();
+		for (RecordMetadataDoc doc : results.getDocs()) {
+			outputRecords.add(doc.getRecordMetadata());
+		}
+		return outputRecords;
+	}
+
 }
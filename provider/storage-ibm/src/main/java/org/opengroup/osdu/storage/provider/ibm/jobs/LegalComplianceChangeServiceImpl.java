@@ -24,6 +24,7 @@ import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
 import org.opengroup.osdu.core.common.model.storage.RecordState;
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
 import org.opengroup.osdu.storage.provider.ibm.cache.LegalTagCache;
+import org.opengroup.osdu.storage.cache.LegalTagNearCache;
 import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
 import org.opengroup.osdu.storage.provider.interfaces.IRecordsMetadataRepository;
 import org.slf4j.Logger;
@@ -50,6 +51,9 @@ public class LegalComplianceChangeServiceImpl implements ILegalComplianceChangeS
 	@Inject
 	private LegalTagCache legalTagCache;
 
+	@Inject
+	private LegalTagNearCache legalTagNearCache;
+
 	@Override
     public Map<String, LegalCompliance> updateComplianceOnRecords(LegalTagChangedCollection legalTagsChanged,
                                                                   DpsHeaders headers) {
@@ -63,7 +67,7 @@ public class LegalComplianceChangeServiceImpl implements ILegalComplianceChangeS
 		// reflect that
 		for (LegalTagChanged lt : legalTagsChanged.getStatusChangedTags()) {
 
-			ComplianceChangeInfo complianceChangeInfo = this.getComplianceChangeInfo(lt);
+			ComplianceChangeInfo complianceChangeInfo = this.getComplianceChangeInfo(lt, headers.getPartitionId());
 			if (complianceChangeInfo == null) {
 				continue;
 			}
@@ -115,13 +119,14 @@ public class LegalComplianceChangeServiceImpl implements ILegalComplianceChangeS
 		return pubsubInfo;
 	}
 
-	private ComplianceChangeInfo getComplianceChangeInfo(LegalTagChanged lt) {
+	private ComplianceChangeInfo getComplianceChangeInfo(LegalTagChanged lt, String partitionId) {
 		ComplianceChangeInfo output = null;
 
 		if (lt.getChangedTagStatus().equalsIgnoreCase(compliantName)) {
 			output = new ComplianceChangeInfo(LegalCompliance.compliant, OperationType.create, RecordState.active);
 		} else if (lt.getChangedTagStatus().equalsIgnoreCase(incompliantName)) {
 			this.legalTagCache.delete(lt.getChangedTagName());
+			this.legalTagNearCache.delete(partitionId, lt.getChangedTagName());
 			output = new ComplianceChangeInfo(LegalCompliance.incompliant, OperationType.delete, RecordState.deleted);
 		} else {
 			logger.warn(String.format("Unknown LegalTag compliance status received %s %s",
@@ -13,6 +13,7 @@ import org.opengroup.osdu.core.common.model.storage.DatastoreQueryResult;
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
 import org.opengroup.osdu.storage.provider.interfaces.IQueryRepository;
 import org.opengroup.osdu.storage.service.BatchServiceImpl;
+import org.opengroup.osdu.storage.service.KindRegistry;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -24,10 +25,13 @@ public class BatchServiceIBMImpl extends BatchServiceImpl {
 	@Inject
     private IQueryRepository queryRepository;
 
+	@Inject
+    private KindRegistry kindRegistry;
+
     @Override
     public DatastoreQueryResult getAllKinds(String cursor, Integer limit)
     {
-        DatastoreQueryResult result = this.queryRepository.getAllKinds(limit, cursor);
+        DatastoreQueryResult result = this.kindRegistry.getAllKinds(limit, cursor);
         this.auditLogger.readAllKindsSuccess(result.getResults());
         return result;
     }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021 Google LLC
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.storage.provider.reference.repository;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.util.JSON.serialize;
+import static org.opengroup.osdu.storage.provider.reference.repository.SchemaRepositoryImpl.SCHEMA_DATABASE;
+
+import com.google.gson.Gson;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.UpdateOptions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.bson.Document;
+import org.opengroup.osdu.storage.jobs.ComplianceJobCheckpoint;
+import org.opengroup.osdu.storage.provider.interfaces.IComplianceJobStore;
+import org.opengroup.osdu.storage.provider.reference.persistence.MongoDdmsClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class ComplianceJobStoreImpl implements IComplianceJobStore {
+
+  public static final String STORAGE_COMPLIANCE_JOB = "StorageComplianceJob";
+  private final MongoDdmsClient mongoDdmsClient;
+
+  @Autowired
+  public ComplianceJobStoreImpl(MongoDdmsClient mongoDdmsClient) {
+    this.mongoDdmsClient = mongoDdmsClient;
+  }
+
+  @Override
+  public ComplianceJobCheckpoint get(String partitionId, String legalTagName) {
+    Document doc = getCollection()
+        .find(and(eq("partitionId", partitionId), eq("legalTagName", legalTagName))).first();
+    if (Objects.isNull(doc)) {
+      return null;
+    }
+    return new Gson().fromJson(serialize(doc), ComplianceJobCheckpoint.class);
+  }
+
+  @Override
+  public List<ComplianceJobCheckpoint> list(String partitionId) {
+    List<ComplianceJobCheckpoint> output = new ArrayList<>();
+    for (Document document : getCollection().find(eq("partitionId", partitionId))) {
+      output.add(new Gson().fromJson(serialize(document), ComplianceJobCheckpoint.class));
+    }
+    return output;
+  }
+
+  @Override
+  public void save(ComplianceJobCheckpoint checkpoint) {
+    getCollection().replaceOne(
+        and(eq("partitionId", checkpoint.getPartitionId()),
+            eq("legalTagName", checkpoint.getLegalTagName())),
+        Document.parse(new Gson().toJson(checkpoint)),
+        (new UpdateOptions()).upsert(true));
+  }
+
+  private MongoCollection<Document> getCollection() {
+    return mongoDdmsClient.getMongoCollection(SCHEMA_DATABASE, STORAGE_COMPLIANCE_JOB);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2021 Google LLC
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.storage.provider.reference.repository;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.util.JSON.serialize;
+import static org.opengroup.osdu.storage.provider.reference.repository.SchemaRepositoryImpl.SCHEMA_DATABASE;
+
+import com.google.gson.Gson;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Sorts;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.opengroup.osdu.storage.messaging.OutboxEntry;
+import org.opengroup.osdu.storage.provider.interfaces.IOutboxRepository;
+import org.opengroup.osdu.storage.provider.reference.persistence.MongoDdmsClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class OutboxRepositoryImpl implements IOutboxRepository {
+
+  private static final Logger LOG = LoggerFactory.getLogger(OutboxRepositoryImpl.class);
+  public static final String STORAGE_OUTBOX = "StorageOutbox";
+  public static final String STORAGE_OUTBOX_LEASE = "StorageOutboxLease";
+  private final MongoDdmsClient mongoDdmsClient;
+
+  @Autowired
+  public OutboxRepositoryImpl(MongoDdmsClient mongoDdmsClient) {
+    this.mongoDdmsClient = mongoDdmsClient;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void createIndexes() {
+    try {
+      getCollection().createIndex(Indexes.ascending("partitionId", "createdAt"));
+    } catch (MongoException e) {
+      LOG.error("Failed to create indexes on collection " + STORAGE_OUTBOX, e);
+    }
+    try {
+      // leases are only looked at while they are current, old ones are dropped by the server
+      getLeaseCollection().createIndex(Indexes.ascending("claimedAt"),
+          new IndexOptions().expireAfter(1L, TimeUnit.HOURS));
+    } catch (MongoException e) {
+      LOG.error("Failed to create indexes on collection " + STORAGE_OUTBOX_LEASE, e);
+    }
+  }
+
+  @Override
+  public void add(OutboxEntry entry) {
+    getCollection().insertOne(Document.parse(new Gson().toJson(entry)));
+  }
+
+  @Override
+  public List<OutboxEntry> fetch(String partitionId, int limit) {
+    List<OutboxEntry> output = new ArrayList<>();
+    for (Document document : getCollection().find(eq("partitionId", partitionId))
+        .sort(Sorts.ascending("createdAt"))
+        .limit(limit)) {
+      output.add(new Gson().fromJson(serialize(document), OutboxEntry.class));
+    }
+    return output;
+  }
+
+  @Override
+  public void delete(String partitionId, List<String> ids) {
+    getCollection().deleteMany(and(eq("partitionId", partitionId), in("id", ids)));
+  }
+
+  /**
+   * The lease is claimed by inserting its document, the unique _id lets exactly one insert succeed.
+   */
+  @Override
+  public boolean claimLease(String partitionId, long lease, String owner) {
+    Document document = new Document("_id", partitionId + ":" + lease)
+        .append("partitionId", partitionId)
+        .append("owner", owner)
+        .append("claimedAt", new Date());
+    try {
+      getLeaseCollection().insertOne(document);
+      return true;
+    } catch (MongoWriteException e) {
+      if (ErrorCategory.fromErrorCode(e.getError().getCode()) == ErrorCategory.DUPLICATE_KEY) {
+        return false;
+      }
+      throw e;
+    }
+  }
+
+  private MongoCollection<Document> getLeaseCollection() {
+    return mongoDdmsClient.getMongoCollection(SCHEMA_DATABASE, STORAGE_OUTBOX_LEASE);
+  }
+
+  private MongoCollection<Document> getCollection() {
+    return mongoDdmsClient.getMongoCollection(SCHEMA_DATABASE, STORAGE_OUTBOX);
+  }
+}
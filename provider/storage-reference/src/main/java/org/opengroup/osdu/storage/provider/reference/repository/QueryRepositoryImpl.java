@@ -18,12 +18,14 @@
 package org.opengroup.osdu.storage.provider.reference.repository;
 
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gt;
 import static org.opengroup.osdu.storage.provider.reference.repository.SchemaRepositoryImpl.RECORD_STORAGE;
 import static org.opengroup.osdu.storage.provider.reference.repository.SchemaRepositoryImpl.SCHEMA_DATABASE;
 import static org.opengroup.osdu.storage.provider.reference.repository.SchemaRepositoryImpl.SCHEMA_STORAGE;
 
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Sorts;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -53,13 +55,16 @@ public class QueryRepositoryImpl implements IQueryRepository {
     }
     MongoCollection<Document> mongoCollection = mongoDdmsClient
         .getMongoCollection(SCHEMA_DATABASE, SCHEMA_STORAGE);
-    FindIterable<Document> results = mongoCollection.find()
+    FindIterable<Document> results = (cursor == null || cursor.isEmpty()
+        ? mongoCollection.find() : mongoCollection.find(gt("kind", cursor)))
+        .sort(Sorts.ascending("kind"))
         .limit(numRecords);
     List<String> kinds = new ArrayList<>();
     for (Document document : results) {
       kinds.add(document.get("kind").toString());
     }
-    return new DatastoreQueryResult(cursor, kinds);
+    String nextCursor = kinds.size() < numRecords ? null : kinds.get(kinds.size() - 1);
+    return new DatastoreQueryResult(nextCursor, kinds);
   }
 
   @Override
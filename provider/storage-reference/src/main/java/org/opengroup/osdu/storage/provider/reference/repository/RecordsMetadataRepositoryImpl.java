@@ -17,13 +17,18 @@
 
 package org.opengroup.osdu.storage.provider.reference.repository;
 
+import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gt;
+import static com.mongodb.client.model.Filters.or;
 import static com.mongodb.util.JSON.serialize;
 import static org.opengroup.osdu.storage.provider.reference.repository.SchemaRepositoryImpl.SCHEMA_DATABASE;
 
 import com.google.gson.Gson;
-import com.mongodb.client.FindIterable;
+import com.mongodb.MongoException;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Sorts;
 import com.mongodb.client.model.UpdateOptions;
 import java.util.AbstractMap;
 import java.util.ArrayList;
@@ -31,19 +36,32 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import org.apache.http.HttpStatus;
 import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.legal.LegalCompliance;
 import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
 import org.opengroup.osdu.storage.provider.interfaces.IRecordsMetadataRepository;
 import org.opengroup.osdu.storage.provider.reference.model.RecordMetadataDocument;
 import org.opengroup.osdu.storage.provider.reference.persistence.MongoDdmsClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class RecordsMetadataRepositoryImpl implements IRecordsMetadataRepository<String> {
 
+  private static final Logger LOG = LoggerFactory.getLogger(RecordsMetadataRepositoryImpl.class);
+
   public static final String STORAGE_RECORD = "StorageRecord";
+  private static final String ID = "_id";
+  private static final String LEGAL_TAGS = "legal.legaltags";
+  private static final String LEGAL_STATUS = "legal.status";
   private final MongoDdmsClient mongoDdmsClient;
 
   @Autowired
@@ -111,43 +129,82 @@ public class RecordsMetadataRepositoryImpl implements IRecordsMetadataRepository
   @Override
   public AbstractMap.SimpleEntry<String, List<RecordMetadata>> queryByLegalTagName(
       String legalTagName, int limit, String cursor) {
+    return queryByLegal(eq(LEGAL_TAGS, legalTagName), limit, cursor);
+  }
+
+  @Override
+  public AbstractMap.SimpleEntry<String, List<RecordMetadata>> queryByLegal(String legalTagName,
+      LegalCompliance status, int limit) {
+    return queryByLegal(legalTagName, status, limit, null);
+  }
+
+  @Override
+  public AbstractMap.SimpleEntry<String, List<RecordMetadata>> queryByLegal(String legalTagName,
+      LegalCompliance status, int limit, String cursor) {
+    return queryByLegal(and(eq(LEGAL_TAGS, legalTagName), eq(LEGAL_STATUS, status.name())), limit,
+        cursor);
+  }
+
+  @Override
+  public List<RecordMetadata> queryByTime(String timeField, long after, String afterId, int limit) {
     MongoCollection<Document> mongoCollection = mongoDdmsClient
         .getMongoCollection(SCHEMA_DATABASE, STORAGE_RECORD);
+    Bson filter = or(gt(timeField, after), and(eq(timeField, after), gt("id", afterId)));
     List<RecordMetadata> outputRecords = new ArrayList<>();
-    FindIterable<Document> results = mongoCollection.find().skip(limit * (limit - 1)).limit(limit);
-    for (Document document : results) {
+    for (Document document : mongoCollection.find(filter).sort(Sorts.ascending(timeField, "id"))
+        .limit(limit)) {
       RecordMetadataDocument recordMetadataDocument = new Gson()
           .fromJson(serialize(document), RecordMetadataDocument.class);
-      if (Objects.nonNull(recordMetadataDocument)) {
-        if (recordMetadataDocument.getLegal().getLegaltags().contains(legalTagName)) {
-          RecordMetadata recordMetadata = convertToRecordMetadata(recordMetadataDocument);
-          outputRecords.add(recordMetadata);
-        }
-      }
+      outputRecords.add(convertToRecordMetadata(recordMetadataDocument));
     }
-    return new AbstractMap.SimpleEntry<>(cursor, outputRecords);
+    return outputRecords;
   }
 
-  @Override
-  public AbstractMap.SimpleEntry<String, List<RecordMetadata>> queryByLegal(String legalTagName,
-      LegalCompliance status, int limit) {
+  /**
+   * Creates the indexes the lookups by record id, the legal queries and the change feed rely on.
+   * Creating an existing index is a no-op, so this runs on every start.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void createIndexes() {
+    try {
+      MongoCollection<Document> mongoCollection = mongoDdmsClient
+          .getMongoCollection(SCHEMA_DATABASE, STORAGE_RECORD);
+      mongoCollection.createIndex(Indexes.ascending("id"));
+      mongoCollection.createIndex(Indexes.ascending(LEGAL_TAGS, LEGAL_STATUS, ID));
+      mongoCollection.createIndex(Indexes.ascending(CREATE_TIME, "id"));
+      mongoCollection.createIndex(Indexes.ascending(MODIFY_TIME, "id"));
+    } catch (MongoException e) {
+      LOG.error("Failed to create indexes on collection " + STORAGE_RECORD, e);
+    }
+  }
+
+  /**
+   * Pages the records matching the filter in _id order. The cursor is the _id of the last record of
+   * the previous page, so a page stays correct while the records of earlier pages are updated, and
+   * is null after the last page.
+   */
+  private AbstractMap.SimpleEntry<String, List<RecordMetadata>> queryByLegal(Bson filter, int limit,
+      String cursor) {
+    if (cursor != null) {
+      if (!ObjectId.isValid(cursor)) {
+        throw new AppException(HttpStatus.SC_BAD_REQUEST, "Cursor invalid",
+            "The requested cursor does not exist or is invalid");
+      }
+      filter = and(filter, gt(ID, new ObjectId(cursor)));
+    }
 
     MongoCollection<Document> mongoCollection = mongoDdmsClient
         .getMongoCollection(SCHEMA_DATABASE, STORAGE_RECORD);
     List<RecordMetadata> outputRecords = new ArrayList<>();
-    FindIterable<Document> results = mongoCollection.find().skip(limit * (limit - 1)).limit(limit);
-    for (Document document : results) {
+    ObjectId lastId = null;
+    for (Document document : mongoCollection.find(filter).sort(Sorts.ascending(ID)).limit(limit)) {
+      lastId = document.getObjectId(ID);
       RecordMetadataDocument recordMetadataDocument = new Gson()
           .fromJson(serialize(document), RecordMetadataDocument.class);
-      if (Objects.nonNull(recordMetadataDocument)) {
-        if (recordMetadataDocument.getLegal().getLegaltags().contains(legalTagName)
-            && recordMetadataDocument.getLegal().getStatus() == status) {
-          RecordMetadata recordMetadata = convertToRecordMetadata(recordMetadataDocument);
-          outputRecords.add(recordMetadata);
-        }
-      }
+      outputRecords.add(convertToRecordMetadata(recordMetadataDocument));
     }
-    return new AbstractMap.SimpleEntry<>("cursor", outputRecords);
+    String nextCursor = outputRecords.size() < limit || lastId == null ? null : lastId.toHexString();
+    return new AbstractMap.SimpleEntry<>(nextCursor, outputRecords);
   }
 
   private RecordMetadataDocument convertToRecordMetadataDocument(RecordMetadata recordMetadata) {
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Google LLC
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.storage.provider.reference.repository;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.util.JSON.serialize;
+import static org.opengroup.osdu.storage.provider.reference.repository.SchemaRepositoryImpl.SCHEMA_DATABASE;
+
+import com.google.gson.Gson;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.bson.Document;
+import org.opengroup.osdu.storage.jobs.ReplayJob;
+import org.opengroup.osdu.storage.provider.interfaces.IReplayJobStore;
+import org.opengroup.osdu.storage.provider.reference.persistence.MongoDdmsClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class ReplayJobStoreImpl implements IReplayJobStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReplayJobStoreImpl.class);
+  public static final String STORAGE_REPLAY_JOB = "StorageReplayJob";
+  private final MongoDdmsClient mongoDdmsClient;
+
+  @Autowired
+  public ReplayJobStoreImpl(MongoDdmsClient mongoDdmsClient) {
+    this.mongoDdmsClient = mongoDdmsClient;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void createIndexes() {
+    try {
+      getCollection().createIndex(Indexes.ascending("partitionId", "id"), new IndexOptions().unique(true));
+    } catch (MongoException e) {
+      LOG.error("Failed to create indexes on collection " + STORAGE_REPLAY_JOB, e);
+    }
+  }
+
+  @Override
+  public ReplayJob get(String partitionId, String id) {
+    Document doc = getCollection().find(and(eq("partitionId", partitionId), eq("id", id))).first();
+    if (Objects.isNull(doc)) {
+      return null;
+    }
+    return new Gson().fromJson(serialize(doc), ReplayJob.class);
+  }
+
+  @Override
+  public List<ReplayJob> list(String partitionId) {
+    List<ReplayJob> output = new ArrayList<>();
+    for (Document document : getCollection().find(eq("partitionId", partitionId))) {
+      output.add(new Gson().fromJson(serialize(document), ReplayJob.class));
+    }
+    return output;
+  }
+
+  @Override
+  public void create(ReplayJob job) {
+    getCollection().insertOne(Document.parse(new Gson().toJson(job)));
+  }
+
+  /**
+   * The version in the filter makes the replace a compare-and-set, it matches nothing once another writer saved.
+   */
+  @Override
+  public boolean update(ReplayJob job) {
+    ReplayJob updated = job.toBuilder().version(job.getVersion() + 1).build();
+    long matched = getCollection().replaceOne(
+        and(eq("partitionId", job.getPartitionId()), eq("id", job.getId()), eq("version", job.getVersion())),
+        Document.parse(new Gson().toJson(updated)))
+        .getMatchedCount();
+    if (matched == 0) {
+      return false;
+    }
+    job.setVersion(updated.getVersion());
+    return true;
+  }
+
+  private MongoCollection<Document> getCollection() {
+    return mongoDdmsClient.getMongoCollection(SCHEMA_DATABASE, STORAGE_REPLAY_JOB);
+  }
+}
@@ -18,10 +18,14 @@
 package org.opengroup.osdu.storage.provider.reference.repository;
 
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.in;
 
 import com.google.gson.Gson;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import org.apache.http.HttpStatus;
 import org.bson.Document;
@@ -77,6 +81,28 @@ public class SchemaRepositoryImpl implements ISchemaRepository {
     return convertToSchemaEntity(schemaDocument);
   }
 
+  @Override
+  public Map<String, Schema> get(Collection<String> kinds) {
+    Map<String, Schema> schemas = new HashMap<>();
+    if (kinds.isEmpty()) {
+      return schemas;
+    }
+    MongoCollection<Document> collection = this.mongoClient
+        .getMongoCollection(SCHEMA_DATABASE, SCHEMA_STORAGE);
+    for (Document record : collection.find(in("kind", kinds))) {
+      SchemaDocument schemaDocument = new Gson().fromJson(record.toJson(), SchemaDocument.class);
+      schemas.put(schemaDocument.getKind(), convertToSchemaEntity(schemaDocument));
+    }
+    for (String kind : kinds) {
+      if (!schemas.containsKey(kind)) {
+        throw new AppException(
+            HttpStatus.SC_NOT_FOUND, "Not found",
+            String.format("Schema with id %s does not exist.", kind));
+      }
+    }
+    return schemas;
+  }
+
   @Override
   public void delete(String kind) {
     MongoCollection collection = this.mongoClient
@@ -23,6 +23,7 @@ import org.opengroup.osdu.core.common.model.storage.DatastoreQueryResult;
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
 import org.opengroup.osdu.storage.provider.interfaces.IQueryRepository;
 import org.opengroup.osdu.storage.service.BatchServiceImpl;
+import org.opengroup.osdu.storage.service.KindRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -31,17 +32,19 @@ public class BatchServiceReferenceImpl extends BatchServiceImpl {
 
   private final StorageAuditLogger auditLogger;
   private final IQueryRepository queryRepository;
+  private final KindRegistry kindRegistry;
 
   @Autowired
   public BatchServiceReferenceImpl(StorageAuditLogger auditLogger,
-      IQueryRepository queryRepository) {
+      IQueryRepository queryRepository, KindRegistry kindRegistry) {
     this.auditLogger = auditLogger;
     this.queryRepository = queryRepository;
+    this.kindRegistry = kindRegistry;
   }
 
   @Override
   public DatastoreQueryResult getAllKinds(String cursor, Integer limit) {
-    DatastoreQueryResult result = this.queryRepository.getAllKinds(limit, cursor);
+    DatastoreQueryResult result = this.kindRegistry.getAllKinds(limit, cursor);
     this.auditLogger.readAllKindsSuccess(result.getResults());
     return result;
   }
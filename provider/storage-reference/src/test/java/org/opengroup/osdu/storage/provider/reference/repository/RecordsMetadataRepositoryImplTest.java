@@ -0,0 +1,158 @@
+/*
+ * Copyright 2021 Google LLC
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.storage.provider.reference.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import java.net.InetSocketAddress;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.legal.Legal;
+import org.opengroup.osdu.core.common.model.legal.LegalCompliance;
+import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+import org.opengroup.osdu.core.common.model.storage.RecordState;
+import org.opengroup.osdu.storage.provider.reference.persistence.MongoDdmsClient;
+import org.opengroup.osdu.storage.provider.reference.util.MongoClientHandler;
+
+public class RecordsMetadataRepositoryImplTest {
+
+  private MongoServer server;
+  private MongoClient client;
+  private RecordsMetadataRepositoryImpl repository;
+
+  @Before
+  public void setup() {
+    server = new MongoServer(new MemoryBackend());
+    InetSocketAddress address = server.bind();
+    client = MongoClients
+        .create(String.format("mongodb://%s:%d", address.getHostString(), address.getPort()));
+
+    MongoClientHandler mongoClientHandler = mock(MongoClientHandler.class);
+    when(mongoClientHandler.getMongoClient()).thenReturn(client);
+    repository = new RecordsMetadataRepositoryImpl(new MongoDdmsClient(mongoClientHandler));
+    repository.createIndexes();
+  }
+
+  @After
+  public void tearDown() {
+    client.close();
+    server.shutdown();
+  }
+
+  @Test
+  public void should_pageLegalQueryWithKeysetCursor() {
+    List<RecordMetadata> records = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      records.add(record("opendes:doc:" + i, "tag1", LegalCompliance.compliant));
+    }
+    records.add(record("opendes:doc:other", "tag2", LegalCompliance.compliant));
+    repository.createOrUpdate(records);
+
+    Set<String> ids = new HashSet<>();
+    AbstractMap.SimpleEntry<String, List<RecordMetadata>> page = repository
+        .queryByLegal("tag1", LegalCompliance.compliant, 2, null);
+    assertEquals(2, page.getValue().size());
+    assertNotNull(page.getKey());
+    page.getValue().forEach(r -> ids.add(r.getId()));
+
+    page = repository.queryByLegal("tag1", LegalCompliance.compliant, 2, page.getKey());
+    assertEquals(2, page.getValue().size());
+    page.getValue().forEach(r -> ids.add(r.getId()));
+
+    page = repository.queryByLegal("tag1", LegalCompliance.compliant, 2, page.getKey());
+    assertEquals(1, page.getValue().size());
+    assertNull(page.getKey());
+    page.getValue().forEach(r -> ids.add(r.getId()));
+
+    assertEquals(5, ids.size());
+  }
+
+  @Test
+  public void should_notSkipRecords_when_previousPageLeavesStatusFilter() {
+    List<RecordMetadata> records = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      records.add(record("opendes:doc:" + i, "tag1", LegalCompliance.compliant));
+    }
+    repository.createOrUpdate(records);
+
+    AbstractMap.SimpleEntry<String, List<RecordMetadata>> page = repository
+        .queryByLegal("tag1", LegalCompliance.compliant, 2, null);
+    for (RecordMetadata recordMetadata : page.getValue()) {
+      recordMetadata.getLegal().setStatus(LegalCompliance.incompliant);
+    }
+    repository.createOrUpdate(page.getValue());
+
+    page = repository.queryByLegal("tag1", LegalCompliance.compliant, 2, page.getKey());
+    assertEquals(2, page.getValue().size());
+    assertEquals(2, repository.queryByLegal("tag1", LegalCompliance.incompliant, 10, null)
+        .getValue().size());
+  }
+
+  @Test
+  public void should_returnRecordsOfTagWhateverTheirStatus() {
+    repository.createOrUpdate(Collections.singletonList(
+        record("opendes:doc:1", "tag1", LegalCompliance.incompliant)));
+    repository.createOrUpdate(Collections.singletonList(
+        record("opendes:doc:2", "tag1", LegalCompliance.compliant)));
+
+    AbstractMap.SimpleEntry<String, List<RecordMetadata>> page = repository
+        .queryByLegalTagName("tag1", 10, null);
+
+    assertEquals(2, page.getValue().size());
+    assertNull(page.getKey());
+  }
+
+  @Test
+  public void should_throw400_when_cursorInvalid() {
+    try {
+      repository.queryByLegal("tag1", LegalCompliance.compliant, 2, "not-a-cursor");
+      fail("Should not succeed");
+    } catch (AppException e) {
+      assertEquals(400, e.getError().getCode());
+    }
+  }
+
+  private static RecordMetadata record(String id, String legalTag, LegalCompliance status) {
+    Legal legal = new Legal();
+    legal.setLegaltags(new HashSet<>(Collections.singletonList(legalTag)));
+    legal.setStatus(status);
+    RecordMetadata recordMetadata = new RecordMetadata();
+    recordMetadata.setId(id);
+    recordMetadata.setKind("opendes:wks:doc:1.0.0");
+    recordMetadata.setStatus(RecordState.active);
+    recordMetadata.setLegal(legal);
+    return recordMetadata;
+  }
+}
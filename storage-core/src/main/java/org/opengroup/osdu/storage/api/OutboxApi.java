@@ -0,0 +1,53 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.api;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.storage.StorageRole;
+import org.opengroup.osdu.storage.messaging.OutboxRelay;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.annotation.RequestScope;
+
+@RestController
+@RequestMapping("outbox")
+@RequestScope
+@Validated
+public class OutboxApi {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private DpsHeaders headers;
+
+    // age of the oldest notification of the partition still waiting to be published
+    @GetMapping(value = "/lag", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("@authorizationFilter.hasRole('" + StorageRole.ADMIN + "')")
+    public ResponseEntity<Map<String, Long>> getLag() {
+        return new ResponseEntity<>(Collections.singletonMap("lagMillis",
+                this.outboxRelay.getLagMillis(this.headers.getPartitionId())), HttpStatus.OK);
+    }
+}
@@ -18,6 +18,7 @@ import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.storage.*;
 import org.opengroup.osdu.core.common.model.storage.validation.ValidKind;
 import org.opengroup.osdu.storage.di.SchemaEndpointsConfig;
+import org.opengroup.osdu.storage.provider.interfaces.ICursorCodec;
 import org.opengroup.osdu.storage.service.BatchService;
 import org.opengroup.osdu.storage.util.EncodeDecode;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -51,6 +52,9 @@ public class QueryApi {
 	@Autowired
 	private SchemaEndpointsConfig schemaEndpointsConfig;
 
+	@Autowired(required = false)
+	private ICursorCodec cursorCodec;
+
 	@PostMapping(value = "/records", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
 	@PreAuthorize("@authorizationFilter.hasRole('" + StorageRole.VIEWER + "', '" + StorageRole.CREATOR + "', '" + StorageRole.ADMIN + "')")
 	public ResponseEntity<MultiRecordInfo> getRecords(@Valid @RequestBody MultiRecordIds ids) {
@@ -73,8 +77,8 @@ public class QueryApi {
 	@PreAuthorize("@authorizationFilter.hasRole('" + StorageRole.CREATOR + "', '" + StorageRole.ADMIN + "')")
 	public ResponseEntity<DatastoreQueryResult> getKinds(@RequestParam(required = false) String cursor,
 			@RequestParam(required = false) Integer limit) {
-			DatastoreQueryResult result = this.batchService.getAllKinds(encodeDecode.deserializeCursor(cursor), limit);
-            result.setCursor(encodeDecode.serializeCursor(result.getCursor()));
+			DatastoreQueryResult result = this.batchService.getAllKinds(this.decodeCursor(cursor), limit);
+            result.setCursor(this.encodeCursor(result.getCursor()));
             return new ResponseEntity<DatastoreQueryResult>(result, HttpStatus.OK);
 	}
 
@@ -84,8 +88,16 @@ public class QueryApi {
 			@RequestParam(required = false) String cursor,
 			@RequestParam(required = false) Integer limit,
 			@RequestParam @ValidKind String kind) {
-		DatastoreQueryResult result = this.batchService.getAllRecords(encodeDecode.deserializeCursor(cursor), kind, limit);
-		result.setCursor(encodeDecode.serializeCursor(result.getCursor()));
+		DatastoreQueryResult result = this.batchService.getAllRecords(this.decodeCursor(cursor), kind, limit);
+		result.setCursor(this.encodeCursor(result.getCursor()));
 		return new ResponseEntity<DatastoreQueryResult>(result, HttpStatus.OK);
 	}
+
+	private String encodeCursor(String providerCursor) {
+		return this.cursorCodec == null ? encodeDecode.serializeCursor(providerCursor) : this.cursorCodec.encodeCursor(providerCursor);
+	}
+
+	private String decodeCursor(String cursor) {
+		return this.cursorCodec == null ? encodeDecode.deserializeCursor(cursor) : this.cursorCodec.decodeCursor(cursor);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.opengroup.osdu.storage.api;
+
+import java.util.List;
+
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.storage.StorageRole;
+import org.opengroup.osdu.core.common.model.storage.validation.ValidKind;
+import org.opengroup.osdu.storage.jobs.ReplayJob;
+import org.opengroup.osdu.storage.jobs.ReplayJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.annotation.RequestScope;
+
+@RestController
+@RequestMapping("replay-jobs")
+@RequestScope
+@Validated
+public class ReplayJobsApi {
+
+    @Autowired
+    private ReplayJobService replayJobService;
+
+    @Autowired
+    private DpsHeaders headers;
+
+    // publishes an update notification for every active record of the kind, at most ratePerSecond a second
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("@authorizationFilter.hasRole('" + StorageRole.ADMIN + "')")
+    public ResponseEntity<ReplayJob> startReplayJob(@RequestParam @ValidKind String kind,
+                                                    @RequestParam(required = false) Integer ratePerSecond) {
+        return new ResponseEntity<>(this.replayJobService.start(this.headers.getPartitionId(), kind, ratePerSecond),
+                HttpStatus.CREATED);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("@authorizationFilter.hasRole('" + StorageRole.ADMIN + "')")
+    public ResponseEntity<List<ReplayJob>> getReplayJobs() {
+        return new ResponseEntity<>(this.replayJobService.getJobs(this.headers.getPartitionId()), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("@authorizationFilter.hasRole('" + StorageRole.ADMIN + "')")
+    public ResponseEntity<ReplayJob> getReplayJob(@PathVariable("id") String id) {
+        return new ResponseEntity<>(this.replayJobService.getJob(this.headers.getPartitionId(), id), HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/{id}/pause", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("@authorizationFilter.hasRole('" + StorageRole.ADMIN + "')")
+    public ResponseEntity<ReplayJob> pauseReplayJob(@PathVariable("id") String id) {
+        return new ResponseEntity<>(this.replayJobService.pause(this.headers.getPartitionId(), id), HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/{id}/resume", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("@authorizationFilter.hasRole('" + StorageRole.ADMIN + "')")
+    public ResponseEntity<ReplayJob> resumeReplayJob(@PathVariable("id") String id) {
+        return new ResponseEntity<>(this.replayJobService.resume(this.headers.getPartitionId(), id), HttpStatus.OK);
+    }
+}
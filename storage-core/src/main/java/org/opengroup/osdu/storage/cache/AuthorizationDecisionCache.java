@@ -0,0 +1,117 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import com.google.common.base.Strings;
+import org.opengroup.osdu.core.common.cache.VmCache;
+import org.opengroup.osdu.core.common.model.entitlements.Acl;
+import org.opengroup.osdu.core.common.model.entitlements.GroupInfo;
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
+import org.opengroup.osdu.core.common.model.indexer.OperationType;
+import org.opengroup.osdu.core.common.model.legal.Legal;
+import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches authorization decisions by what they depend on rather than by record: the partition's policy bundle, the
+ * caller's groups, the operation, and the record's ACL, legal tags and kind. Records sharing those attributes share
+ * one decision, and a new bundle version starts from an empty cache.
+ */
+@Component
+public class AuthorizationDecisionCache {
+
+    private final VmCache<String, Boolean> cache;
+
+    public AuthorizationDecisionCache(@Value("${authorization.decision-cache.ttl-seconds:30}") int ttlSeconds,
+                                      @Value("${authorization.decision-cache.max-size:10000}") int maxSize) {
+        this.cache = new VmCache<>(ttlSeconds, maxSize);
+    }
+
+    /**
+     * Digest of the partition, its policy bundle version and the caller's group emails. Callers compute it once per
+     * request and reuse it for every record of that request.
+     */
+    public String callerDigest(String partitionId, String bundleVersion, Groups groups) {
+        List<String> emails = groups.getGroups().stream()
+                .map(GroupInfo::getEmail)
+                .filter(Objects::nonNull)
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        return sha256(partitionId + "|" + Strings.nullToEmpty(bundleVersion) + "|" + String.join(",", emails));
+    }
+
+    public String decisionKey(String callerDigest, String path, OperationType operationType, RecordMetadata recordMetadata) {
+        StringBuilder key = new StringBuilder(callerDigest)
+                .append('|').append(path)
+                .append('|').append(operationType)
+                .append('|').append(recordMetadata.getKind());
+
+        Acl acl = recordMetadata.getAcl();
+        key.append("|o:").append(acl == null ? "" : sorted(acl.getOwners()));
+        key.append("|v:").append(acl == null ? "" : sorted(acl.getViewers()));
+
+        Legal legal = recordMetadata.getLegal();
+        if (legal != null) {
+            key.append("|l:").append(sorted(legal.getLegaltags()))
+                    .append("|c:").append(sorted(legal.getOtherRelevantDataCountries()))
+                    .append("|s:").append(legal.getStatus());
+        }
+        return key.toString();
+    }
+
+    public Boolean get(String key) {
+        return this.cache.get(key);
+    }
+
+    public void put(String key, boolean allowed) {
+        this.cache.put(key, allowed);
+    }
+
+    private static String sorted(String[] values) {
+        return values == null ? "" : sorted(Arrays.asList(values));
+    }
+
+    private static String sorted(Collection<String> values) {
+        if (values == null) return "";
+        return values.stream()
+                .filter(Objects::nonNull)
+                .map(value -> value.toLowerCase(Locale.ROOT))
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
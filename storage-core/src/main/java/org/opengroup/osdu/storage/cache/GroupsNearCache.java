@@ -0,0 +1,138 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.cache;
+
+import org.opengroup.osdu.core.common.cache.VmCache;
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
+import org.opengroup.osdu.storage.util.AclEvaluator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived in-process tier in front of the shared group cache. It deliberately does not implement
+ * {@code ICache<String, Groups>} so it never competes with the provider's shared cache bean during injection.
+ */
+@Component
+public class GroupsNearCache {
+
+    private final VmCache<String, Entry> cache;
+    private final long refreshAfterMillis;
+    private final long sharedRefreshAfterMillis;
+    private final ExecutorService refreshExecutor;
+
+    public GroupsNearCache(@Value("${entitlements.groups.near-cache.ttl-seconds:5}") int ttlSeconds,
+                           @Value("${entitlements.groups.near-cache.refresh-after-seconds:3}") int refreshAfterSeconds,
+                           @Value("${entitlements.groups.near-cache.max-size:1000}") int maxSize,
+                           @Value("${entitlements.groups.shared-cache.refresh-after-seconds:20}") int sharedRefreshAfterSeconds,
+                           @Value("${entitlements.groups.refresh.threads:2}") int refreshThreads,
+                           @Value("${entitlements.groups.refresh.queue-size:100}") int refreshQueueSize) {
+        this.cache = new VmCache<>(ttlSeconds, maxSize);
+        this.refreshAfterMillis = refreshAfterSeconds * 1000L;
+        this.sharedRefreshAfterMillis = sharedRefreshAfterSeconds * 1000L;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("groups-refresh-");
+        threadFactory.setDaemon(true);
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(refreshQueueSize), threadFactory);
+    }
+
+    public Entry get(String key) {
+        return this.cache.get(key);
+    }
+
+    /**
+     * Keeps groups just fetched from entitlements.
+     */
+    public void put(String key, Groups groups) {
+        long now = System.currentTimeMillis();
+        this.cache.put(key, new Entry(groups, now, now));
+    }
+
+    /**
+     * Keeps groups read from the shared cache, which were fetched from entitlements at {@code fetchedAt} as far as
+     * this instance knows.
+     */
+    public void put(String key, Groups groups, long fetchedAt) {
+        this.cache.put(key, new Entry(groups, System.currentTimeMillis(), fetchedAt));
+    }
+
+    public void delete(String key) {
+        this.cache.delete(key);
+    }
+
+    /**
+     * An entry is due for refresh once it is older than the refresh threshold; it keeps being served until it
+     * expires, which gives a background reload the time to replace it.
+     */
+    public boolean isDueForRefresh(Entry entry) {
+        return System.currentTimeMillis() - entry.loadedAt >= this.refreshAfterMillis;
+    }
+
+    /**
+     * Once the groups are older than the shared cache refresh threshold, which is kept below the shared cache TTL,
+     * they are reloaded from entitlements instead of the shared cache so the shared entry is renewed before it
+     * expires rather than after.
+     */
+    public boolean isSharedEntryDueForRefresh(Entry entry) {
+        return System.currentTimeMillis() - entry.fetchedAt >= this.sharedRefreshAfterMillis;
+    }
+
+    /**
+     * Runs a reload on the bounded refresh pool. Returns false when the pool is saturated, in which case the entry
+     * is simply loaded again once it expires.
+     */
+    public boolean refreshInBackground(Runnable reload) {
+        try {
+            this.refreshExecutor.execute(reload);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    public static final class Entry {
+
+        private final Groups groups;
+        private final AclEvaluator aclEvaluator;
+        private final long loadedAt;
+        private final long fetchedAt;
+
+        private Entry(Groups groups, long loadedAt, long fetchedAt) {
+            this.groups = groups;
+            this.aclEvaluator = AclEvaluator.compile(groups);
+            this.loadedAt = loadedAt;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public Groups getGroups() {
+            return this.groups;
+        }
+
+        public AclEvaluator getAclEvaluator() {
+            return this.aclEvaluator;
+        }
+
+        public long getFetchedAt() {
+            return this.fetchedAt;
+        }
+    }
+}
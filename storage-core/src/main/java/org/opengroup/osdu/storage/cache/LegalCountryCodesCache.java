@@ -0,0 +1,91 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.cache;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Valid other relevant data country codes per partition. An entry is served until it expires, and becomes due for
+ * a background refresh some time before that, so a steady stream of requests never waits for the legal service.
+ */
+@Component
+public class LegalCountryCodesCache {
+
+    private final long ttlMillis;
+    private final long refreshAfterMillis;
+    private final Clock clock;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public LegalCountryCodesCache(@Value("${legal.country-codes.ttl-seconds:3600}") int ttlSeconds,
+                                  @Value("${legal.country-codes.refresh-after-seconds:600}") int refreshAfterSeconds,
+                                  Clock clock) {
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.refreshAfterMillis = refreshAfterSeconds * 1000L;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the country codes of the partition, or null when they were never loaded or have expired.
+     */
+    public Map<String, String> get(String partitionId) {
+        Entry entry = this.entries.get(partitionId);
+        if (entry == null || this.clock.millis() - entry.loadedAt >= this.ttlMillis) {
+            return null;
+        }
+        return entry.countryCodes;
+    }
+
+    public void put(String partitionId, Map<String, String> countryCodes) {
+        this.entries.put(partitionId, new Entry(countryCodes, this.clock.millis()));
+    }
+
+    public boolean isDueForRefresh(String partitionId) {
+        Entry entry = this.entries.get(partitionId);
+        return entry == null || this.clock.millis() - entry.loadedAt >= this.refreshAfterMillis;
+    }
+
+    /**
+     * Returns true for the single caller allowed to refresh the partition, which must then call {@link #endRefresh}.
+     */
+    public boolean beginRefresh(String partitionId) {
+        return this.refreshing.add(partitionId);
+    }
+
+    public void endRefresh(String partitionId) {
+        this.refreshing.remove(partitionId);
+    }
+
+    private static final class Entry {
+
+        private final Map<String, String> countryCodes;
+        private final long loadedAt;
+
+        private Entry(Map<String, String> countryCodes, long loadedAt) {
+            this.countryCodes = countryCodes;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.cache;
+
+import org.opengroup.osdu.core.common.cache.VmCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process tier in front of the shared legal tag cache. Valid tags are kept briefly so that a request does not pay
+ * a shared cache round trip per tag; invalid tags are kept for an even shorter time so retries of a rejected request
+ * do not repeat the remote validation. The compliance jobs evict a tag that turns incompliant from this tier along
+ * with the shared one; instances that did not run the job keep serving it until its near cache entry expires.
+ */
+@Component
+public class LegalTagNearCache {
+
+    private final VmCache<String, Boolean> validTags;
+    private final VmCache<String, Boolean> invalidTags;
+
+    public LegalTagNearCache(@Value("${legal.tags.near-cache.ttl-seconds:30}") int ttlSeconds,
+                             @Value("${legal.tags.negative-cache.ttl-seconds:15}") int negativeTtlSeconds,
+                             @Value("${legal.tags.near-cache.max-size:5000}") int maxSize) {
+        this.validTags = new VmCache<>(ttlSeconds, maxSize);
+        this.invalidTags = new VmCache<>(negativeTtlSeconds, maxSize);
+    }
+
+    /**
+     * Returns TRUE for a tag known to be valid, FALSE for a tag known to be invalid and null when it is unknown.
+     */
+    public Boolean get(String partitionId, String legalTagName) {
+        String key = this.getKey(partitionId, legalTagName);
+        if (this.validTags.get(key) != null) return Boolean.TRUE;
+        if (this.invalidTags.get(key) != null) return Boolean.FALSE;
+        return null;
+    }
+
+    public void putValid(String partitionId, String legalTagName) {
+        String key = this.getKey(partitionId, legalTagName);
+        this.invalidTags.delete(key);
+        this.validTags.put(key, Boolean.TRUE);
+    }
+
+    public void putInvalid(String partitionId, String legalTagName) {
+        String key = this.getKey(partitionId, legalTagName);
+        this.validTags.delete(key);
+        this.invalidTags.put(key, Boolean.TRUE);
+    }
+
+    public void delete(String partitionId, String legalTagName) {
+        String key = this.getKey(partitionId, legalTagName);
+        this.validTags.delete(key);
+        this.invalidTags.delete(key);
+    }
+
+    private String getKey(String partitionId, String legalTagName) {
+        return String.format("%s:%s", partitionId, legalTagName);
+    }
+}
@@ -0,0 +1,47 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.cache;
+
+import org.opengroup.osdu.core.common.cache.VmCache;
+import org.opengroup.osdu.core.common.model.storage.Schema;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process tier in front of the shared schema cache, keyed like the shared tier. Schemas rarely change, the short
+ * time to live only bounds how long another instance may keep serving a schema deleted elsewhere.
+ */
+@Component
+public class SchemaNearCache {
+
+    private final VmCache<String, Schema> schemas;
+
+    public SchemaNearCache(@Value("${schema.near-cache.ttl-seconds:60}") int ttlSeconds,
+                           @Value("${schema.near-cache.max-size:1000}") int maxSize) {
+        this.schemas = new VmCache<>(ttlSeconds, maxSize);
+    }
+
+    public Schema get(String key) {
+        return this.schemas.get(key);
+    }
+
+    public void put(String key, Schema schema) {
+        this.schemas.put(key, schema);
+    }
+
+    public void delete(String key) {
+        this.schemas.delete(key);
+    }
+}
@@ -34,6 +34,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.storage.ConversionStatus;
 import org.opengroup.osdu.storage.di.SpringConfig;
+import org.opengroup.osdu.storage.exception.CrsConverterUnavailableException;
 import static org.opengroup.osdu.core.common.util.JsonUtils.jsonElementToString;
 
 @Service
@@ -45,6 +46,7 @@ public class CrsConversionService {
     private static final String INVALID_COORDINATES = "CRS conversion: Invalid Coordinates values, no conversion applied. Error: %s";
     private static final String BAD_REQUEST = "CRS conversion: bad request from crs converter, no conversion applied. Response From CRS Converter: %s.";
     private static final String CONVERSION_FAILURE = "CRS Conversion Error: Point Converted failed(CRS Converter is returning null), no conversion applied. Affected property names: %s, %s";
+    static final String CONVERTER_UNAVAILABLE = "CRS conversion: crs converter unavailable, no conversion applied. Reason: %s";
 
     @Autowired
     private CrsPropertySet crsPropertySet;
@@ -67,6 +69,9 @@ public class CrsConversionService {
     @Autowired
     private SpringConfig springConfig;
 
+    @Autowired
+    private CrsConverterBulkhead crsConverterBulkhead;
+
     public RecordsAndStatuses doCrsConversion(List<JsonObject> originalRecords, List<ConversionStatus.ConversionStatusBuilder> conversionStatuses) {
         RecordsAndStatuses crsConversionResult = new RecordsAndStatuses();
         Map<String, List<PointConversionInfo>> pointConversionInfoList = this.gatherCrsConversionData(originalRecords, conversionStatuses);
@@ -164,7 +169,7 @@ public class CrsConversionService {
                     ConvertGeoJsonRequest request = new ConvertGeoJsonRequest(fc, TO_CRS_GEO_JSON, TO_UNIT_Z);
                     try {
                         if (statusBuilder.getErrors().isEmpty()) {
-                            ConvertGeoJsonResponse response = crsConverterService.convertGeoJson(request);
+                            ConvertGeoJsonResponse response = this.crsConverterBulkhead.execute(() -> crsConverterService.convertGeoJson(request));
                             GeoJsonFeatureCollection wgs84Coordinates = response.getFeatureCollection();
                             this.appendObjectInRecord(recordJsonObject, attributeName, wgs84Coordinates);
                         }
@@ -174,6 +179,8 @@ public class CrsConversionService {
                         } else {
                             this.logger.error(String.format(CrsConversionServiceErrorMessages.CRS_OTHER_ERROR, crsEx.getHttpResponse().toString()));
                         }
+                    } catch (CrsConverterUnavailableException unavailableEx) {
+                        statusBuilder.addError(String.format(CONVERTER_UNAVAILABLE, unavailableEx.getMessage()));
                     }
                 } else {
                     statusBuilder.addError(CrsConversionServiceErrorMessages.MISSING_AS_INGESTED_COORDINATES);
@@ -368,7 +375,7 @@ public class CrsConversionService {
             ICrsConverterService crsConverterService = this.crsConverterFactory.create(this.customizeHeaderBeforeCallingCrsConversion(this.dpsHeaders));
             ConvertPointsRequest request = new ConvertPointsRequest(persistableReference, TO_CRS, originalPoints);
 
-            ConvertPointsResponse response = crsConverterService.convertPoints(request);
+            ConvertPointsResponse response = this.crsConverterBulkhead.execute(() -> crsConverterService.convertPoints(request));
             List<Point> convertedPoints = response.getPoints();
 
             JsonArray convertedJsonPoints = new JsonArray();
@@ -407,6 +414,8 @@ public class CrsConversionService {
                 this.logger.error(String.format(CrsConversionServiceErrorMessages.CRS_OTHER_ERROR, cvEx.getHttpResponse().toString()));
                 throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, UNKNOWN_ERROR, "crs conversion service error.");
             }
+        } catch (CrsConverterUnavailableException unavailableEx) {
+            statusBuilder.addError(String.format(CONVERTER_UNAVAILABLE, unavailableEx.getMessage()));
         } catch (ClassCastException ccEx) {
             statusBuilder.addError(String.format(CrsConversionServiceErrorMessages.ILLEGAL_DATA_IN_NESTED_PROPERTY, nestedFieldName, ccEx.getMessage()));
         } catch (IllegalStateException isEx) {
@@ -446,7 +455,7 @@ public class CrsConversionService {
 
             ConvertPointsRequest request = new ConvertPointsRequest(entry.getKey(), TO_CRS, pointsToBeConverted);
             try {
-                ConvertPointsResponse response = crsConverterService.convertPoints(request);
+                ConvertPointsResponse response = this.crsConverterBulkhead.execute(() -> crsConverterService.convertPoints(request));
                 List<Point> convertedPoints = response.getPoints();
 
                 convertedPointInfo.addAll(this.putBackConvertedValueIntoPointsInfo(pointsList, convertedPoints, conversionStatuses));
@@ -458,6 +467,8 @@ public class CrsConversionService {
                     this.logger.error(String.format(CrsConversionServiceErrorMessages.CRS_OTHER_ERROR, e.getHttpResponse().toString()));
                     throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, UNKNOWN_ERROR, "crs conversion service error.");
                 }
+            } catch (CrsConverterUnavailableException e) {
+                convertedPointInfo.addAll(this.putUnavailableErrorIntoPointsInfo(pointsList, e.getMessage()));
             }
         }
         return convertedPointInfo;
@@ -506,6 +517,13 @@ public class CrsConversionService {
         return convertedPointInfo;
     }
 
+    private List<PointConversionInfo> putUnavailableErrorIntoPointsInfo(List<PointConversionInfo> convertedPointInfo, String reason) {
+        for (PointConversionInfo toBeUpdatedInfo : convertedPointInfo) {
+            toBeUpdatedInfo.getStatusBuilder().addError(String.format(CONVERTER_UNAVAILABLE, reason));
+        }
+        return convertedPointInfo;
+    }
+
     private void updateValuesInRecord(JsonObject recordJsonObject, PointConversionInfo convertedInfo, List<ConversionStatus.ConversionStatusBuilder> conversionStatuses) {
         JsonObject dataBlcok = recordJsonObject.getAsJsonObject(Constants.DATA);
 
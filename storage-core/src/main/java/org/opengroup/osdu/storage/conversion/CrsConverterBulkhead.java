@@ -0,0 +1,136 @@
+// Copyright 2017-2019, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.conversion;
+
+import java.time.Clock;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opengroup.osdu.core.common.model.crs.CrsConverterException;
+import org.opengroup.osdu.storage.exception.CrsConverterUnavailableException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounds the number of concurrent calls to the CRS converter and short-circuits them while the converter is failing,
+ * so a degraded converter cannot tie up every request thread of the service.
+ */
+@Component
+public class CrsConverterBulkhead {
+
+    static final String BULKHEAD_FULL = "too many concurrent requests to crs converter";
+    static final String CIRCUIT_OPEN = "crs converter is failing, calls are suspended";
+
+    @FunctionalInterface
+    public interface CrsConverterCall<T> {
+        T call() throws CrsConverterException;
+    }
+
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final Clock clock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openUntil = new AtomicLong();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+    @Autowired
+    public CrsConverterBulkhead(@Value("${crs.converter.bulkhead.max-concurrent-calls:16}") int maxConcurrentCalls,
+                                @Value("${crs.converter.bulkhead.max-wait-millis:500}") long maxWaitMillis,
+                                @Value("${crs.converter.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                @Value("${crs.converter.circuit-breaker.open-duration-millis:30000}") long openDurationMillis,
+                                Clock clock) {
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        this.maxWaitMillis = maxWaitMillis;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.clock = clock;
+    }
+
+    public <T> T execute(CrsConverterCall<T> call) throws CrsConverterException {
+        boolean trial = this.acquireCircuit();
+        if (!this.acquirePermit()) {
+            if (trial) {
+                this.trialInFlight.set(false);
+            }
+            throw new CrsConverterUnavailableException(BULKHEAD_FULL);
+        }
+
+        try {
+            T result = call.call();
+            this.onSuccess();
+            return result;
+        } catch (CrsConverterException e) {
+            if (e.getHttpResponse() != null && e.getHttpResponse().IsBadRequestCode()) {
+                // the converter answered, the input was wrong: not a converter failure
+                this.onSuccess();
+            } else {
+                this.onFailure();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            this.onFailure();
+            throw e;
+        } finally {
+            this.permits.release();
+            if (trial) {
+                this.trialInFlight.set(false);
+            }
+        }
+    }
+
+    public boolean isOpen() {
+        return this.clock.millis() < this.openUntil.get();
+    }
+
+    /**
+     * Returns true when the caller is the single trial call let through after the open period elapsed.
+     */
+    private boolean acquireCircuit() {
+        if (this.consecutiveFailures.get() < this.failureThreshold) {
+            return false;
+        }
+        if (this.isOpen() || !this.trialInFlight.compareAndSet(false, true)) {
+            throw new CrsConverterUnavailableException(CIRCUIT_OPEN);
+        }
+        return true;
+    }
+
+    private boolean acquirePermit() {
+        try {
+            return this.permits.tryAcquire(this.maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void onSuccess() {
+        this.consecutiveFailures.set(0);
+        this.openUntil.set(0);
+    }
+
+    private void onFailure() {
+        if (this.consecutiveFailures.incrementAndGet() >= this.failureThreshold) {
+            this.openUntil.set(this.clock.millis() + this.openDurationMillis);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.jobs;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Work handed to a pool on behalf of the current request. It runs with the caller's request attributes and logging
+ * context, wrapped by the provider's {@link TaskDecorator} if there is one. Those attributes are only valid while
+ * the request is being served, so the caller must not return before its tasks are done: either it waits for them,
+ * or it gives up on them with {@link #cancelAndAwait()}.
+ */
+public class CallerContextTask<T> extends FutureTask<T> {
+
+    private final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    private final Map<String, String> loggingContext = MDC.getCopyOfContextMap();
+
+    // set by whichever comes first, the pool running the task or the caller giving up on it
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private CallerContextTask(Callable<T> callable) {
+        super(callable);
+    }
+
+    public static <T> CallerContextTask<T> submit(Executor executor, TaskDecorator taskDecorator, Callable<T> callable) {
+        CallerContextTask<T> task = new CallerContextTask<>(callable);
+        try {
+            executor.execute(taskDecorator == null ? task : taskDecorator.decorate(task));
+        } catch (RejectedExecutionException e) {
+            task.claimed.set(true);
+            task.finished.countDown();
+            throw e;
+        }
+        return task;
+    }
+
+    @Override
+    public void run() {
+        if (!this.claimed.compareAndSet(false, true)) {
+            return;
+        }
+        if (this.requestAttributes != null) {
+            RequestContextHolder.setRequestAttributes(this.requestAttributes);
+        }
+        if (this.loggingContext != null) {
+            MDC.setContextMap(this.loggingContext);
+        }
+        try {
+            super.run();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+            MDC.clear();
+            this.finished.countDown();
+        }
+    }
+
+    /**
+     * Interrupts the task and returns once it no longer runs. A task the pool has not started yet never will.
+     */
+    public void cancelAndAwait() {
+        this.cancel(true);
+        if (this.claimed.compareAndSet(false, true)) {
+            return;
+        }
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                this.finished.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
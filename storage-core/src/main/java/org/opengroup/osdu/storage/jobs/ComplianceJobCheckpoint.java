@@ -0,0 +1,50 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.opengroup.osdu.storage.jobs;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.opengroup.osdu.core.common.model.legal.LegalCompliance;
+
+/**
+ * Durable progress of the compliance update of one legal tag in one data partition.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComplianceJobCheckpoint {
+
+    private String partitionId;
+
+    private String legalTagName;
+
+    // compliance status the records of the tag are being moved to
+    private LegalCompliance targetStatus;
+
+    private ComplianceJobState state;
+
+    // position of the next page to process, null to start from the first page
+    private String cursor;
+
+    private long recordsUpdated;
+
+    private long pagesProcessed;
+
+    private long startedAt;
+
+    private long updatedAt;
+}
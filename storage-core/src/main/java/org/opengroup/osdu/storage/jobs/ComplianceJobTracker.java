@@ -0,0 +1,111 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.opengroup.osdu.storage.jobs;
+
+import java.time.Clock;
+import java.util.List;
+
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.legal.LegalCompliance;
+import org.opengroup.osdu.storage.provider.interfaces.IComplianceJobStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the progress of legal compliance updates so that a job stopped by its time budget resumes from its last
+ * checkpoint on the next delivery of the legal tag changed message instead of from the first page.
+ * Providers without a {@link IComplianceJobStore} run their jobs untracked.
+ */
+@Component
+public class ComplianceJobTracker {
+
+    @Autowired(required = false)
+    private IComplianceJobStore store;
+
+    @Autowired
+    private Clock clock;
+
+    /**
+     * Resumes the unfinished job of the tag when it targets the same status, starts a new one otherwise.
+     */
+    public ComplianceJobCheckpoint start(String partitionId, String legalTagName, LegalCompliance targetStatus) {
+        long now = this.clock.millis();
+
+        ComplianceJobCheckpoint checkpoint = this.store == null ? null : this.store.get(partitionId, legalTagName);
+        if (checkpoint == null
+                || checkpoint.getState() == ComplianceJobState.COMPLETED
+                || checkpoint.getTargetStatus() != targetStatus) {
+            checkpoint = ComplianceJobCheckpoint.builder()
+                    .partitionId(partitionId)
+                    .legalTagName(legalTagName)
+                    .targetStatus(targetStatus)
+                    .startedAt(now)
+                    .build();
+        }
+
+        checkpoint.setState(ComplianceJobState.RUNNING);
+        checkpoint.setUpdatedAt(now);
+        this.save(checkpoint);
+        return checkpoint;
+    }
+
+    public void checkpoint(ComplianceJobCheckpoint checkpoint, String cursor, int recordsUpdated) {
+        checkpoint.setCursor(cursor);
+        checkpoint.setRecordsUpdated(checkpoint.getRecordsUpdated() + recordsUpdated);
+        checkpoint.setPagesProcessed(checkpoint.getPagesProcessed() + 1);
+        checkpoint.setUpdatedAt(this.clock.millis());
+        this.save(checkpoint);
+    }
+
+    public void stop(ComplianceJobCheckpoint checkpoint) {
+        checkpoint.setState(ComplianceJobState.STOPPED);
+        checkpoint.setUpdatedAt(this.clock.millis());
+        this.save(checkpoint);
+    }
+
+    public void complete(ComplianceJobCheckpoint checkpoint) {
+        checkpoint.setState(ComplianceJobState.COMPLETED);
+        checkpoint.setCursor(null);
+        checkpoint.setUpdatedAt(this.clock.millis());
+        this.save(checkpoint);
+    }
+
+    public List<ComplianceJobCheckpoint> getJobs(String partitionId) {
+        return this.getStore().list(partitionId);
+    }
+
+    public ComplianceJobCheckpoint getJob(String partitionId, String legalTagName) {
+        ComplianceJobCheckpoint checkpoint = this.getStore().get(partitionId, legalTagName);
+        if (checkpoint == null) {
+            throw new AppException(HttpStatus.SC_NOT_FOUND, "Compliance job not found",
+                    String.format("No compliance job found for legal tag '%s'", legalTagName));
+        }
+        return checkpoint;
+    }
+
+    private IComplianceJobStore getStore() {
+        if (this.store == null) {
+            throw new AppException(HttpStatus.SC_NOT_IMPLEMENTED, "Not implemented",
+                    "Compliance job tracking is not available for this provider");
+        }
+        return this.store;
+    }
+
+    private void save(ComplianceJobCheckpoint checkpoint) {
+        if (this.store != null) {
+            this.store.save(checkpoint);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.jobs;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.legal.jobs.ComplianceUpdateStoppedException;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChanged;
+import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs legal compliance updates as a pipeline: independent legal tags are updated in parallel and, when the
+ * provider pages with a stable cursor, the next page of records is fetched while the current one is written.
+ * Both pools are bounded by compliance.update.max-parallel-tags and shared by all messages, so the load put on
+ * the metadata store and the message bus stays capped whatever the number of changed tags.
+ * Work handed to the pools runs with the caller's request attributes and logging context; providers with their
+ * own thread bound state contribute a {@link TaskDecorator} bean.
+ */
+@Component
+public class ComplianceUpdatePipeline {
+
+    @FunctionalInterface
+    public interface TagUpdate {
+        void update(LegalTagChanged legalTag) throws ComplianceUpdateStoppedException;
+    }
+
+    @FunctionalInterface
+    public interface PageQuery<K> {
+        AbstractMap.SimpleEntry<K, List<RecordMetadata>> query(K cursor);
+    }
+
+    @FunctionalInterface
+    public interface PageUpdate<K> {
+        void update(List<RecordMetadata> records, K nextCursor) throws ComplianceUpdateStoppedException;
+    }
+
+    private final ExecutorService tagExecutor;
+    private final ExecutorService prefetchExecutor;
+
+    @Autowired(required = false)
+    private TaskDecorator taskDecorator;
+
+    @Autowired
+    public ComplianceUpdatePipeline(@Value("${compliance.update.max-parallel-tags:4}") int maxParallelTags) {
+        this.tagExecutor = Executors.newFixedThreadPool(maxParallelTags, daemonThreads("compliance-update-"));
+        // one outstanding prefetch per running tag, prefetches never wait on tag updates so the pools cannot deadlock
+        this.prefetchExecutor = Executors.newFixedThreadPool(maxParallelTags, daemonThreads("compliance-prefetch-"));
+    }
+
+    /**
+     * Updates the tags in parallel and returns once all of them are done. When a tag stopped on its time budget
+     * the others still run to their own end, then the stop is reported; any other failure takes precedence.
+     */
+    public void forEachTag(List<LegalTagChanged> legalTags, TagUpdate update) throws ComplianceUpdateStoppedException {
+        if (legalTags.size() <= 1) {
+            for (LegalTagChanged legalTag : legalTags) {
+                update.update(legalTag);
+            }
+            return;
+        }
+
+        List<CallerContextTask<Void>> updates = new ArrayList<>();
+        for (LegalTagChanged legalTag : legalTags) {
+            updates.add(this.submit(this.tagExecutor, () -> {
+                update.update(legalTag);
+                return null;
+            }));
+        }
+
+        ComplianceUpdateStoppedException stopped = null;
+        RuntimeException failure = null;
+        for (CallerContextTask<Void> tagUpdate : updates) {
+            try {
+                this.await(tagUpdate);
+            } catch (ComplianceUpdateStoppedException e) {
+                stopped = e;
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        if (stopped != null) {
+            throw stopped;
+        }
+    }
+
+    /**
+     * Feeds the pages returned by the query to the update until the query returns an empty page.
+     * With prefetch the next page is queried from the cursor of the current one while the current one is being
+     * updated, which is only correct when that cursor does not depend on the update, and paging ends on a null
+     * cursor. Without prefetch the next page is queried after the update.
+     */
+    public <K> void forEachPage(PageQuery<K> query, K cursor, boolean prefetch, PageUpdate<K> update)
+            throws ComplianceUpdateStoppedException {
+        AbstractMap.SimpleEntry<K, List<RecordMetadata>> page = query.query(cursor);
+
+        while (page != null && page.getValue() != null && !page.getValue().isEmpty()) {
+            K nextCursor = page.getKey();
+            CallerContextTask<AbstractMap.SimpleEntry<K, List<RecordMetadata>>> nextPage = null;
+            if (prefetch && nextCursor != null) {
+                nextPage = this.submit(this.prefetchExecutor, () -> query.query(nextCursor));
+            }
+
+            try {
+                update.update(page.getValue(), nextCursor);
+            } catch (ComplianceUpdateStoppedException | RuntimeException e) {
+                // the prefetch runs with the caller's request attributes, it must be over before the caller returns
+                if (nextPage != null) {
+                    nextPage.cancelAndAwait();
+                }
+                throw e;
+            }
+
+            if (!prefetch) {
+                page = query.query(nextCursor);
+            } else {
+                page = nextPage == null ? null : this.await(nextPage);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.tagExecutor.shutdownNow();
+        this.prefetchExecutor.shutdownNow();
+    }
+
+    private <T> CallerContextTask<T> submit(ExecutorService executor, Callable<T> callable) {
+        return CallerContextTask.submit(executor, this.taskDecorator, callable);
+    }
+
+    private <T> T await(CallerContextTask<T> future) throws ComplianceUpdateStoppedException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancelAndAwait();
+            Thread.currentThread().interrupt();
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Compliance update interrupted",
+                    "The compliance update was interrupted before completion", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ComplianceUpdateStoppedException) {
+                throw (ComplianceUpdateStoppedException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Compliance update failed",
+                    cause.getMessage(), (Exception) cause);
+        }
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
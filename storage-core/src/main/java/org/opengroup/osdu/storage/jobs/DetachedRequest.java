@@ -0,0 +1,115 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.opengroup.osdu.storage.jobs;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Runs background work inside a request made up from the given headers, so that the request scoped beans the
+ * repositories and message buses depend on resolve off the request thread. Each call gets a fresh request scope.
+ */
+public final class DetachedRequest {
+
+    private DetachedRequest() {
+    }
+
+    // the work may throw the checked exception of the code it runs, e.g. a message handler
+    @FunctionalInterface
+    public interface Work<T, E extends Exception> {
+        T get() throws E;
+    }
+
+    public static <T, E extends Exception> T call(Map<String, String> requestHeaders, String path, Work<T, E> work) throws E {
+        RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+        ServletRequestAttributes requestAttributes = new ServletRequestAttributes(request(requestHeaders, path));
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        try {
+            return work.get();
+        } finally {
+            requestAttributes.requestCompleted();
+            RequestContextHolder.setRequestAttributes(previous);
+        }
+    }
+
+    // a read-only request carrying the given headers, with attribute storage for the request scoped beans
+    static HttpServletRequest request(Map<String, String> requestHeaders, String path) {
+        Map<String, Object> attributes = new HashMap<>();
+        return (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getHeader":
+                            return headerValue(requestHeaders, (String) args[0]);
+                        case "getHeaders":
+                            String value = headerValue(requestHeaders, (String) args[0]);
+                            return Collections.enumeration(value == null ? Collections.emptyList()
+                                    : Collections.singletonList(value));
+                        case "getHeaderNames":
+                            return Collections.enumeration(requestHeaders.keySet());
+                        case "getAttribute":
+                            return attributes.get((String) args[0]);
+                        case "setAttribute":
+                            attributes.put((String) args[0], args[1]);
+                            return null;
+                        case "removeAttribute":
+                            attributes.remove((String) args[0]);
+                            return null;
+                        case "getAttributeNames":
+                            return Collections.enumeration(attributes.keySet());
+                        case "getMethod":
+                            return "POST";
+                        case "getRequestURI":
+                            return path;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "Detached request " + path;
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    private static String headerValue(Map<String, String> requestHeaders, String name) {
+        for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
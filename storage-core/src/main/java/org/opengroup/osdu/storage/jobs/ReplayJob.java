@@ -0,0 +1,63 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.opengroup.osdu.storage.jobs;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of the replay of the change notifications of one kind in one data partition.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayJob {
+
+    private String id;
+
+    private String partitionId;
+
+    private String kind;
+
+    private ReplayJobState state;
+
+    // position of the next page to replay, null to start from the first page
+    private String cursor;
+
+    // change notifications published per second at most
+    private int ratePerSecond;
+
+    private long recordsPublished;
+
+    private long pagesProcessed;
+
+    private long startedAt;
+
+    private long updatedAt;
+
+    // why the job failed, null unless it did
+    private String error;
+
+    // instance whose worker replays the job, null until a worker claims it
+    private String owner;
+
+    // last time the owner checkpointed, a worker may take the job over once this is older than the lease
+    private long heartbeatAt;
+
+    // bumped by every save, so that a writer can tell another one saved the job since it read it
+    private long version;
+}
@@ -0,0 +1,382 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.opengroup.osdu.storage.jobs;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import com.google.common.base.Strings;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.indexer.OperationType;
+import org.opengroup.osdu.core.common.model.storage.DatastoreQueryResult;
+import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
+import org.opengroup.osdu.core.common.util.IServiceAccountJwtClient;
+import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
+import org.opengroup.osdu.storage.provider.interfaces.IQueryRepository;
+import org.opengroup.osdu.storage.provider.interfaces.IReplayJobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replays the change notifications of a kind so that consumers can rebuild what they derive from it without the
+ * records being written again. A job pages through the active records of the kind and publishes an update
+ * notification for each of them, no faster than its rate, and checkpoints its cursor after every page so a paused
+ * or failed job resumes where it stopped. Jobs run on replay.max-concurrent-jobs workers, each page inside a
+ * request made up from the partition of the job and a service account token.
+ * A worker claims the job before replaying it and renews its claim with every checkpoint. Once the claim is older
+ * than replay.lease-seconds, for instance because the instance running the job went away, the job can be resumed
+ * and another worker takes it over; a worker that finds its claim taken stops without saving.
+ * Providers without a {@link IReplayJobStore} keep their jobs in memory: there a job is only known to the instance
+ * that started it and does not survive a restart, so the replay jobs API has to be served by a single instance.
+ */
+@Component
+public class ReplayJobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplayJobService.class);
+
+    @Autowired
+    private IQueryRepository queryRepository;
+
+    @Autowired
+    private IMessageBus messageBus;
+
+    @Autowired
+    private IServiceAccountJwtClient serviceAccountJwtClient;
+
+    @Autowired(required = false)
+    private IReplayJobStore store;
+
+    @Autowired
+    private DpsHeaders headers;
+
+    @Autowired
+    private Clock clock;
+
+    @Value("${replay.page-size:500}")
+    private int pageSize = 500;
+
+    @Value("${replay.default-rate-per-second:100}")
+    private int defaultRatePerSecond = 100;
+
+    @Value("${replay.max-rate-per-second:5000}")
+    private int maxRatePerSecond = 5000;
+
+    @Value("${replay.lease-seconds:60}")
+    private int leaseSeconds = 60;
+
+    // owner of the jobs claimed by the workers of this instance
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ExecutorService executor;
+    private final IReplayJobStore localStore = new InMemoryReplayJobStore();
+    // jobs with a worker on this instance
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ReplayJobService(@Value("${replay.max-concurrent-jobs:2}") int maxConcurrentJobs) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("change-replay-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(maxConcurrentJobs, threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    public ReplayJob start(String partitionId, String kind, Integer ratePerSecond) {
+        int rate = ratePerSecond == null ? this.defaultRatePerSecond : ratePerSecond;
+        if (rate <= 0 || rate > this.maxRatePerSecond) {
+            throw new AppException(HttpStatus.SC_BAD_REQUEST, "Invalid rate",
+                    String.format("The replay rate must be between 1 and %d notifications per second", this.maxRatePerSecond));
+        }
+
+        long now = this.clock.millis();
+        ReplayJob job = ReplayJob.builder()
+                .id(UUID.randomUUID().toString())
+                .partitionId(partitionId)
+                .kind(kind)
+                .state(ReplayJobState.RUNNING)
+                .ratePerSecond(rate)
+                .startedAt(now)
+                .updatedAt(now)
+                .owner(this.instanceId)
+                .heartbeatAt(now)
+                .build();
+        this.getStore().create(job);
+        this.submit(job);
+        return job;
+    }
+
+    /**
+     * Stops the job after the page it is replaying, whose progress is still checkpointed. The worker only ever
+     * saves over the state it read, so the pause holds however it interleaves with the checkpoint.
+     */
+    public ReplayJob pause(String partitionId, String id) {
+        return this.update(partitionId, id, job -> {
+            if (job.getState() != ReplayJobState.RUNNING) {
+                throw new AppException(HttpStatus.SC_CONFLICT, "Replay job not running",
+                        String.format("Replay job '%s' is %s", id, job.getState()));
+            }
+            job.setState(ReplayJobState.PAUSED);
+        });
+    }
+
+    /**
+     * Resumes a paused or failed job, or a running one whose worker stopped renewing its claim. The job is left
+     * unclaimed with a fresh heartbeat, so the first worker to claim it runs it and a second resume is rejected.
+     */
+    public ReplayJob resume(String partitionId, String id) {
+        ReplayJob job = this.update(partitionId, id, stored -> {
+            boolean abandoned = stored.getState() == ReplayJobState.RUNNING && this.isLeaseExpired(stored);
+            if (stored.getState() != ReplayJobState.PAUSED && stored.getState() != ReplayJobState.FAILED && !abandoned) {
+                throw new AppException(HttpStatus.SC_CONFLICT, "Replay job not resumable",
+                        String.format("Replay job '%s' is %s", id, stored.getState()));
+            }
+            stored.setState(ReplayJobState.RUNNING);
+            stored.setError(null);
+            stored.setOwner(null);
+            stored.setHeartbeatAt(this.clock.millis());
+        });
+        this.submit(job);
+        return job;
+    }
+
+    public List<ReplayJob> getJobs(String partitionId) {
+        return this.getStore().list(partitionId);
+    }
+
+    public ReplayJob getJob(String partitionId, String id) {
+        ReplayJob job = this.getStore().get(partitionId, id);
+        if (job == null) {
+            throw new AppException(HttpStatus.SC_NOT_FOUND, "Replay job not found",
+                    String.format("No replay job found with id '%s'", id));
+        }
+        return job;
+    }
+
+    private void submit(ReplayJob job) {
+        String key = key(job.getPartitionId(), job.getId());
+        // a worker still finishing its last page picks the resumed job up again, see run
+        if (this.running.add(key)) {
+            this.executor.execute(() -> this.run(job.getPartitionId(), job.getId()));
+        }
+    }
+
+    void run(String partitionId, String id) {
+        String key = key(partitionId, id);
+        ReplayJob job;
+        do {
+            try {
+                this.replay(partitionId, id);
+            } finally {
+                this.running.remove(key);
+            }
+            job = this.getStore().get(partitionId, id);
+        } while (job != null && job.getState() == ReplayJobState.RUNNING && this.isClaimable(job)
+                && !Thread.currentThread().isInterrupted() && this.running.add(key));
+    }
+
+    private void replay(String partitionId, String id) {
+        if (!this.claim(partitionId, id)) {
+            return;
+        }
+        while (true) {
+            ReplayJob job = this.getStore().get(partitionId, id);
+            if (job == null || job.getState() != ReplayJobState.RUNNING || !this.instanceId.equals(job.getOwner())) {
+                return;
+            }
+            try {
+                this.replayPage(job);
+            } catch (LeaseLostException e) {
+                LOGGER.info(String.format("Replay job %s of kind %s was taken over by another worker", id, job.getKind()));
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.finish(partitionId, id, ReplayJobState.PAUSED, null);
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error(String.format("Replay job %s of kind %s failed at cursor %s", id, job.getKind(), job.getCursor()), e);
+                this.finish(partitionId, id, ReplayJobState.FAILED, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void replayPage(ReplayJob job) throws InterruptedException {
+        long started = this.clock.millis();
+        // a page holds at most one second of notifications so the rate holds within the page too
+        int limit = Math.min(this.pageSize, job.getRatePerSecond());
+
+        Map<String, String> requestHeaders = new HashMap<>();
+        requestHeaders.put(DpsHeaders.DATA_PARTITION_ID, job.getPartitionId());
+        requestHeaders.put(DpsHeaders.ACCOUNT_ID, job.getPartitionId());
+        requestHeaders.put(DpsHeaders.CORRELATION_ID, job.getId());
+
+        DatastoreQueryResult page = DetachedRequest.call(requestHeaders, "/replay-jobs/" + job.getId(), () -> {
+            this.headers.put(DpsHeaders.AUTHORIZATION, this.serviceAccountJwtClient.getIdToken(job.getPartitionId()));
+            DatastoreQueryResult result = this.queryRepository.getAllRecordIdsFromKind(job.getKind(), limit, job.getCursor());
+            List<String> ids = result.getResults() == null ? Collections.emptyList() : result.getResults();
+            if (!ids.isEmpty()) {
+                this.messageBus.publishMessage(this.headers, ids.stream()
+                        .map(recordId -> new PubSubInfo(recordId, job.getKind(), OperationType.update))
+                        .toArray(PubSubInfo[]::new));
+            }
+            return result;
+        });
+
+        int published = page.getResults() == null ? 0 : page.getResults().size();
+        boolean done = published == 0 || Strings.isNullOrEmpty(page.getCursor());
+
+        // only the worker moves the cursor, an admin may have paused the job while the page was replayed
+        ReplayJob checkpoint = this.update(job.getPartitionId(), job.getId(), stored -> {
+            this.checkOwner(stored);
+            stored.setHeartbeatAt(this.clock.millis());
+            stored.setCursor(done ? null : page.getCursor());
+            stored.setRecordsPublished(stored.getRecordsPublished() + published);
+            stored.setPagesProcessed(stored.getPagesProcessed() + 1);
+            if (done) {
+                stored.setState(ReplayJobState.COMPLETED);
+            }
+        });
+
+        long wait = started + published * 1000L / job.getRatePerSecond() - this.clock.millis();
+        if (checkpoint.getState() == ReplayJobState.RUNNING && wait > 0) {
+            Thread.sleep(wait);
+        }
+    }
+
+    private void finish(String partitionId, String id, ReplayJobState state, String error) {
+        try {
+            this.update(partitionId, id, job -> {
+                this.checkOwner(job);
+                job.setState(state);
+                job.setError(error);
+            });
+        } catch (LeaseLostException e) {
+            // the worker that took the job over reports on it
+        }
+    }
+
+    // claims the running job for this instance unless a live worker holds it
+    private boolean claim(String partitionId, String id) {
+        try {
+            this.update(partitionId, id, job -> {
+                if (job.getState() != ReplayJobState.RUNNING || !this.isClaimable(job)) {
+                    throw new LeaseLostException();
+                }
+                job.setOwner(this.instanceId);
+                job.setHeartbeatAt(this.clock.millis());
+            });
+            return true;
+        } catch (LeaseLostException e) {
+            return false;
+        }
+    }
+
+    private boolean isClaimable(ReplayJob job) {
+        return job.getOwner() == null || this.instanceId.equals(job.getOwner()) || this.isLeaseExpired(job);
+    }
+
+    private boolean isLeaseExpired(ReplayJob job) {
+        return this.clock.millis() - job.getHeartbeatAt() >= this.leaseSeconds * 1000L;
+    }
+
+    private void checkOwner(ReplayJob job) {
+        if (!this.instanceId.equals(job.getOwner())) {
+            throw new LeaseLostException();
+        }
+    }
+
+    // applies the change to the stored job again until no other writer saved the job in between
+    private ReplayJob update(String partitionId, String id, Consumer<ReplayJob> change) {
+        while (true) {
+            ReplayJob job = this.getJob(partitionId, id);
+            change.accept(job);
+            job.setUpdatedAt(this.clock.millis());
+            if (this.getStore().update(job)) {
+                return job;
+            }
+        }
+    }
+
+    private IReplayJobStore getStore() {
+        return this.store == null ? this.localStore : this.store;
+    }
+
+    private static String key(String partitionId, String id) {
+        return partitionId + '|' + id;
+    }
+
+    // thrown from within an update once another worker claimed the job, so that nothing is saved over its claim
+    private static class LeaseLostException extends RuntimeException {
+    }
+
+    // hands out copies, the way a persistent store would
+    static class InMemoryReplayJobStore implements IReplayJobStore {
+
+        private final ConcurrentMap<String, ReplayJob> jobs = new ConcurrentHashMap<>();
+
+        @Override
+        public ReplayJob get(String partitionId, String id) {
+            ReplayJob job = this.jobs.get(key(partitionId, id));
+            return job == null ? null : job.toBuilder().build();
+        }
+
+        @Override
+        public List<ReplayJob> list(String partitionId) {
+            return this.jobs.values().stream()
+                    .filter(job -> partitionId.equals(job.getPartitionId()))
+                    .map(job -> job.toBuilder().build())
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+
+        @Override
+        public void create(ReplayJob job) {
+            this.jobs.putIfAbsent(key(job.getPartitionId(), job.getId()), job.toBuilder().build());
+        }
+
+        @Override
+        public boolean update(ReplayJob job) {
+            ReplayJob updated = job.toBuilder().version(job.getVersion() + 1).build();
+            ReplayJob stored = this.jobs.computeIfPresent(key(job.getPartitionId(), job.getId()),
+                    (jobKey, current) -> current.getVersion() == job.getVersion() ? updated : current);
+            if (stored != updated) {
+                return false;
+            }
+            job.setVersion(updated.getVersion());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.messaging;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.gson.Gson;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.indexer.OperationType;
+import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encodes record change notifications for the provider message buses. The default encoding is the JSON array of
+ * {@link PubSubInfo} the consumers have always received. With messaging.compact-encoding.enabled the notifications
+ * are written as runs sharing kind and operation, with length-prefixed strings and, unless
+ * messaging.compact-encoding.compress is off, gzipped, which lets a message carry messaging.compact-encoding.batch-size
+ * notifications instead of 50. The encoding goes in the {@link #ENCODING_ATTRIBUTE} message attribute, and
+ * {@link #decode(String, byte[])} reads either encoding.
+ */
+@Component
+public class ChangeEventEncoder {
+
+    public static final String ENCODING_ATTRIBUTE = "change-encoding";
+    public static final String JSON = "json";
+    public static final String COMPACT_V1 = "compact-v1";
+    public static final String COMPACT_V1_GZIP = "compact-v1+gzip";
+
+    private static final int JSON_BATCH_SIZE = 50;
+
+    @Value("${messaging.compact-encoding.enabled:false}")
+    private boolean compact;
+
+    @Value("${messaging.compact-encoding.compress:true}")
+    private boolean compress = true;
+
+    @Value("${messaging.compact-encoding.batch-size:1000}")
+    private int compactBatchSize = 1000;
+
+    public boolean isCompact() {
+        return this.compact;
+    }
+
+    public String getEncoding() {
+        if (!this.compact) {
+            return JSON;
+        }
+        return this.compress ? COMPACT_V1_GZIP : COMPACT_V1;
+    }
+
+    public int getBatchSize() {
+        return this.compact ? this.compactBatchSize : JSON_BATCH_SIZE;
+    }
+
+    public byte[] encode(PubSubInfo[] messages) {
+        if (!this.compact) {
+            return new Gson().toJson(messages).getBytes(StandardCharsets.UTF_8);
+        }
+        return encodeCompact(messages, this.compress);
+    }
+
+    // for the brokers whose payloads are strings, the compact encoding is base64 encoded
+    public String encodeToString(PubSubInfo[] messages) {
+        if (!this.compact) {
+            return new Gson().toJson(messages);
+        }
+        return Base64.getEncoder().encodeToString(encodeCompact(messages, this.compress));
+    }
+
+    public static PubSubInfo[] decode(String encoding, byte[] payload) {
+        if (encoding == null || JSON.equals(encoding)) {
+            return new Gson().fromJson(new String(payload, StandardCharsets.UTF_8), PubSubInfo[].class);
+        }
+        if (COMPACT_V1.equals(encoding) || COMPACT_V1_GZIP.equals(encoding)) {
+            return decodeCompact(payload, COMPACT_V1_GZIP.equals(encoding));
+        }
+        throw new AppException(HttpStatus.SC_BAD_REQUEST, "Unknown encoding",
+                String.format("Change notifications encoded as '%s' are not supported", encoding));
+    }
+
+    public static PubSubInfo[] decodeString(String encoding, String payload) {
+        if (encoding == null || JSON.equals(encoding)) {
+            return decode(encoding, payload.getBytes(StandardCharsets.UTF_8));
+        }
+        return decode(encoding, Base64.getDecoder().decode(payload));
+    }
+
+    /**
+     * Writes the notifications as runs of consecutive notifications sharing kind and operation, so the kind and
+     * operation are written once per run and the notifications decode in their original order, which matters for
+     * a record changed several times within one message.
+     */
+    static byte[] encodeCompact(PubSubInfo[] messages, boolean compress) {
+        List<Integer> runStarts = new ArrayList<>();
+        for (int i = 0; i < messages.length; i++) {
+            if (i == 0 || !Objects.equals(messages[i].getKind(), messages[i - 1].getKind())
+                    || messages[i].getOp() != messages[i - 1].getOp()) {
+                runStarts.add(i);
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream target = compress ? new GZIPOutputStream(bytes) : bytes;
+             DataOutputStream out = new DataOutputStream(target)) {
+            out.writeInt(messages.length);
+            out.writeInt(runStarts.size());
+            for (int r = 0; r < runStarts.size(); r++) {
+                int start = runStarts.get(r);
+                int end = r + 1 < runStarts.size() ? runStarts.get(r + 1) : messages.length;
+                OperationType op = messages[start].getOp();
+                writeNullable(out, messages[start].getKind());
+                writeNullable(out, op == null ? null : op.name());
+                out.writeInt(end - start);
+                for (int i = start; i < end; i++) {
+                    writeNullable(out, messages[i].getId());
+                }
+            }
+        } catch (IOException e) {
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Encoding failed",
+                    "Could not encode the change notifications", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static PubSubInfo[] decodeCompact(byte[] payload, boolean compressed) {
+        try (InputStream source = compressed
+                ? new GZIPInputStream(new ByteArrayInputStream(payload)) : new ByteArrayInputStream(payload);
+             DataInputStream in = new DataInputStream(source)) {
+            PubSubInfo[] messages = new PubSubInfo[in.readInt()];
+            int i = 0;
+            int runs = in.readInt();
+            for (int r = 0; r < runs; r++) {
+                String kind = readNullable(in);
+                String op = readNullable(in);
+                OperationType operationType = op == null ? null : OperationType.valueOf(op);
+                int ids = in.readInt();
+                for (int id = 0; id < ids; id++) {
+                    messages[i++] = new PubSubInfo(readNullable(in), kind, operationType);
+                }
+            }
+            return messages;
+        } catch (IOException | RuntimeException e) {
+            throw new AppException(HttpStatus.SC_BAD_REQUEST, "Decoding failed",
+                    "Could not decode the change notifications", e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
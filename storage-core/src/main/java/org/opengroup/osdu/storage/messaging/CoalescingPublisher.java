@@ -0,0 +1,185 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.messaging;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.indexer.OperationType;
+import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds record change notifications for messaging.coalescing.window-ms and publishes only the latest one per record
+ * and kind, so that a record written many times in a row is reprocessed downstream once. A creation followed by
+ * updates is still published as a creation and a deletion wins over what came before it. Notifications without a
+ * record id, such as schema changes, are not held.
+ * The notifications of a window are published off the request thread with the partition, account and correlation
+ * id of the first request of the window for the partition, never with a caller's credentials, so this only suits
+ * provider message buses that do not rely on request scoped beans.
+ */
+@Component
+public class CoalescingPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoalescingPublisher.class);
+
+    @Autowired
+    private ObjectProvider<OutboxMessageBus> messageBus;
+
+    @Value("${messaging.coalescing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${messaging.coalescing.window-ms:2000}")
+    private long windowMillis;
+
+    // held notifications across partitions beyond which the window is flushed early
+    @Value("${messaging.coalescing.max-pending:10000}")
+    private int maxPending;
+
+    private final ConcurrentMap<String, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        if (!this.enabled) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("change-coalescing-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.executor.scheduleWithFixedDelay(this::flush, this.windowMillis, this.windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            this.flush();
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public void add(DpsHeaders headers, PubSubInfo... messages) {
+        List<PubSubInfo> passThrough = new ArrayList<>();
+        List<PubSubInfo> held = new ArrayList<>();
+        for (PubSubInfo message : messages) {
+            (message.getId() == null ? passThrough : held).add(message);
+        }
+        if (!passThrough.isEmpty()) {
+            this.messageBus.getObject().publishNow(headers, passThrough.toArray(new PubSubInfo[0]));
+        }
+        if (held.isEmpty()) {
+            return;
+        }
+
+        headers.addCorrelationIdIfMissing();
+        String partitionId = headers.getPartitionIdWithFallbackToAccountId();
+        this.pending.compute(partitionId, (id, current) -> {
+            Pending window = current == null ? new Pending(OutboxMessageBus.persistedHeaders(headers)) : current;
+            for (PubSubInfo message : held) {
+                this.hold(window, message, false);
+            }
+            return window;
+        });
+
+        if (this.pendingCount.get() >= this.maxPending && this.executor != null) {
+            this.executor.execute(this::flush);
+        }
+    }
+
+    void flush() {
+        for (String partitionId : new ArrayList<>(this.pending.keySet())) {
+            Pending window = this.pending.remove(partitionId);
+            if (window == null || window.messages.isEmpty()) {
+                continue;
+            }
+            this.pendingCount.addAndGet(-window.messages.size());
+
+            PubSubInfo[] messages = window.messages.values().toArray(new PubSubInfo[0]);
+            try {
+                this.messageBus.getObject().publishNow(DpsHeaders.createFromMap(window.headers), messages);
+            } catch (RuntimeException e) {
+                LOGGER.error(String.format("Publishing %d coalesced notifications of partition %s failed, retrying on next window",
+                        messages.length, partitionId), e);
+                this.requeue(partitionId, window);
+            }
+        }
+    }
+
+    // a notification held while the window was being published is more recent than the requeued ones
+    private void requeue(String partitionId, Pending failed) {
+        this.pending.compute(partitionId, (id, current) -> {
+            if (current == null) {
+                this.pendingCount.addAndGet(failed.messages.size());
+                return failed;
+            }
+            for (PubSubInfo message : failed.messages.values()) {
+                this.hold(current, message, true);
+            }
+            return current;
+        });
+    }
+
+    private void hold(Pending window, PubSubInfo message, boolean older) {
+        String key = message.getId() + '|' + message.getKind();
+        PubSubInfo held = window.messages.get(key);
+        if (held == null) {
+            window.messages.put(key, message);
+            this.pendingCount.incrementAndGet();
+        } else {
+            window.messages.put(key, older ? merge(message, held) : merge(held, message));
+        }
+    }
+
+    static PubSubInfo merge(PubSubInfo earlier, PubSubInfo later) {
+        // consumers have not heard of the record yet, so it still has to reach them as a creation
+        if (earlier.getOp() == OperationType.create && later.getOp() == OperationType.update) {
+            return new PubSubInfo(later.getId(), later.getKind(), OperationType.create);
+        }
+        return later;
+    }
+
+    private static class Pending {
+        private final Map<String, String> headers;
+        private final Map<String, PubSubInfo> messages = new LinkedHashMap<>();
+
+        private Pending(Map<String, String> headers) {
+            this.headers = headers;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.messaging;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
+import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
+import org.opengroup.osdu.storage.provider.interfaces.IOutboxRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * Message bus handed to the services. With outbox.enabled and a provider {@link IOutboxRepository}, notifications
+ * are written to the outbox of the partition and the {@link OutboxRelay} publishes them later, so the request does
+ * not wait on the broker and a failed write fails the request instead of losing the notifications. Otherwise they
+ * go to the provider message bus, through the {@link CoalescingPublisher} when it is enabled.
+ */
+@Primary
+@Component
+public class OutboxMessageBus implements IMessageBus {
+
+    // the only request headers kept with an outbox entry or a coalescing window, credentials are never kept
+    static final String[] PERSISTED_HEADERS =
+            {DpsHeaders.DATA_PARTITION_ID, DpsHeaders.ACCOUNT_ID, DpsHeaders.CORRELATION_ID};
+
+    @Autowired
+    private ObjectProvider<IMessageBus> messageBuses;
+
+    @Autowired(required = false)
+    private IOutboxRepository outboxRepository;
+
+    @Autowired
+    private CoalescingPublisher coalescingPublisher;
+
+    @Autowired
+    private Clock clock;
+
+    @Value("${outbox.enabled:false}")
+    private boolean enabled;
+
+    private volatile IMessageBus messageBus;
+
+    @Override
+    public void publishMessage(DpsHeaders headers, PubSubInfo... messages) {
+        if (!this.isEnabled()) {
+            if (this.coalescingPublisher.isEnabled()) {
+                this.coalescingPublisher.add(headers, messages);
+            } else {
+                this.publishNow(headers, messages);
+            }
+            return;
+        }
+        if (messages.length == 0) {
+            return;
+        }
+
+        headers.addCorrelationIdIfMissing();
+        this.outboxRepository.add(OutboxEntry.builder()
+                .id(UUID.randomUUID().toString())
+                .partitionId(headers.getPartitionIdWithFallbackToAccountId())
+                .headers(persistedHeaders(headers))
+                .messages(Arrays.asList(messages))
+                .createdAt(this.clock.millis())
+                .build());
+    }
+
+    public boolean isEnabled() {
+        return this.enabled && this.outboxRepository != null;
+    }
+
+    static Map<String, String> persistedHeaders(DpsHeaders headers) {
+        Map<String, String> persisted = new HashMap<>();
+        for (String name : PERSISTED_HEADERS) {
+            String value = headers.getHeaders().get(name);
+            if (value != null) {
+                persisted.put(name, value);
+            }
+        }
+        return persisted;
+    }
+
+    void publishNow(DpsHeaders headers, PubSubInfo... messages) {
+        this.getMessageBus().publishMessage(headers, messages);
+    }
+
+    private IMessageBus getMessageBus() {
+        if (this.messageBus == null) {
+            this.messageBus = this.messageBuses.stream()
+                    .filter(bus -> !(bus instanceof OutboxMessageBus))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No provider message bus is configured"));
+        }
+        return this.messageBus;
+    }
+}
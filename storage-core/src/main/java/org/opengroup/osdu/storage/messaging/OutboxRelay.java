@@ -0,0 +1,197 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.messaging;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+import org.opengroup.osdu.core.common.provider.interfaces.ITenantFactory;
+import org.opengroup.osdu.storage.provider.interfaces.IOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the outbox of every partition through the provider message bus, oldest entries first and a batch at
+ * a time. Time is cut into leases of outbox.relay.lease-ms and only the instance that claimed the current lease of a
+ * partition relays it, until the lease ends. Entries are removed only once published, so a notification may still
+ * be delivered more than once, for instance when a batch is cut short by the end of a lease, but never dropped.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired(required = false)
+    private IOutboxRepository outboxRepository;
+
+    @Autowired
+    private OutboxMessageBus messageBus;
+
+    @Autowired
+    private ITenantFactory tenantFactory;
+
+    @Autowired
+    private Clock clock;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.interval-ms:500}")
+    private long intervalMillis;
+
+    @Value("${outbox.relay.lag-warning-ms:60000}")
+    private long lagWarningMillis;
+
+    @Value("${outbox.relay.lease-ms:30000}")
+    private long leaseMillis;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    // last lease claimed per partition, and whether this instance got it
+    private final ConcurrentMap<String, Lease> leases = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!this.messageBus.isEnabled()) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("outbox-relay-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.executor.scheduleWithFixedDelay(this::relayAll, this.intervalMillis, this.intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Age of the oldest entry of the partition still waiting to be published, read from the outbox itself so every
+     * instance reports it, not only the one holding the current lease.
+     */
+    public long getLagMillis(String partitionId) {
+        if (!this.messageBus.isEnabled()) {
+            return 0L;
+        }
+        List<OutboxEntry> oldest = this.outboxRepository.fetch(partitionId, 1);
+        return oldest.isEmpty() ? 0L : Math.max(0L, this.clock.millis() - oldest.get(0).getCreatedAt());
+    }
+
+    void relayAll() {
+        List<String> partitionIds = new ArrayList<>();
+        try {
+            for (TenantInfo tenantInfo : this.tenantFactory.listTenantInfo()) {
+                partitionIds.add(tenantInfo.getDataPartitionId());
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not list the partitions to relay the outbox of", e);
+            return;
+        }
+
+        for (String partitionId : partitionIds) {
+            try {
+                long lease = this.clock.millis() / this.leaseMillis;
+                if (this.holdsLease(partitionId, lease)) {
+                    this.relay(partitionId, (lease + 1) * this.leaseMillis);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error(String.format("Outbox relay of partition %s failed, retrying on next pass", partitionId), e);
+            }
+        }
+    }
+
+    private boolean holdsLease(String partitionId, long lease) {
+        Lease known = this.leases.get(partitionId);
+        if (known != null && known.number == lease) {
+            return known.held;
+        }
+
+        boolean claimed = this.outboxRepository.claimLease(partitionId, lease, this.owner);
+        this.leases.put(partitionId, new Lease(lease, claimed));
+        return claimed;
+    }
+
+    /**
+     * Publishes the pending entries of the partition until the outbox is empty, publishing fails or the lease ends.
+     */
+    int relay(String partitionId, long leaseUntil) {
+        int relayed = 0;
+        while (this.clock.millis() < leaseUntil) {
+            List<OutboxEntry> entries = this.outboxRepository.fetch(partitionId, this.batchSize);
+            if (entries.isEmpty()) {
+                return relayed;
+            }
+
+            long lag = this.clock.millis() - entries.get(0).getCreatedAt();
+            if (lag >= this.lagWarningMillis) {
+                LOGGER.warn(String.format("Outbox of partition %s is %d ms behind", partitionId, lag));
+            }
+
+            List<String> published = new ArrayList<>();
+            try {
+                for (OutboxEntry entry : entries) {
+                    this.messageBus.publishNow(DpsHeaders.createFromMap(entry.getHeaders()),
+                            entry.getMessages().toArray(new PubSubInfo[0]));
+                    published.add(entry.getId());
+                }
+            } finally {
+                if (!published.isEmpty()) {
+                    this.outboxRepository.delete(partitionId, published);
+                }
+            }
+
+            relayed += published.size();
+            if (entries.size() < this.batchSize) {
+                return relayed;
+            }
+        }
+        return relayed;
+    }
+
+    private static final class Lease {
+
+        private final long number;
+        private final boolean held;
+
+        private Lease(long number, boolean held) {
+            this.number = number;
+            this.held = held;
+        }
+    }
+}
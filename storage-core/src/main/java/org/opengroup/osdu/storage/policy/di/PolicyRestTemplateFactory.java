@@ -0,0 +1,49 @@
+// Copyright © Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.policy.di;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AbstractFactoryBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * HTTP client for the batch policy query, which the core policy client does not expose. Connect and read timeouts
+ * come from POLICY_CONNECT_TIMEOUT_MS and POLICY_READ_TIMEOUT_MS so a slow policy service cannot hold request threads.
+ */
+@Component(PolicyRestTemplateFactory.BEAN_NAME)
+@ConditionalOnProperty(value = "service.policy.enabled", havingValue = "true", matchIfMissing = false)
+public class PolicyRestTemplateFactory extends AbstractFactoryBean<RestTemplate> {
+
+    public static final String BEAN_NAME = "policyRestTemplate";
+
+    @Autowired
+    private PolicyServiceConfiguration serviceConfiguration;
+
+    @Override
+    public Class<?> getObjectType() {
+        return RestTemplate.class;
+    }
+
+    @Override
+    protected RestTemplate createInstance() throws Exception {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(serviceConfiguration.getConnectTimeoutMillis());
+        requestFactory.setReadTimeout(serviceConfiguration.getReadTimeoutMillis());
+        return new RestTemplate(requestFactory);
+    }
+}
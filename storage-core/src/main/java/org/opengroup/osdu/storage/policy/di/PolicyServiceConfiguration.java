@@ -27,6 +27,15 @@ public class PolicyServiceConfiguration {
     @Value("${POLICY_ID:storage}")
     private String policyId;
 
+    @Value("${POLICY_BATCH_ID:}")
+    private String batchPolicyId;
+
     @Value("${POLICY_API}")
     private String policyApiEndpoint;
+
+    @Value("${POLICY_CONNECT_TIMEOUT_MS:5000}")
+    private int connectTimeoutMillis;
+
+    @Value("${POLICY_READ_TIMEOUT_MS:30000}")
+    private int readTimeoutMillis;
 }
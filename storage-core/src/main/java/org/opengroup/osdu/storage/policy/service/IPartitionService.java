@@ -19,4 +19,9 @@ import org.opengroup.osdu.core.common.partition.PartitionInfo;
 public interface IPartitionService {
 
     PartitionInfo getPartition(String partitionId);
+
+    /**
+     * Variant usable outside of a request, it does not read the request headers.
+     */
+    PartitionInfo getPartition(String partitionId, String correlationId);
 }
@@ -19,9 +19,17 @@ import org.opengroup.osdu.core.common.model.policy.PolicyRequest;
 import org.opengroup.osdu.core.common.model.policy.PolicyResponse;
 import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
 
+import java.util.List;
+import java.util.Map;
+
 public interface IPolicyService {
 
     PolicyResponse evaluatePolicy(PolicyRequest policy);
 
     boolean evaluateStorageDataAuthorizationPolicy(RecordMetadata recordMetadata, OperationType operationType);
+
+    /**
+     * Evaluates the storage policy for all records at once, returns the decision keyed by record id.
+     */
+    Map<String, Boolean> evaluateStorageDataAuthorizationPolicy(List<RecordMetadata> recordsMetadata, OperationType operationType);
 }
@@ -14,62 +14,185 @@
 
 package org.opengroup.osdu.storage.policy.service;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.policy.PolicyStatus;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
 import org.opengroup.osdu.core.common.partition.PartitionInfo;
+import org.opengroup.osdu.core.common.partition.Property;
+import org.opengroup.osdu.core.common.provider.interfaces.ITenantFactory;
+import org.opengroup.osdu.storage.jobs.DetachedRequest;
 import org.opengroup.osdu.storage.policy.cache.PolicyCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 @Component
 public class PartitionPolicyStatusService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionPolicyStatusService.class);
+
     private final static String POLICY_SERVICE_ENABLED = "policy-service-enabled";
 
+    private final static String POLICY_BUNDLE_VERSION = "policy-bundle-version";
+
+    private final static String REFRESH_PATH = "/policy-status/refresh";
+
     @Autowired(required = false)
     private IPartitionService partitionService;
 
+    @Autowired(required = false)
+    private ITenantFactory tenantFactory;
+
     @Lazy
     @Autowired
     private PolicyCache cache;
 
     @Autowired
-    private JaxRsDpsLog logger;
+    private DpsHeaders headers;
+
+    // last successfully loaded status per partition, served while a refresh of an expired entry is running
+    private final ConcurrentMap<String, Boolean> lastKnownStatus = new ConcurrentHashMap<>();
+
+    // policy bundle version per partition, loaded along with the status
+    private final ConcurrentMap<String, String> bundleVersions = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, CompletableFuture<Boolean>> inFlightRefreshes = new ConcurrentHashMap<>();
 
     public boolean policyEnabled(String dataPartitionId) {
         if (partitionService == null) return false;
 
-        String cacheKey = String.format("%s-policy", dataPartitionId);
+        String cacheKey = this.getCacheKey(dataPartitionId);
 
         if (cache != null && cache.containsKey(cacheKey)) return cache.get(cacheKey).isEnabled();
 
-        PolicyStatus policyStatus = PolicyStatus.builder().enabled(false).build();
+        Boolean staleStatus = this.lastKnownStatus.get(dataPartitionId);
+        if (staleStatus != null) {
+            this.refresh(dataPartitionId, this.headers.getCorrelationId(), true);
+            return staleStatus;
+        }
+
+        return this.refresh(dataPartitionId, this.headers.getCorrelationId(), false).join();
+    }
+
+    /**
+     * Version of the storage policy bundle as declared by the partition's policy-bundle-version property when its
+     * status was last loaded, empty if it declares none. Bumping the property when a new bundle is deployed stops
+     * every instance from serving authorization decisions cached under the previous bundle once the status of the
+     * partition is reloaded, at the latest when its cached status expires.
+     */
+    public String bundleVersion(String dataPartitionId) {
+        return this.bundleVersions.getOrDefault(dataPartitionId, "");
+    }
+
+    /**
+     * Loads the status of every known partition once the application is ready, so the first requests do not pay
+     * for the partition service call.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (partitionService == null || tenantFactory == null) return;
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                for (TenantInfo tenantInfo : this.tenantFactory.listTenantInfo()) {
+                    String dataPartitionId = tenantInfo.getDataPartitionId();
+                    String correlationId = UUID.randomUUID().toString();
+                    DetachedRequest.call(this.requestHeaders(dataPartitionId, correlationId), REFRESH_PATH,
+                            () -> this.refresh(dataPartitionId, correlationId, false).join());
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Policy status warm-up failed", e);
+            }
+        });
+    }
 
+    /**
+     * Only one load per partition runs at a time, concurrent callers share its result. Loads off the request thread
+     * run inside a detached request, since the partition client needs the request scoped service account token.
+     */
+    private CompletableFuture<Boolean> refresh(String dataPartitionId, String correlationId, boolean async) {
+        CompletableFuture<Boolean> load = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = this.inFlightRefreshes.putIfAbsent(dataPartitionId, load);
+        if (existing != null) return existing;
+
+        Runnable task = () -> {
+            try {
+                load.complete(this.loadStatus(dataPartitionId, correlationId));
+            } finally {
+                this.inFlightRefreshes.remove(dataPartitionId, load);
+            }
+        };
+        if (async) {
+            CompletableFuture.runAsync(() -> DetachedRequest.call(this.requestHeaders(dataPartitionId, correlationId),
+                    REFRESH_PATH, () -> {
+                        task.run();
+                        return null;
+                    }));
+        } else {
+            task.run();
+        }
+        return load;
+    }
+
+    /**
+     * A failed load is not cached: the last known status is served, or policy is treated as disabled if the
+     * partition was never loaded, and the next call retries.
+     */
+    private boolean loadStatus(String dataPartitionId, String correlationId) {
+        boolean enabled;
+        String bundleVersion;
         try {
-            PartitionInfo partitionInfo = partitionService.getPartition(dataPartitionId);
-            policyStatus.setEnabled(getPolicyStatus(partitionInfo));
+            PartitionInfo partitionInfo = partitionService.getPartition(dataPartitionId, correlationId);
+            enabled = getPolicyStatus(partitionInfo);
+            bundleVersion = getBundleVersion(partitionInfo);
         } catch (Exception e) {
-            this.logger.error(String.format("Error getting policy status for dataPartitionId: %s", dataPartitionId), e);
+            LOGGER.error(String.format("Error getting policy status for dataPartitionId: %s", dataPartitionId), e);
+            return this.lastKnownStatus.getOrDefault(dataPartitionId, false);
         }
 
-        this.cache.put(cacheKey, policyStatus);
+        this.cache.put(this.getCacheKey(dataPartitionId), PolicyStatus.builder().enabled(enabled).build());
+        this.lastKnownStatus.put(dataPartitionId, enabled);
+        this.bundleVersions.put(dataPartitionId, bundleVersion);
+        return enabled;
+    }
 
-        return policyStatus.isEnabled();
+    private Map<String, String> requestHeaders(String dataPartitionId, String correlationId) {
+        Map<String, String> requestHeaders = new HashMap<>();
+        requestHeaders.put(DpsHeaders.DATA_PARTITION_ID, dataPartitionId);
+        requestHeaders.put(DpsHeaders.CORRELATION_ID, correlationId);
+        return requestHeaders;
+    }
+
+    private String getCacheKey(String dataPartitionId) {
+        return String.format("%s-policy", dataPartitionId);
     }
 
     private boolean getPolicyStatus(PartitionInfo partitionInfo) {
-        final Gson gson = new Gson();
-        JsonElement element = gson.toJsonTree(partitionInfo.getProperties());
-        JsonObject rootObject = element.getAsJsonObject();
-        if (!rootObject.has(POLICY_SERVICE_ENABLED)) {
+        Property partitionPolicyProperty = partitionInfo.getProperties().get(POLICY_SERVICE_ENABLED);
+        if (partitionPolicyProperty == null || partitionPolicyProperty.getValue() == null) {
             return false;
         }
 
-        String partitionPolicyProperty = rootObject.getAsJsonObject(POLICY_SERVICE_ENABLED).get("value").getAsString();
-        return partitionPolicyProperty.equalsIgnoreCase("true");
+        return String.valueOf(partitionPolicyProperty.getValue()).equalsIgnoreCase("true");
+    }
+
+    private String getBundleVersion(PartitionInfo partitionInfo) {
+        Property bundleVersionProperty = partitionInfo.getProperties().get(POLICY_BUNDLE_VERSION);
+        if (bundleVersionProperty == null || bundleVersionProperty.getValue() == null) {
+            return "";
+        }
+
+        return String.valueOf(bundleVersionProperty.getValue());
     }
 }
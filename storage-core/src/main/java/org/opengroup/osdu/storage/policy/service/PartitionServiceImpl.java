@@ -27,6 +27,7 @@ import org.opengroup.osdu.core.common.partition.PartitionInfo;
 import org.opengroup.osdu.core.common.util.IServiceAccountJwtClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -44,12 +45,20 @@ public class PartitionServiceImpl implements IPartitionService {
 
     @Override
     public PartitionInfo getPartition(String partitionId) {
+        return this.getPartition(partitionId, this.headers.getContentType(), this.headers.getCorrelationId());
+    }
+
+    @Override
+    public PartitionInfo getPartition(String partitionId, String correlationId) {
+        return this.getPartition(partitionId, MediaType.APPLICATION_JSON_VALUE, correlationId);
+    }
+
+    private PartitionInfo getPartition(String partitionId, String contentType, String correlationId) {
         try {
-//            this.headers.put(DpsHeaders.AUTHORIZATION, this.tokenService.getIdToken(this.headers.getPartitionId()));
         	Map<String,String> partitionHeadersMap = new HashMap<>();
-        	partitionHeadersMap.put(DpsHeaders.CONTENT_TYPE,headers.getContentType());
-        	partitionHeadersMap.put(DpsHeaders.CORRELATION_ID, headers.getCorrelationId());
-        	partitionHeadersMap.put(DpsHeaders.AUTHORIZATION, this.tokenService.getIdToken(this.headers.getPartitionId()));
+        	partitionHeadersMap.put(DpsHeaders.CONTENT_TYPE, contentType);
+        	partitionHeadersMap.put(DpsHeaders.CORRELATION_ID, correlationId);
+        	partitionHeadersMap.put(DpsHeaders.AUTHORIZATION, this.tokenService.getIdToken(partitionId));
     		DpsHeaders partitionHeaders = DpsHeaders.createFromMap(partitionHeadersMap);
     		
             IPartitionProvider serviceClient = this.factory.create(partitionHeaders);
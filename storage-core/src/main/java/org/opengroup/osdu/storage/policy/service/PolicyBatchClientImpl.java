@@ -0,0 +1,81 @@
+// Copyright © Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.policy.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.storage.policy.di.PolicyRestTemplateFactory;
+import org.opengroup.osdu.storage.policy.di.PolicyServiceConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+@Service
+@ConditionalOnProperty(value = "service.policy.enabled", havingValue = "true", matchIfMissing = false)
+public class PolicyBatchClientImpl implements IPolicyBatchClient {
+
+    private static final String EVALUATION_PATH = "/evaluations/query";
+
+    @Autowired
+    @Qualifier(PolicyRestTemplateFactory.BEAN_NAME)
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private PolicyServiceConfiguration policyServiceConfiguration;
+
+    @Autowired
+    private DpsHeaders headers;
+
+    @Override
+    public JsonObject evaluate(String policyId, JsonObject input) {
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+        httpHeaders.set(DpsHeaders.AUTHORIZATION, this.headers.getAuthorization());
+        httpHeaders.set(DpsHeaders.DATA_PARTITION_ID, this.headers.getPartitionId());
+        httpHeaders.set(DpsHeaders.CORRELATION_ID, this.headers.getCorrelationId());
+
+        JsonObject body = new JsonObject();
+        body.add("input", input);
+
+        String url = UriComponentsBuilder.fromHttpUrl(this.policyServiceConfiguration.getPolicyApiEndpoint())
+                .path(EVALUATION_PATH)
+                .queryParam("policy_id", policyId)
+                .toUriString();
+
+        String response;
+        try {
+            response = this.restTemplate.postForObject(url, new HttpEntity<>(body.toString(), httpHeaders), String.class);
+        } catch (RestClientException e) {
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Policy service unavailable", "Error making request to Policy service", e);
+        }
+
+        JsonElement result = response == null ? null : new JsonParser().parse(response).getAsJsonObject().get("result");
+        if (result == null || !result.isJsonObject()) {
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Policy service unavailable", "Unexpected response from Policy service");
+        }
+        return result.getAsJsonObject();
+    }
+}
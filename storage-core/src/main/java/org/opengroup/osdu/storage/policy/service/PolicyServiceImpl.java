@@ -15,7 +15,8 @@
 package org.opengroup.osdu.storage.policy.service;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonParser;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import org.apache.http.HttpStatus;
 import org.opengroup.osdu.core.common.model.entitlements.GroupInfo;
 import org.opengroup.osdu.core.common.model.http.AppException;
@@ -28,13 +29,17 @@ import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
 import org.opengroup.osdu.core.common.policy.IPolicyFactory;
 import org.opengroup.osdu.core.common.policy.IPolicyProvider;
 import org.opengroup.osdu.storage.policy.di.PolicyServiceConfiguration;
+import org.opengroup.osdu.storage.policy.model.StorageBatchPolicy;
 import org.opengroup.osdu.storage.policy.model.StoragePolicy;
 import org.opengroup.osdu.storage.service.IEntitlementsExtensionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -53,6 +58,11 @@ public class PolicyServiceImpl implements IPolicyService {
     @Autowired
     private IEntitlementsExtensionService entitlementsService;
 
+    @Autowired
+    private IPolicyBatchClient policyBatchClient;
+
+    private final Gson gson = new Gson();
+
     @Override
     public PolicyResponse evaluatePolicy(PolicyRequest policy) {
 
@@ -64,30 +74,78 @@ public class PolicyServiceImpl implements IPolicyService {
         }
     }
 
+    @Override
     public boolean evaluateStorageDataAuthorizationPolicy(RecordMetadata recordMetadata, OperationType operationType) {
-        PolicyResponse policyResponse = this.evaluatePolicy(this.getStoragePolicy(recordMetadata, operationType));
+        PolicyResponse policyResponse = this.evaluatePolicy(this.getStoragePolicy(recordMetadata, operationType, this.getGroups()));
         return policyResponse.getResult().isAllow();
     }
 
-    private PolicyRequest getStoragePolicy(RecordMetadata recordMetadata, OperationType operation) {
-        Record record = new Record();
-        record.setId(recordMetadata.getId());
-        record.setKind(recordMetadata.getKind());
-        record.setAcl(recordMetadata.getAcl());
-        record.setLegal(recordMetadata.getLegal());
+    @Override
+    public Map<String, Boolean> evaluateStorageDataAuthorizationPolicy(List<RecordMetadata> recordsMetadata, OperationType operationType) {
+        Map<String, Boolean> decisions = new HashMap<>();
+        if (recordsMetadata == null || recordsMetadata.isEmpty()) {
+            return decisions;
+        }
+
+        List<String> groups = this.getGroups();
+        String batchPolicyId = this.policyServiceConfiguration.getBatchPolicyId();
+
+        // no batch policy registered for the service: one evaluation per record, sharing the caller's groups
+        if (batchPolicyId == null || batchPolicyId.isEmpty()) {
+            for (RecordMetadata recordMetadata : recordsMetadata) {
+                PolicyResponse policyResponse = this.evaluatePolicy(this.getStoragePolicy(recordMetadata, operationType, groups));
+                decisions.put(recordMetadata.getId(), policyResponse.getResult().isAllow());
+            }
+            return decisions;
+        }
+
+        List<Record> records = new ArrayList<>(recordsMetadata.size());
+        for (RecordMetadata recordMetadata : recordsMetadata) {
+            records.add(this.toPolicyRecord(recordMetadata));
+            decisions.put(recordMetadata.getId(), false);
+        }
 
+        StorageBatchPolicy batchPolicy = new StorageBatchPolicy(operationType, groups, records);
+        JsonObject result = this.policyBatchClient.evaluate(batchPolicyId, this.gson.toJsonTree(batchPolicy).getAsJsonObject());
+
+        // records missing from the response stay denied
+        JsonElement decisionsElement = result.get("records");
+        if (decisionsElement != null && decisionsElement.isJsonArray()) {
+            for (JsonElement element : decisionsElement.getAsJsonArray()) {
+                JsonObject decision = element.getAsJsonObject();
+                if (!decision.has("id") || !decision.has("allow")) continue;
+
+                String id = decision.get("id").getAsString();
+                if (decisions.containsKey(id)) {
+                    decisions.put(id, decision.get("allow").getAsBoolean());
+                }
+            }
+        }
+        return decisions;
+    }
+
+    private PolicyRequest getStoragePolicy(RecordMetadata recordMetadata, OperationType operation, List<String> groups) {
         StoragePolicy storagePolicy = new StoragePolicy();
         storagePolicy.setOperation(operation);
-        storagePolicy.setGroups(this.getGroups());
-        storagePolicy.setRecord(record);
+        storagePolicy.setGroups(groups);
+        storagePolicy.setRecord(this.toPolicyRecord(recordMetadata));
 
         PolicyRequest policy = new PolicyRequest();
         policy.setPolicyId(this.policyServiceConfiguration.getPolicyId());
-        policy.setInput(new JsonParser().parse(new Gson().toJson(storagePolicy)).getAsJsonObject());
+        policy.setInput(this.gson.toJsonTree(storagePolicy).getAsJsonObject());
 
         return policy;
     }
 
+    private Record toPolicyRecord(RecordMetadata recordMetadata) {
+        Record record = new Record();
+        record.setId(recordMetadata.getId());
+        record.setKind(recordMetadata.getKind());
+        record.setAcl(recordMetadata.getAcl());
+        record.setLegal(recordMetadata.getLegal());
+        return record;
+    }
+
     private List<String> getGroups() {
         return this.entitlementsService.getGroups(this.headers)
                 .getGroups().stream().map(GroupInfo::getEmail).distinct().collect(Collectors.toList());
@@ -0,0 +1,26 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package org.opengroup.osdu.storage.provider.interfaces;
+
+/**
+ * Turns the cursors of the provider query repository into the cursors handed to clients by the query API and
+ * back. Without a provider codec the cursors are base64 encoded.
+ */
+public interface ICursorCodec {
+
+    String encodeCursor(String providerCursor);
+
+    // throws a bad request AppException for a cursor this codec did not issue
+    String decodeCursor(String cursor);
+}
@@ -20,11 +20,16 @@ import java.util.List;
 import java.util.Map;
 
 
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.legal.LegalCompliance;
 import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
 
 // <K> is a serializable (e.g a Cursor, com.google.cloud.datastore.Cursor in case of gcp implementation)
 public interface IRecordsMetadataRepository<K extends Serializable> {
+	String CREATE_TIME = "createTime";
+	String MODIFY_TIME = "modifyTime";
+
 	List<RecordMetadata> createOrUpdate(List<RecordMetadata> recordsMetadata);
 
 	void delete(String id);
@@ -37,4 +42,16 @@ public interface IRecordsMetadataRepository<K extends Serializable> {
 	AbstractMap.SimpleEntry<K, List<RecordMetadata>> queryByLegalTagName(String legalTagName, int limit, K cursor);
 
 	AbstractMap.SimpleEntry<K, List<RecordMetadata>> queryByLegal(String legalTagName, LegalCompliance status, int limit);
+
+	// continues from the cursor returned by a previous page, providers without cursor support start over
+	default AbstractMap.SimpleEntry<K, List<RecordMetadata>> queryByLegal(String legalTagName, LegalCompliance status, int limit, K cursor) {
+		return this.queryByLegal(legalTagName, status, limit);
+	}
+
+	// records whose timeField (CREATE_TIME or MODIFY_TIME) is after the given time, or equal to it with a greater id,
+	// ordered by that time then id; backs the change feed and needs an index on the time field and the id
+	default List<RecordMetadata> queryByTime(String timeField, long after, String afterId, int limit) {
+		throw new AppException(HttpStatus.SC_NOT_IMPLEMENTED, "Not implemented",
+				"The change feed is not available for this provider");
+	}
 }
\ No newline at end of file
@@ -14,6 +14,10 @@
 
 package org.opengroup.osdu.storage.provider.interfaces;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.opengroup.osdu.core.common.model.storage.Schema;
 
 public interface ISchemaRepository {
@@ -27,5 +31,17 @@ public interface ISchemaRepository {
 
 	Schema get(String kind);
 
+	// schemas found among the given kinds, keyed by kind; providers able to read them in one query override this
+	default Map<String, Schema> get(Collection<String> kinds) {
+		Map<String, Schema> schemas = new HashMap<>();
+		for (String kind : kinds) {
+			Schema schema = this.get(kind);
+			if (schema != null) {
+				schemas.put(kind, schema);
+			}
+		}
+		return schemas;
+	}
+
 	void delete(String kind);
 }
@@ -32,6 +32,7 @@ import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.crs.RecordsAndStatuses;
+import org.opengroup.osdu.core.common.model.indexer.OperationType;
 import org.opengroup.osdu.core.common.crs.CrsConverterClientFactory;
 import org.opengroup.osdu.core.common.model.storage.*;
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
@@ -74,6 +75,9 @@ public abstract class BatchServiceImpl implements BatchService {
     @Autowired
     private IEntitlementsAndCacheService entitlementsAndCacheService;
 
+    @Autowired
+    private DataAuthorizationService dataAuthorizationService;
+
     @Override
     public MultiRecordInfo getMultipleRecords(MultiRecordIds ids) {
 
@@ -245,7 +249,9 @@ public abstract class BatchServiceImpl implements BatchService {
             recordMetadataList.add(recordMetadata);
         }
 
-        List<RecordMetadata> passAclCheckRecordsMetadata = this.entitlementsAndCacheService.hasValidAccess(recordMetadataList, this.headers);
+        List<RecordMetadata> passAclCheckRecordsMetadata = this.dataAuthorizationService.policyEnabled()
+                ? this.dataAuthorizationService.validateViewerOrOwnerAccess(recordMetadataList, OperationType.view)
+                : this.entitlementsAndCacheService.hasValidAccess(recordMetadataList, this.headers);
         for (RecordMetadata metadata : passAclCheckRecordsMetadata) {
             String recordId = metadata.getId();
             String recordData = recordsPreAclMap.get(recordId);
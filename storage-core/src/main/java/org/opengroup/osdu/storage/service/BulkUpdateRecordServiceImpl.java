@@ -23,7 +23,6 @@ import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
 import org.opengroup.osdu.core.common.model.storage.RecordQuery;
 import org.opengroup.osdu.core.common.storage.IPersistenceService;
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
-import org.opengroup.osdu.storage.policy.service.IPolicyService;
 import org.opengroup.osdu.storage.provider.interfaces.IRecordsMetadataRepository;
 import org.opengroup.osdu.storage.response.BulkUpdateRecordsResponse;
 import org.opengroup.osdu.storage.util.api.RecordUtil;
@@ -69,9 +68,6 @@ public class BulkUpdateRecordServiceImpl implements BulkUpdateRecordService {
     @Autowired
     private DataAuthorizationService dataAuthorizationService;
 
-    @Autowired(required = false)
-    private IPolicyService policyService;
-
     @Override
     public BulkUpdateRecordsResponse bulkUpdateRecords(RecordBulkUpdateParam recordBulkUpdateParam, String user) {
         List<RecordMetadata> validRecordsMetadata = new ArrayList<>();
@@ -172,18 +168,22 @@ public class BulkUpdateRecordServiceImpl implements BulkUpdateRecordService {
 
     private List<String> validateUserAccessAndCompliancePolicyConstraints(
             List<PatchOperation> bulkUpdateOps, Map<String, String> idMap, Map<String, RecordMetadata> existingRecords, String user) {
-        List<String> unauthorizedRecordIds = new ArrayList<>();
         final long currentTimestamp = clock.millis();
+        List<RecordMetadata> updatedRecords = new ArrayList<>();
         for (String id : idMap.keySet()) {
-            String idWithVersion = idMap.get(id);
             RecordMetadata metadata = existingRecords.get(id);
 
             if (metadata == null) continue;
 
-            metadata = this.recordUtil.updateRecordMetaDataForPatchOperations(metadata, bulkUpdateOps, user, currentTimestamp);
+            updatedRecords.add(this.recordUtil.updateRecordMetaDataForPatchOperations(metadata, bulkUpdateOps, user, currentTimestamp));
+        }
 
-            if (!this.policyService.evaluateStorageDataAuthorizationPolicy(metadata, OperationType.update)) {
-                unauthorizedRecordIds.add(idWithVersion);
+        Map<String, Boolean> decisions = this.dataAuthorizationService.evaluatePolicy(updatedRecords, OperationType.update);
+
+        List<String> unauthorizedRecordIds = new ArrayList<>();
+        for (RecordMetadata metadata : updatedRecords) {
+            if (!Boolean.TRUE.equals(decisions.get(metadata.getId()))) {
+                unauthorizedRecordIds.add(idMap.get(metadata.getId()));
             }
         }
         return unauthorizedRecordIds;
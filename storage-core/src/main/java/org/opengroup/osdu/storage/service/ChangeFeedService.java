@@ -0,0 +1,156 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import com.google.common.base.Strings;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+import org.opengroup.osdu.storage.provider.interfaces.IRecordsMetadataRepository;
+import org.opengroup.osdu.storage.response.ChangeFeedResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Pollable feed of the records of the partition created or modified since a cursor, so that a consumer catching
+ * up after downtime reads the changes instead of whole kinds. The feed merges two scans of the metadata
+ * repository, one in creation time order and one in modification time order, and the cursor keeps the position,
+ * a time and a record id, reached in each. A record that was modified is only reported by the modification scan,
+ * with its latest metadata, so a consumer sees each change at least once and a record changed repeatedly may be
+ * reported once for several changes. Deleted records are reported with their deleted status, purged ones are not.
+ * Changes younger than changefeed.settle-ms are held back so that a write stamped before the cursor but committed
+ * after a poll is not skipped.
+ */
+@Service
+public class ChangeFeedService {
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private IRecordsMetadataRepository recordRepository;
+
+    @Autowired
+    private Clock clock;
+
+    @Value("${changefeed.settle-ms:10000}")
+    private long settleMillis = 10000;
+
+    /**
+     * Returns the changes after the cursor or, without one, the changes from the since time in epoch millis on.
+     */
+    public ChangeFeedResponse getChanges(String cursor, Long since, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageSize <= 0 || pageSize > MAX_LIMIT) {
+            throw new AppException(HttpStatus.SC_BAD_REQUEST, "Invalid limit",
+                    String.format("The limit must be between 1 and %d", MAX_LIMIT));
+        }
+
+        // the time fields of a record that never went through the change are 0, start past them
+        long start = Math.max(since == null ? 0 : since, 1);
+        Position position = Strings.isNullOrEmpty(cursor) ? new Position(start, "", start, "") : decode(cursor);
+
+        long horizon = this.clock.millis() - this.settleMillis;
+        List<RecordMetadata> created = settled(this.recordRepository.queryByTime(IRecordsMetadataRepository.CREATE_TIME,
+                position.getCreateTime(), position.getCreateId(), pageSize), true, horizon);
+        List<RecordMetadata> modified = settled(this.recordRepository.queryByTime(IRecordsMetadataRepository.MODIFY_TIME,
+                position.getModifyTime(), position.getModifyId(), pageSize), false, horizon);
+
+        List<RecordMetadata> records = new ArrayList<>();
+        int c = 0;
+        int m = 0;
+        while (c + m < pageSize && (c < created.size() || m < modified.size())) {
+            boolean takeCreated = m >= modified.size() || (c < created.size()
+                    && compare(created.get(c).getCreateTime(), created.get(c).getId(),
+                    modified.get(m).getModifyTime(), modified.get(m).getId()) <= 0);
+            if (takeCreated) {
+                RecordMetadata record = created.get(c++);
+                position.setCreateTime(record.getCreateTime());
+                position.setCreateId(record.getId());
+                // a modified record is reported by the modification scan
+                if (record.getModifyTime() == 0) {
+                    records.add(record);
+                }
+            } else {
+                RecordMetadata record = modified.get(m++);
+                position.setModifyTime(record.getModifyTime());
+                position.setModifyId(record.getId());
+                records.add(record);
+            }
+        }
+        return new ChangeFeedResponse(records, encode(position));
+    }
+
+    // the scans are in time order, everything from the first unsettled change on waits for a later poll
+    private static List<RecordMetadata> settled(List<RecordMetadata> records, boolean creation, long horizon) {
+        List<RecordMetadata> settled = new ArrayList<>();
+        if (records == null) {
+            return settled;
+        }
+        for (RecordMetadata record : records) {
+            if ((creation ? record.getCreateTime() : record.getModifyTime()) > horizon) {
+                break;
+            }
+            settled.add(record);
+        }
+        return settled;
+    }
+
+    private static int compare(long time, String id, long otherTime, String otherId) {
+        int byTime = Long.compare(time, otherTime);
+        return byTime != 0 ? byTime : id.compareTo(otherId);
+    }
+
+    static String encode(Position position) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(new Gson().toJson(position).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decode(String cursor) {
+        try {
+            Position position = new Gson().fromJson(
+                    new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), Position.class);
+            if (position == null || position.getCreateId() == null || position.getModifyId() == null) {
+                throw new IllegalArgumentException("Incomplete cursor");
+            }
+            return position;
+        } catch (IllegalArgumentException | JsonParseException e) {
+            throw new AppException(HttpStatus.SC_BAD_REQUEST, "Cursor invalid",
+                    "The requested cursor does not exist or is invalid", e);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Position {
+        private long createTime;
+        private String createId;
+        private long modifyTime;
+        private String modifyId;
+    }
+}
@@ -14,22 +14,35 @@
 
 package org.opengroup.osdu.storage.service;
 
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.indexer.OperationType;
 import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+import org.opengroup.osdu.storage.cache.AuthorizationDecisionCache;
 import org.opengroup.osdu.storage.policy.service.IPolicyService;
 import org.opengroup.osdu.storage.policy.service.PartitionPolicyStatusService;
 import org.opengroup.osdu.storage.provider.interfaces.ICloudStorage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 @Service
 public class DataAuthorizationService {
 
+    private static final String POLICY_PATH = "policy";
+    private static final String OWNER_PATH = "owner";
+    private static final String VIEWER_PATH = "viewer";
+    private static final String CALLER_DIGEST_ATTRIBUTE = DataAuthorizationService.class.getName() + ".callerDigest";
+
     @Autowired
     private DpsHeaders headers;
 
@@ -46,32 +59,156 @@ public class DataAuthorizationService {
     @Autowired
     private ICloudStorage cloudStorage;
 
+    @Autowired
+    private AuthorizationDecisionCache decisionCache;
+
     public boolean validateOwnerAccess(RecordMetadata recordMetadata, OperationType operationType) {
         if (this.policyEnabled()) {
-            return this.policyService.evaluateStorageDataAuthorizationPolicy(recordMetadata, operationType);
+            return this.cachedDecision(POLICY_PATH, recordMetadata, operationType,
+                    () -> this.policyService.evaluateStorageDataAuthorizationPolicy(recordMetadata, operationType));
         }
 
-        return this.entitlementsService.hasOwnerAccess(this.headers, recordMetadata.getAcl().getOwners());
+        return this.cachedDecision(OWNER_PATH, recordMetadata, operationType,
+                () -> this.entitlementsService.hasOwnerAccess(this.headers, recordMetadata.getAcl().getOwners()));
     }
 
     public boolean validateViewerOrOwnerAccess(RecordMetadata recordMetadata, OperationType operationType) {
         if (this.policyEnabled()) {
-            return this.policyService.evaluateStorageDataAuthorizationPolicy(recordMetadata, operationType);
+            return this.cachedDecision(POLICY_PATH, recordMetadata, operationType,
+                    () -> this.policyService.evaluateStorageDataAuthorizationPolicy(recordMetadata, operationType));
+        }
+
+        return this.cachedDecision(VIEWER_PATH, recordMetadata, operationType, () -> {
+            List<RecordMetadata> postAclCheck = this.entitlementsService.hasValidAccess(Collections.singletonList(recordMetadata), this.headers);
+            return postAclCheck != null && !postAclCheck.isEmpty();
+        });
+    }
+
+    /**
+     * Records of the batch the caller may view. With policy enabled the whole batch goes through
+     * {@link #evaluatePolicy(List, OperationType)} instead of one policy call per record.
+     */
+    public List<RecordMetadata> validateViewerOrOwnerAccess(List<RecordMetadata> recordsMetadata, OperationType operationType) {
+        if (!this.policyEnabled()) {
+            return this.entitlementsService.hasValidAccess(recordsMetadata, this.headers);
         }
 
-        List<RecordMetadata> postAclCheck = this.entitlementsService.hasValidAccess(Collections.singletonList(recordMetadata), this.headers);
-        return postAclCheck != null && !postAclCheck.isEmpty();
+        Map<String, Boolean> decisions = this.evaluatePolicy(recordsMetadata, operationType);
+        List<RecordMetadata> allowed = new ArrayList<>();
+        for (RecordMetadata recordMetadata : recordsMetadata) {
+            if (Boolean.TRUE.equals(decisions.get(recordMetadata.getId()))) {
+                allowed.add(recordMetadata);
+            }
+        }
+        return allowed;
     }
 
     public boolean hasAccess(RecordMetadata recordMetadata, OperationType operationType) {
         if (this.policyEnabled()) {
-            return this.policyService.evaluateStorageDataAuthorizationPolicy(recordMetadata, operationType);
+            return this.cachedDecision(POLICY_PATH, recordMetadata, operationType,
+                    () -> this.policyService.evaluateStorageDataAuthorizationPolicy(recordMetadata, operationType));
         }
 
+        // provider checks may look at the stored record itself, so their result is not shared across records
         return this.cloudStorage.hasAccess(recordMetadata);
     }
 
+    /**
+     * Policy decisions for a batch of records keyed by record id. Only one record per distinct ACL, legal and kind
+     * combination that is not cached yet is sent to the policy service.
+     */
+    public Map<String, Boolean> evaluatePolicy(List<RecordMetadata> recordsMetadata, OperationType operationType) {
+        Map<String, Boolean> decisions = new HashMap<>();
+        String callerDigest = this.callerDigest();
+
+        List<RecordMetadata> toEvaluate = new ArrayList<>();
+        Map<String, String> keyByEvaluatedId = new HashMap<>();
+        Map<String, List<String>> idsByKey = new HashMap<>();
+        for (RecordMetadata recordMetadata : recordsMetadata) {
+            if (callerDigest == null) {
+                toEvaluate.add(recordMetadata);
+                continue;
+            }
+
+            String key = this.decisionCache.decisionKey(callerDigest, POLICY_PATH, operationType, recordMetadata);
+            Boolean cached = this.decisionCache.get(key);
+            if (cached != null) {
+                decisions.put(recordMetadata.getId(), cached);
+            } else if (idsByKey.containsKey(key)) {
+                idsByKey.get(key).add(recordMetadata.getId());
+            } else {
+                idsByKey.put(key, new ArrayList<>(Collections.singletonList(recordMetadata.getId())));
+                keyByEvaluatedId.put(recordMetadata.getId(), key);
+                toEvaluate.add(recordMetadata);
+            }
+        }
+
+        if (toEvaluate.isEmpty()) {
+            return decisions;
+        }
+
+        Map<String, Boolean> evaluated = this.policyService.evaluateStorageDataAuthorizationPolicy(toEvaluate, operationType);
+        for (RecordMetadata recordMetadata : toEvaluate) {
+            boolean allowed = Boolean.TRUE.equals(evaluated.get(recordMetadata.getId()));
+            String key = keyByEvaluatedId.get(recordMetadata.getId());
+            if (key == null) {
+                decisions.put(recordMetadata.getId(), allowed);
+                continue;
+            }
+
+            this.decisionCache.put(key, allowed);
+            for (String id : idsByKey.get(key)) {
+                decisions.put(id, allowed);
+            }
+        }
+        return decisions;
+    }
+
     public boolean policyEnabled() {
         return this.policyService != null && this.statusService.policyEnabled(this.headers.getPartitionId());
     }
+
+    private boolean cachedDecision(String path, RecordMetadata recordMetadata, OperationType operationType, BooleanSupplier decision) {
+        String callerDigest = this.callerDigest();
+        if (callerDigest == null) {
+            return decision.getAsBoolean();
+        }
+
+        String key = this.decisionCache.decisionKey(callerDigest, path, operationType, recordMetadata);
+        Boolean cached = this.decisionCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        boolean allowed = decision.getAsBoolean();
+        this.decisionCache.put(key, allowed);
+        return allowed;
+    }
+
+    /**
+     * The caller's groups do not change within a request, so the digest is kept as a request attribute and computed
+     * once however many records the request checks. Outside a request it is computed on every call. The digest
+     * carries the partition's policy bundle version, so decisions made under an earlier bundle are not served.
+     */
+    private String callerDigest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object digest = attributes.getAttribute(CALLER_DIGEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (digest != null) {
+                return (String) digest;
+            }
+        }
+
+        Groups groups = this.entitlementsService.getGroups(this.headers);
+        if (groups == null || groups.getGroups() == null) {
+            return null;
+        }
+
+        String partitionId = this.headers.getPartitionId();
+        String digest = this.decisionCache.callerDigest(partitionId, this.statusService.bundleVersion(partitionId), groups);
+        if (attributes != null) {
+            attributes.setAttribute(CALLER_DIGEST_ATTRIBUTE, digest, RequestAttributes.SCOPE_REQUEST);
+        }
+        return digest;
+    }
 }
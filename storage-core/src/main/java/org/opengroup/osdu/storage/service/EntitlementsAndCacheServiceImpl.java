@@ -28,19 +28,31 @@ import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
 import org.opengroup.osdu.core.common.util.Crc32c;
+import org.opengroup.osdu.storage.cache.GroupsNearCache;
+import org.opengroup.osdu.storage.util.AclEvaluator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Service
 public class EntitlementsAndCacheServiceImpl implements IEntitlementsExtensionService {
 
     private static final String ERROR_REASON = "Access denied";
     private static final String ERROR_MSG = "The user is not authorized to perform this action";
+    private static final Logger LOGGER = LoggerFactory.getLogger(EntitlementsAndCacheServiceImpl.class);
+    private static final String GROUP_CACHE_KEY_ATTRIBUTE = EntitlementsAndCacheServiceImpl.class.getName() + ".groupCacheKey";
 
     @Autowired
     private IEntitlementsFactory factory;
@@ -48,6 +60,11 @@ public class EntitlementsAndCacheServiceImpl implements IEntitlementsExtensionSe
     @Autowired
     private ICache<String, Groups> cache;
 
+    @Autowired
+    private GroupsNearCache nearCache;
+
+    private final ConcurrentMap<String, CompletableFuture<Groups>> inFlightLoads = new ConcurrentHashMap<>();
+
     @Autowired
     private JaxRsDpsLog logger;
 
@@ -63,48 +80,33 @@ public class EntitlementsAndCacheServiceImpl implements IEntitlementsExtensionSe
 
     @Override
     public boolean isValidAcl(DpsHeaders headers, Set<String> acls) {
-        Groups groups = this.getGroups(headers);
-        if (groups.getGroups() == null || groups.getGroups().isEmpty()) {
+        AclEvaluator evaluator = this.getAclEvaluator(headers);
+        if (!evaluator.hasGroups()) {
             this.logger.error("Error on getting groups for user: " + headers.getUserEmail());
             throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Unknown error",
                     "Unknown error happened when validating ACL");
         }
-        String email = groups.getGroups().get(0).getEmail();
-        if (!email.matches("^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$")) {
-            this.logger.error("Email address is invalid for this group: " + groups.getGroups().get(0));
+        if (evaluator.getDomain() == null) {
+            this.logger.error("Email address is invalid for this group: " + this.getGroups(headers).getGroups().get(0));
             throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Unknown error",
                     "Unknown error happened when validating ACL");
         }
-        String domain = email.split("@")[1];
-        for (String acl : acls) {
-            if (!acl.split("@")[1].equalsIgnoreCase(domain)) {
-                return false;
-            }
-        }
-        return true;
+        return evaluator.isInDomain(acls);
     }
 
     @Override
     public boolean hasOwnerAccess(DpsHeaders headers, String[] ownerList) {
-        Groups groups = this.getGroups(headers);
-        Set<String> aclList = new HashSet<>();
-
-        for (String owner : ownerList) {
-            aclList.add(owner.split("@")[0]);
-        }
-
-        String[] acls = new String[aclList.size()];
-        return groups.any(aclList.toArray(acls));
+        return this.getAclEvaluator(headers).isMemberOfAny(ownerList);
     }
 
     @Override
     public List<RecordMetadata> hasValidAccess(List<RecordMetadata> recordsMetadata, DpsHeaders headers) {
-        Groups groups = this.getGroups(headers);
+        AclEvaluator evaluator = this.getAclEvaluator(headers);
         List<RecordMetadata> result = new ArrayList<>();
 
         for (RecordMetadata recordMetadata : recordsMetadata) {
             Acl storageAcl = recordMetadata.getAcl();
-            if (hasAccess(storageAcl, groups)) {
+            if (evaluator.hasViewerOrOwnerAccess(storageAcl)) {
                 result.add(recordMetadata);
             } else {
                 this.logger.warning("Post ACL check fails: " + recordMetadata.getId());
@@ -114,30 +116,49 @@ public class EntitlementsAndCacheServiceImpl implements IEntitlementsExtensionSe
         return result;
     }
 
-    private boolean hasAccess(Acl storageAcl, Groups groups) {
-        String[] viewers = storageAcl.getViewers();
-        String[] owners = storageAcl.getOwners();
-        Set<String> aclList = new HashSet<>();
-
-        for (String viewer : viewers) {
-            aclList.add(viewer.split("@")[0]);
-        }
-        for (String owner : owners) {
-            aclList.add(owner.split("@")[0]);
-        }
-
-        String[] acls = new String[aclList.size()];
-        if (groups.any(aclList.toArray(acls))) {
-            return true;
-        } else {
-            return false;
+    /**
+     * Returns the caller's groups compiled for ACL checks. The compiled form is kept with the near cache entry, so
+     * it is built once per group load rather than once per check.
+     */
+    protected AclEvaluator getAclEvaluator(DpsHeaders headers) {
+        Groups groups = this.getGroups(headers);
+        GroupsNearCache.Entry entry = this.nearCache.get(groupCacheKey(headers));
+        if (entry != null && entry.getGroups() == groups) {
+            return entry.getAclEvaluator();
         }
+        return AclEvaluator.compile(groups);
     }
 
     @Override
     public Groups getGroups(DpsHeaders headers) {
-        String cacheKey = this.getGroupCacheKey(headers);
+        String cacheKey = groupCacheKey(headers);
+
+        GroupsNearCache.Entry entry = this.nearCache.get(cacheKey);
+        if (entry != null) {
+            if (this.nearCache.isDueForRefresh(entry)) {
+                this.refreshAhead(cacheKey, headers, entry);
+            }
+            return entry.getGroups();
+        }
 
+        CompletableFuture<Groups> load = new CompletableFuture<>();
+        CompletableFuture<Groups> inFlight = this.inFlightLoads.putIfAbsent(cacheKey, load);
+        if (inFlight != null) {
+            return this.awaitLoad(inFlight);
+        }
+        try {
+            Groups groups = this.loadGroups(cacheKey, headers);
+            load.complete(groups);
+            return groups;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.inFlightLoads.remove(cacheKey, load);
+        }
+    }
+
+    private Groups loadGroups(String cacheKey, DpsHeaders headers) {
         Groups groups = null;
         try {
             groups = this.cache.get(cacheKey);
@@ -149,6 +170,7 @@ public class EntitlementsAndCacheServiceImpl implements IEntitlementsExtensionSe
             IEntitlementsService service = this.factory.create(headers);
             try {
                 groups = service.getGroups();
+                this.nearCache.put(cacheKey, groups);
                 this.cache.put(cacheKey, groups);
                 this.logger.debug("Entitlements cache miss");
 
@@ -159,13 +181,108 @@ public class EntitlementsAndCacheServiceImpl implements IEntitlementsExtensionSe
             } catch (RedisException ex) {
                 this.logger.error(String.format("Error putting key %s into redis: %s", cacheKey, ex.getMessage()), ex);
             }
+        } else {
+            this.nearCache.put(cacheKey, groups);
         }
         return groups;
     }
 
+    private Groups awaitLoad(CompletableFuture<Groups> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof EntitlementsException) {
+                EntitlementsException cause = (EntitlementsException) e.getCause();
+                throw new AppException(cause.getHttpResponse().getResponseCode(), ERROR_REASON, ERROR_MSG, cause);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reloads a near cache entry in the background while the current one keeps being served. The reload runs
+     * outside of the request, so it works on a copy of the headers and does not use the request scoped logger.
+     * It reads the shared cache unless the groups are due for a reload from entitlements, in which case the shared
+     * entry is renewed too.
+     */
+    private void refreshAhead(String cacheKey, DpsHeaders headers, GroupsNearCache.Entry entry) {
+        CompletableFuture<Groups> refresh = new CompletableFuture<>();
+        if (this.inFlightLoads.putIfAbsent(cacheKey, refresh) != null) {
+            return;
+        }
+        DpsHeaders refreshHeaders = DpsHeaders.createFromMap(headers.getHeaders());
+        boolean reloadShared = this.nearCache.isSharedEntryDueForRefresh(entry);
+        boolean submitted = this.nearCache.refreshInBackground(() -> {
+            try {
+                Groups groups = reloadShared ? null : this.cache.get(cacheKey);
+                if (groups == null) {
+                    groups = this.factory.create(refreshHeaders).getGroups();
+                    this.cache.put(cacheKey, groups);
+                    this.nearCache.put(cacheKey, groups);
+                } else {
+                    this.nearCache.put(cacheKey, groups, entry.getFetchedAt());
+                }
+                refresh.complete(groups);
+            } catch (Exception e) {
+                LOGGER.warn(String.format("Background refresh of entitlements groups failed: %s", e.getMessage()));
+                refresh.completeExceptionally(e);
+            } finally {
+                this.inFlightLoads.remove(cacheKey, refresh);
+            }
+        });
+        if (!submitted) {
+            this.inFlightLoads.remove(cacheKey, refresh);
+            refresh.complete(entry.getGroups());
+        }
+    }
+
     protected static String getGroupCacheKey(DpsHeaders headers) {
         String key = String.format("entitlement-groups:%s:%s", headers.getPartitionIdWithFallbackToAccountId(),
                 headers.getAuthorization());
         return Crc32c.hashToBase64EncodedString(key);
     }
+
+    /**
+     * The several group lookups made while serving one request hash the authorization token only once: the key is
+     * kept as a request attribute along with the partition and token it was computed from, and computed again should
+     * either change. Outside a request it is computed on every call.
+     */
+    private static String groupCacheKey(DpsHeaders headers) {
+        String partitionId = headers.getPartitionIdWithFallbackToAccountId();
+        String authorization = headers.getAuthorization();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object cached = attributes.getAttribute(GROUP_CACHE_KEY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (cached instanceof GroupCacheKey && ((GroupCacheKey) cached).matches(partitionId, authorization)) {
+                return ((GroupCacheKey) cached).key;
+            }
+        }
+
+        String key = getGroupCacheKey(headers);
+        if (attributes != null) {
+            attributes.setAttribute(GROUP_CACHE_KEY_ATTRIBUTE, new GroupCacheKey(partitionId, authorization, key),
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+        return key;
+    }
+
+    private static final class GroupCacheKey {
+
+        private final String partitionId;
+        private final String authorization;
+        private final String key;
+
+        private GroupCacheKey(String partitionId, String authorization, String key) {
+            this.partitionId = partitionId;
+            this.authorization = authorization;
+            this.key = key;
+        }
+
+        private boolean matches(String partitionId, String authorization) {
+            return Objects.equals(this.partitionId, partitionId) && Objects.equals(this.authorization, authorization);
+        }
+    }
 }
@@ -31,7 +31,6 @@ import org.opengroup.osdu.core.common.model.storage.validation.ValidationDoc;
 import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
 import org.opengroup.osdu.core.common.storage.*;
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
-import org.opengroup.osdu.storage.policy.service.IPolicyService;
 import org.opengroup.osdu.storage.provider.interfaces.ICloudStorage;
 import org.opengroup.osdu.storage.provider.interfaces.IRecordsMetadataRepository;
 import org.opengroup.osdu.storage.util.api.RecordUtil;
@@ -76,12 +75,12 @@ public class IngestionServiceImpl implements IngestionService {
 	@Autowired
 	private DataAuthorizationService dataAuthorizationService;
 
-	@Autowired(required = false)
-	private IPolicyService policyService;
-
 	@Autowired
 	private RecordUtil recordUtil;
 
+	@Autowired
+	private KindRegistry kindRegistry;
+
 	@Override
 	public TransferInfo createUpdateRecords(boolean skipDupes, List<Record> inputRecords, String user) {
 		this.validateKindFormat(inputRecords);
@@ -316,6 +315,7 @@ public class IngestionServiceImpl implements IngestionService {
 		if (!records.isEmpty()) {
 			this.persistenceService.persistRecordBatch(new TransferBatch(transferInfo, records));
 			this.auditLogger.createOrUpdateRecordsSuccess(this.extractRecordIds(records));
+			this.kindRegistry.addRecordKinds(this.extractKinds(records));
 		}
 	}
 
@@ -327,6 +327,14 @@ public class IngestionServiceImpl implements IngestionService {
 		return recordIds;
 	}
 
+	private Set<String> extractKinds(List<RecordProcessing> records) {
+		Set<String> kinds = new HashSet<>();
+		for (RecordProcessing processing : records) {
+			kinds.add(processing.getRecordMetadata().getKind());
+		}
+		return kinds;
+	}
+
 	private List<String> getRecordIds(List<Record> records, Map<String, List<RecordIdWithVersion>> recordParentMap) {
 		List<String> ids = new ArrayList<>();
 		for (Record record : records) {
@@ -386,19 +394,24 @@ public class IngestionServiceImpl implements IngestionService {
 	private void validateUserAccessAndCompliancePolicyConstraints(
 			List<Record> inputRecords, Map<String, RecordMetadata> existingRecords,  Map<String, List<RecordIdWithVersion>> recordParentMap) {
 		this.populateLegalInfoFromParents(inputRecords, existingRecords, recordParentMap);
+		List<RecordMetadata> recordsToCreate = new ArrayList<>();
+		List<RecordMetadata> recordsToUpdate = new ArrayList<>();
 		for (Record record : inputRecords) {
-			RecordMetadata recordMetadata;
-			OperationType operationType;
 			if (existingRecords.containsKey(record.getId())) {
-				recordMetadata = existingRecords.get(record.getId());
-				operationType = OperationType.update;
+				recordsToUpdate.add(existingRecords.get(record.getId()));
 			} else {
-				recordMetadata = new RecordMetadata(record);
-				operationType = OperationType.create;
+				recordsToCreate.add(new RecordMetadata(record));
 			}
-			if (!this.policyService.evaluateStorageDataAuthorizationPolicy(recordMetadata, operationType)) {
+		}
+		this.validatePolicyDecisions(this.dataAuthorizationService.evaluatePolicy(recordsToCreate, OperationType.create));
+		this.validatePolicyDecisions(this.dataAuthorizationService.evaluatePolicy(recordsToUpdate, OperationType.update));
+	}
+
+	private void validatePolicyDecisions(Map<String, Boolean> decisions) {
+		for (Map.Entry<String, Boolean> decision : decisions.entrySet()) {
+			if (!Boolean.TRUE.equals(decision.getValue())) {
 				throw new AppException(HttpStatus.SC_FORBIDDEN,
-						"User Unauthorized", "User is not authorized to create or update records.", String.format("User does not have required access to record %s", record.getId()));
+						"User Unauthorized", "User is not authorized to create or update records.", String.format("User does not have required access to record %s", decision.getKey()));
 			}
 		}
 	}
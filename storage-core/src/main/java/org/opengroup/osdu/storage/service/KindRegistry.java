@@ -0,0 +1,168 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.service;
+
+import com.google.common.base.Strings;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.storage.DatastoreQueryResult;
+import org.opengroup.osdu.storage.provider.interfaces.IQueryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Sorted kinds of each partition, loaded once from the {@link IQueryRepository} and then kept up to date as schemas
+ * are created and records of a new kind are written, so listing kinds pages through memory instead of scanning the
+ * store. The cursor of a page is the last kind it holds.
+ *
+ * Changes made on other instances are only seen once the entry expires; deleting a schema drops the entry of the
+ * partition since the kind may still be listed through its records. Entries are per partition, so providers whose
+ * repository lists different kinds per caller must turn the registry off with kind.registry.enabled=false.
+ */
+@Service
+public class KindRegistry {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    private IQueryRepository queryRepository;
+
+    @Autowired
+    private DpsHeaders headers;
+
+    @Autowired
+    private Clock clock;
+
+    @Value("${kind.registry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${kind.registry.ttl-seconds:900}")
+    private int ttlSeconds;
+
+    // whether the repository lists the kinds of records rather than the kinds of schemas
+    @Value("${kind.registry.record-kinds:false}")
+    private boolean recordKinds;
+
+    public DatastoreQueryResult getAllKinds(Integer limit, String cursor) {
+        if (!this.enabled) {
+            return this.queryRepository.getAllKinds(limit, cursor);
+        }
+
+        int numRecords = IQueryRepository.PAGE_SIZE;
+        if (limit != null) {
+            numRecords = limit > 0 ? limit : IQueryRepository.PAGE_SIZE;
+        }
+
+        NavigableSet<String> kinds = this.getKinds(this.headers.getPartitionId());
+        Iterator<String> iterator = Strings.isNullOrEmpty(cursor) ?
+                kinds.iterator() : kinds.tailSet(cursor, false).iterator();
+
+        List<String> page = new ArrayList<>();
+        while (iterator.hasNext() && page.size() < numRecords) {
+            page.add(iterator.next());
+        }
+        String nextCursor = iterator.hasNext() ? page.get(page.size() - 1) : null;
+        return new DatastoreQueryResult(nextCursor, page);
+    }
+
+    public void addSchemaKind(String kind) {
+        if (this.recordKinds) {
+            return;
+        }
+        Entry entry = this.entries.get(this.headers.getPartitionId());
+        if (entry != null) {
+            entry.kinds.add(kind);
+        }
+    }
+
+    public void addRecordKinds(Collection<String> kinds) {
+        if (!this.recordKinds) {
+            return;
+        }
+        Entry entry = this.entries.get(this.headers.getPartitionId());
+        if (entry != null) {
+            entry.kinds.addAll(kinds);
+        }
+    }
+
+    public void invalidate() {
+        this.entries.remove(this.headers.getPartitionId());
+    }
+
+    /**
+     * The scan runs outside of the map so other partitions are not blocked behind it. Concurrent loads of the same
+     * partition may both scan, the first one published wins.
+     */
+    private NavigableSet<String> getKinds(String partitionId) {
+        Entry current = this.entries.get(partitionId);
+        if (current != null && !this.isExpired(current)) {
+            return current.kinds;
+        }
+
+        Entry loaded = this.load();
+        boolean published = current == null ?
+                this.entries.putIfAbsent(partitionId, loaded) == null : this.entries.replace(partitionId, current, loaded);
+        if (!published) {
+            Entry winner = this.entries.get(partitionId);
+            if (winner != null && !this.isExpired(winner)) {
+                return winner.kinds;
+            }
+        }
+        return loaded.kinds;
+    }
+
+    private Entry load() {
+        NavigableSet<String> kinds = new ConcurrentSkipListSet<>();
+        String cursor = null;
+        while (true) {
+            DatastoreQueryResult result = this.queryRepository.getAllKinds(null, cursor);
+            if (result.getResults() == null || result.getResults().isEmpty()) {
+                break;
+            }
+            kinds.addAll(result.getResults());
+            String nextCursor = result.getCursor();
+            if (Strings.isNullOrEmpty(nextCursor) || nextCursor.equals(cursor)) {
+                break;
+            }
+            cursor = nextCursor;
+        }
+        return new Entry(kinds, this.clock.millis());
+    }
+
+    private boolean isExpired(Entry entry) {
+        return this.clock.millis() - entry.loadedAt >= this.ttlSeconds * 1000L;
+    }
+
+    private static final class Entry {
+
+        private final NavigableSet<String> kinds;
+        private final long loadedAt;
+
+        private Entry(NavigableSet<String> kinds, long loadedAt) {
+            this.kinds = kinds;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -30,45 +30,86 @@ import org.opengroup.osdu.core.common.model.legal.LegalTagProperties;
 import org.opengroup.osdu.core.common.model.storage.Record;
 import org.opengroup.osdu.core.common.model.storage.RecordIdWithVersion;
 import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+import org.opengroup.osdu.core.common.provider.interfaces.ITenantFactory;
+import org.opengroup.osdu.core.common.util.IServiceAccountJwtClient;
+import org.opengroup.osdu.storage.cache.LegalCountryCodesCache;
+import org.opengroup.osdu.storage.cache.LegalTagNearCache;
+import org.opengroup.osdu.storage.jobs.DetachedRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class LegalServiceImpl implements ILegalService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(LegalServiceImpl.class);
+
     protected static final String LEGAL_PROPERTIES_KEY = "@legal-properties";
     protected static final String DEFAULT_DATA_COUNTRY = "US";
-    public static Map<String, String> validCountryCodes;
+    private static final String RELOAD_COUNTRY_CODES_PATH = "/legal/country-codes/reload";
     @Autowired
     private DpsHeaders headers;
     @Autowired
     @Qualifier("LegalTagCache")
     private ICache<String, String> cache;
     @Autowired
+    private LegalTagNearCache nearCache;
+    @Autowired
+    private LegalCountryCodesCache countryCodesCache;
+    @Autowired
     private ILegalFactory factory;
     @Autowired
+    private IServiceAccountJwtClient jwtClient;
+    @Autowired(required = false)
+    private ITenantFactory tenantFactory;
+    @Autowired
     private JaxRsDpsLog log;
 
     @Override
     public void validateLegalTags(Set<String> legaltags) {
+        String partitionId = this.headers.getPartitionId();
+
+        Set<String> unknownLegalTags = new HashSet<>();
+        for (String legalTagName : legaltags) {
+            Boolean valid = this.nearCache.get(partitionId, legalTagName);
+            if (Boolean.FALSE.equals(valid)) {
+                throw this.invalidLegalTagException(legalTagName);
+            }
+            if (valid == null) {
+                unknownLegalTags.add(legalTagName);
+            }
+        }
 
-        if (this.isInCache(legaltags)) {
+        Set<String> uncachedLegalTags = this.getNotInCache(partitionId, unknownLegalTags);
+        if (uncachedLegalTags.isEmpty()) {
             return;
         }
 
-        InvalidTagWithReason[] invalidLegalTags = this.getInvalidLegalTags(legaltags);
+        InvalidTagWithReason[] invalidLegalTags = this.getInvalidLegalTags(uncachedLegalTags);
 
-        if (invalidLegalTags.length > 0) {
-            throw new AppException(HttpStatus.SC_BAD_REQUEST, "Invalid legal tags",
-                    String.format("Invalid legal tags: %s", invalidLegalTags[0].getName()));
+        for (InvalidTagWithReason invalidLegalTag : invalidLegalTags) {
+            uncachedLegalTags.remove(invalidLegalTag.getName());
+            this.nearCache.putInvalid(partitionId, invalidLegalTag.getName());
         }
+        this.addToCache(partitionId, uncachedLegalTags);
 
-        this.addToCache(legaltags);
+        if (invalidLegalTags.length > 0) {
+            throw this.invalidLegalTagException(invalidLegalTags[0].getName());
+        }
     }
 
     @Override
@@ -116,18 +157,77 @@ public class LegalServiceImpl implements ILegalService {
     }
 
     public Map<String, String> getValidCountryCodes() {
-        if (validCountryCodes == null) {
+        String partitionId = this.headers.getPartitionId();
+
+        Map<String, String> countryCodes = this.countryCodesCache.get(partitionId);
+        if (countryCodes == null) {
+            countryCodes = this.loadValidCountryCodes(this.headers);
+            this.countryCodesCache.put(partitionId, countryCodes);
+            return countryCodes;
+        }
+
+        if (this.countryCodesCache.isDueForRefresh(partitionId)) {
+            CompletableFuture.runAsync(() -> this.reloadValidCountryCodes(partitionId));
+        }
+        return countryCodes;
+    }
+
+    /**
+     * Loads the country codes of every known partition once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadValidCountryCodes() {
+        if (this.tenantFactory == null) return;
+
+        CompletableFuture.runAsync(() -> {
             try {
-                ILegalProvider legalService = this.factory.create(this.headers);
-                LegalTagProperties legalTagProperties = legalService.getLegalTagProperties();
-                return validCountryCodes = legalTagProperties.getOtherRelevantDataCountries();
-            } catch (LegalException e) {
-                throw new AppException(e.getHttpResponse().getResponseCode(), "Error getting legal tag properties",
-                        "An unexpected error occurred when getting legal tag properties", e);
+                for (TenantInfo tenantInfo : this.tenantFactory.listTenantInfo()) {
+                    this.reloadValidCountryCodes(tenantInfo.getDataPartitionId());
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Preloading legal country codes failed", e);
             }
+        });
+    }
+
+    /**
+     * Runs off the request thread, inside a detached request so the request scoped service account client can issue
+     * the token for the partition.
+     */
+    private void reloadValidCountryCodes(String partitionId) {
+        if (!this.countryCodesCache.beginRefresh(partitionId)) return;
+
+        try {
+            Map<String, String> requestHeaders = new HashMap<>();
+            requestHeaders.put(DpsHeaders.DATA_PARTITION_ID, partitionId);
+            requestHeaders.put(DpsHeaders.CORRELATION_ID, UUID.randomUUID().toString());
+            Map<String, String> countryCodes = DetachedRequest.call(requestHeaders, RELOAD_COUNTRY_CODES_PATH,
+                    () -> this.loadValidCountryCodes(this.getServiceHeaders(requestHeaders)));
+            this.countryCodesCache.put(partitionId, countryCodes);
+        } catch (Exception e) {
+            LOGGER.warn(String.format("Refreshing legal country codes failed for data partition: %s", partitionId), e);
+        } finally {
+            this.countryCodesCache.endRefresh(partitionId);
+        }
+    }
+
+    private Map<String, String> loadValidCountryCodes(DpsHeaders dpsHeaders) {
+        try {
+            ILegalProvider legalService = this.factory.create(dpsHeaders);
+            LegalTagProperties legalTagProperties = legalService.getLegalTagProperties();
+            return legalTagProperties.getOtherRelevantDataCountries();
+        } catch (LegalException e) {
+            throw new AppException(e.getHttpResponse().getResponseCode(), "Error getting legal tag properties",
+                    "An unexpected error occurred when getting legal tag properties", e);
         }
+    }
 
-        return validCountryCodes;
+    // background loads run outside of any caller's request, they authenticate as the service
+    private DpsHeaders getServiceHeaders(Map<String, String> requestHeaders) {
+        Map<String, String> headersMap = new HashMap<>(requestHeaders);
+        headersMap.put(DpsHeaders.AUTHORIZATION, this.jwtClient.getIdToken(requestHeaders.get(DpsHeaders.DATA_PARTITION_ID)));
+        headersMap.put(DpsHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        return DpsHeaders.createFromMap(headersMap);
     }
 
     @Override
@@ -143,28 +243,41 @@ public class LegalServiceImpl implements ILegalService {
         }
     }
 
-    private boolean isInCache(Set<String> legalTagNames) {
-        String currentLegalTagName = null;
-        try {
-            for (String legalTagName : legalTagNames) {
-                String legalTag = null;
-                currentLegalTagName = legalTagName;
-                legalTag = this.cache.get(legalTagName);
-                if (legalTag == null) {
-                    return false;
+    private AppException invalidLegalTagException(String legalTagName) {
+        return new AppException(HttpStatus.SC_BAD_REQUEST, "Invalid legal tags",
+                String.format("Invalid legal tags: %s", legalTagName));
+    }
+
+    private Set<String> getNotInCache(String partitionId, Set<String> legalTagNames) {
+        Set<String> notInCache = new HashSet<>();
+        boolean cacheAvailable = true;
+        for (String legalTagName : legalTagNames) {
+            String legalTag = null;
+            if (cacheAvailable) {
+                try {
+                    legalTag = this.cache.get(legalTagName);
+                } catch (RedisException ex) {
+                    // do not wait on the cache for the remaining tags, they are validated by the legal service
+                    cacheAvailable = false;
+                    this.log.error(String.format("Error getting key %s from redis: %s", legalTagName, ex.getMessage()), ex);
                 }
             }
-        } catch (RedisException ex) {
-            this.log.error(String.format("Error getting key %s from redis: %s", currentLegalTagName, ex.getMessage()), ex);
+
+            if (legalTag == null) {
+                notInCache.add(legalTagName);
+            } else {
+                this.nearCache.putValid(partitionId, legalTagName);
+            }
         }
-        return true;
+        return notInCache;
     }
 
-    private void addToCache(Set<String> legalTagNames) {
+    private void addToCache(String partitionId, Set<String> legalTagNames) {
         String currentLegalTagName = null;
         try {
             for (String legalTagName : legalTagNames) {
                 currentLegalTagName = legalTagName;
+                this.nearCache.putValid(partitionId, legalTagName);
                 this.cache.put(legalTagName, "Valid LegalTag");
             }
         } catch (RedisException ex) {
@@ -27,6 +27,7 @@ import org.opengroup.osdu.core.common.model.storage.SchemaItem;
 import org.opengroup.osdu.core.common.model.storage.validation.ValidationDoc;
 import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
 import org.opengroup.osdu.core.common.util.Crc32c;
+import org.opengroup.osdu.storage.cache.SchemaNearCache;
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
 import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
 import org.opengroup.osdu.storage.provider.interfaces.ISchemaRepository;
@@ -34,9 +35,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 import static java.util.Collections.singletonList;
@@ -73,6 +79,12 @@ public class SchemaServiceImpl implements SchemaService {
     @Autowired
     private ICache<String, Schema> cache;
 
+    @Autowired
+    private SchemaNearCache nearCache;
+
+    @Autowired
+    private KindRegistry kindRegistry;
+
     @Autowired
     private TenantInfo tenant;
 
@@ -88,7 +100,7 @@ public class SchemaServiceImpl implements SchemaService {
     @Override
     public void createSchema(Schema inputSchema) {
         this.validateKindFromTenant(inputSchema.getKind());
-        this.validateCircularReference(inputSchema, null);
+        this.validateCircularReference(inputSchema, null, this.fetchReferencedSchemas(inputSchema));
 
         Schema schema = this.validateSchema(inputSchema);
 
@@ -96,7 +108,9 @@ public class SchemaServiceImpl implements SchemaService {
 
             this.schemaRepository.add(schema, headers.getUserEmail());
             this.auditLogger.createSchemaSuccess(singletonList(inputSchema.getKind()));
+            this.kindRegistry.addSchemaKind(inputSchema.getKind());
 
+            this.nearCache.put(this.getSchemaCacheKey(inputSchema.getKind()), schema);
             this.cache.put(this.getSchemaCacheKey(inputSchema.getKind()), schema);
             this.pubSubClient.publishMessage(this.headers,
                     new PubSubInfo(null, inputSchema.getKind(), OperationType.create_schema));
@@ -128,7 +142,9 @@ public class SchemaServiceImpl implements SchemaService {
 
         this.schemaRepository.delete(kind);
         this.auditLogger.deleteSchemaSuccess(singletonList(schema.getKind()));
+        this.kindRegistry.invalidate();
 
+        this.nearCache.delete(this.getSchemaCacheKey(kind));
         this.cache.delete(this.getSchemaCacheKey(kind));
         this.pubSubClient.publishMessage(this.headers,
                 new PubSubInfo(null, schema.getKind(), OperationType.purge_schema));
@@ -198,35 +214,106 @@ public class SchemaServiceImpl implements SchemaService {
     }
 
     private Schema fetchSchema(String kind) {
+        return this.fetchSchemas(singletonList(kind)).get(kind);
+    }
 
-        String key = this.getSchemaCacheKey(kind);
-        Schema cachedSchema = null;
-        try {
-            cachedSchema = this.cache.get(key);
-        } catch (RedisException ex) {
-            this.log.error(String.format("Error getting key %s from redis: %s", key, ex.getMessage()), ex);
+    /**
+     * Looks the kinds up in the in-process tier, then in the shared cache, and reads the remaining ones from the
+     * repository in one batch. The shared cache is skipped for the rest of the lookup after its first failure.
+     */
+    private Map<String, Schema> fetchSchemas(Collection<String> kinds) {
+        Map<String, Schema> schemas = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        boolean cacheAvailable = true;
+
+        for (String kind : kinds) {
+            String key = this.getSchemaCacheKey(kind);
+            Schema schema = this.nearCache.get(key);
+            if (schema == null && cacheAvailable) {
+                try {
+                    schema = this.cache.get(key);
+                } catch (RedisException ex) {
+                    this.log.error(String.format("Error getting key %s from redis: %s", key, ex.getMessage()), ex);
+                    cacheAvailable = false;
+                }
+                if (schema != null) {
+                    this.nearCache.put(key, schema);
+                }
+            }
+
+            if (schema == null) {
+                missing.add(kind);
+            } else {
+                schemas.put(kind, schema);
+            }
         }
 
-        if (cachedSchema == null) {
-            Schema schema = this.schemaRepository.get(kind);
-            this.auditLogger.readSchemaSuccess(singletonList(kind));
+        if (missing.isEmpty()) {
+            return schemas;
+        }
 
-            if (schema == null) {
-                return null;
+        Map<String, Schema> stored;
+        if (missing.size() == 1) {
+            Schema schema = this.schemaRepository.get(missing.get(0));
+            stored = new HashMap<>();
+            if (schema != null) {
+                stored.put(missing.get(0), schema);
             }
-            try {
-                this.cache.put(key, schema);
-            } catch (RedisException ex) {
-                this.log.error(String.format("Error putting key %s into redis: %s", key, ex.getMessage()), ex);
+        } else {
+            stored = this.schemaRepository.get(missing);
+        }
+        this.auditLogger.readSchemaSuccess(missing);
+
+        for (Map.Entry<String, Schema> entry : stored.entrySet()) {
+            String key = this.getSchemaCacheKey(entry.getKey());
+            this.nearCache.put(key, entry.getValue());
+            if (cacheAvailable) {
+                try {
+                    this.cache.put(key, entry.getValue());
+                } catch (RedisException ex) {
+                    this.log.error(String.format("Error putting key %s into redis: %s", key, ex.getMessage()), ex);
+                    cacheAvailable = false;
+                }
             }
+            schemas.put(entry.getKey(), entry.getValue());
+        }
+        return schemas;
+    }
 
-            return schema;
-        } else {
-            return cachedSchema;
+    /**
+     * Fetches every schema reachable from the schema through its items, one batched lookup per level of nesting.
+     */
+    private Map<String, Schema> fetchReferencedSchemas(Schema schema) {
+        Map<String, Schema> referencedSchemas = new HashMap<>();
+        Set<String> visited = new HashSet<>();
+        visited.add(schema.getKind());
+
+        Set<String> level = this.getReferencedKinds(schema, visited);
+        while (!level.isEmpty()) {
+            Map<String, Schema> fetched = this.fetchSchemas(level);
+            referencedSchemas.putAll(fetched);
+
+            Set<String> nextLevel = new LinkedHashSet<>();
+            for (Schema innerSchema : fetched.values()) {
+                nextLevel.addAll(this.getReferencedKinds(innerSchema, visited));
+            }
+            level = nextLevel;
+        }
+        return referencedSchemas;
+    }
+
+    private Set<String> getReferencedKinds(Schema schema, Set<String> visited) {
+        Set<String> kinds = new LinkedHashSet<>();
+        for (SchemaItem item : schema.getSchema()) {
+            String itemKind = item.getKind().replace("[", "").replace("]", "");
+            if (itemKind.contains(":") && visited.add(itemKind)) {
+                kinds.add(itemKind);
+            }
         }
+        return kinds;
     }
 
-    private void validateCircularReference(Schema schema, List<String> schemaList) {
+    private void validateCircularReference(Schema schema, List<String> schemaList, Map<String, Schema> referencedSchemas) {
 
         String kind = schema.getKind();
 
@@ -245,10 +332,10 @@ public class SchemaServiceImpl implements SchemaService {
             }
             // Recursively check if the kind points to another schema.
             if (itemKind.contains(":")) {
-                Schema innerSchema = this.fetchSchema(itemKind);
+                Schema innerSchema = referencedSchemas.get(itemKind);
                 if (innerSchema != null) {
                     schemaList.add(itemKind);
-                    this.validateCircularReference(innerSchema, schemaList);
+                    this.validateCircularReference(innerSchema, schemaList, referencedSchemas);
                 }
             }
         }
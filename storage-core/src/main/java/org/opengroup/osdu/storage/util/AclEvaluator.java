@@ -0,0 +1,125 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.opengroup.osdu.core.common.model.entitlements.Acl;
+import org.opengroup.osdu.core.common.model.entitlements.GroupInfo;
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
+
+/**
+ * Caller's groups compiled into a hashed set of lower-cased group names, so that ACL checks are set lookups.
+ * ACL addresses are read in place with indexOf and regionMatches rather than split, so checking a record allocates
+ * at most the group name being looked up.
+ */
+public final class AclEvaluator {
+
+    private static final Pattern GROUP_EMAIL = Pattern.compile("^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$");
+
+    private final Set<String> groupNames;
+    private final String domain;
+    private final boolean hasGroups;
+
+    private AclEvaluator(Set<String> groupNames, String domain, boolean hasGroups) {
+        this.groupNames = groupNames;
+        this.domain = domain;
+        this.hasGroups = hasGroups;
+    }
+
+    public static AclEvaluator compile(Groups groups) {
+        Set<String> groupNames = new HashSet<>();
+        String domain = null;
+        boolean hasGroups = groups != null && groups.getGroups() != null && !groups.getGroups().isEmpty();
+        if (hasGroups) {
+            for (GroupInfo group : groups.getGroups()) {
+                if (group.getName() != null) {
+                    groupNames.add(group.getName().toLowerCase(Locale.ROOT));
+                }
+            }
+            String email = groups.getGroups().get(0).getEmail();
+            if (email != null && GROUP_EMAIL.matcher(email).matches()) {
+                domain = email.substring(email.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+            }
+        }
+        return new AclEvaluator(groupNames, domain, hasGroups);
+    }
+
+    public boolean hasGroups() {
+        return this.hasGroups;
+    }
+
+    /**
+     * Domain of the caller's first group, or null when that group email is not a valid address.
+     */
+    public String getDomain() {
+        return this.domain;
+    }
+
+    public boolean hasViewerOrOwnerAccess(Acl acl) {
+        return this.isMemberOfAny(acl.getViewers()) || this.isMemberOfAny(acl.getOwners());
+    }
+
+    public boolean isMemberOfAny(String[] aclAddresses) {
+        if (aclAddresses == null) {
+            return false;
+        }
+        for (String address : aclAddresses) {
+            if (this.groupNames.contains(groupName(address))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isMemberOfAny(Collection<String> aclAddresses) {
+        for (String address : aclAddresses) {
+            if (this.groupNames.contains(groupName(address))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True when every address belongs to the caller's domain. Always false when the caller's domain is unknown.
+     */
+    public boolean isInDomain(Collection<String> aclAddresses) {
+        if (this.domain == null) {
+            return false;
+        }
+        for (String address : aclAddresses) {
+            if (!this.isDomainOf(address)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isDomainOf(String address) {
+        int at = address.lastIndexOf('@');
+        return at >= 0 && address.length() - at - 1 == this.domain.length()
+                && address.regionMatches(true, at + 1, this.domain, 0, this.domain.length());
+    }
+
+    private static String groupName(String address) {
+        int at = address.indexOf('@');
+        return (at < 0 ? address : address.substring(0, at)).toLowerCase(Locale.ROOT);
+    }
+}
@@ -15,6 +15,7 @@
 package org.opengroup.osdu.storage.api;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Method;
@@ -37,6 +38,7 @@ import org.opengroup.osdu.core.common.model.storage.StorageRole;
 import org.opengroup.osdu.core.common.model.storage.DatastoreQueryResult;
 import org.opengroup.osdu.core.common.model.storage.*;
 import org.opengroup.osdu.storage.di.SchemaEndpointsConfig;
+import org.opengroup.osdu.storage.provider.interfaces.ICursorCodec;
 import org.opengroup.osdu.storage.service.BatchService;
 import org.opengroup.osdu.storage.util.EncodeDecode;
 import org.springframework.http.ResponseEntity;
@@ -164,6 +166,21 @@ public class QueryApiTest {
         assertTrue(allRecordIds.getResults().contains("id3"));
     }
 
+    @Test
+    public void should_useProviderCursorCodec_when_oneIsConfigured() {
+        ICursorCodec cursorCodec = mock(ICursorCodec.class);
+        ReflectionTestUtils.setField(this.sut, "cursorCodec", cursorCodec);
+        when(cursorCodec.decodeCursor("signed cursor")).thenReturn("continuation");
+        when(cursorCodec.encodeCursor("next continuation")).thenReturn("next signed cursor");
+
+        DatastoreQueryResult allRecords = new DatastoreQueryResult("next continuation", Lists.newArrayList("id1"));
+        when(this.batchService.getAllRecords("continuation", "any kind", 10)).thenReturn(allRecords);
+
+        ResponseEntity response = this.sut.getAllRecords("signed cursor", 10, "any kind");
+
+        assertEquals("next signed cursor", ((DatastoreQueryResult) response.getBody()).getCursor());
+    }
+
     @Test
     public void should_allowAccessToGetRecords_when_userBelongsToViewerCreatorOrAdminGroups() throws Exception {
 
@@ -31,12 +31,14 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.crs.CrsConverterFactory;
 import org.opengroup.osdu.core.common.crs.CrsConverterService;
 import org.opengroup.osdu.core.common.http.HttpResponse;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.time.Clock;
 import java.util.*;
 
 import static org.mockito.Matchers.any;
@@ -69,6 +71,9 @@ public class CrsConversionServiceTest {
     @Mock
     private SpringConfig springConfig;
 
+    @Spy
+    private CrsConverterBulkhead crsConverterBulkhead = new CrsConverterBulkhead(16, 500, 5, 30000, Clock.systemUTC());
+
     private List<JsonObject> originalRecords = new ArrayList<>();
     private List<ConversionStatus.ConversionStatusBuilder> conversionStatuses = new ArrayList<>();
     private List<Point> convertedPoints = new ArrayList<>();
@@ -400,5 +405,26 @@ public class CrsConversionServiceTest {
         String converted = String.format(CONVERTED_RECORD_9, TO_CRS);
         Assert.assertTrue(crsResult.getRecords().get(0).toString().equalsIgnoreCase(converted));
     }
-}
 
+    @Test
+    public void should_returnOriginalRecordAndUnavailableStatus_whenCrsConverterCircuitIsOpen() throws Exception {
+        this.originalRecords.add(this.jsonParser.parse(RECORD_13).getAsJsonObject());
+        this.conversionStatuses.add(ConversionStatus.builder().id("unit-test-13").status(ConvertStatus.SUCCESS.toString()));
+        FakeCrsConverterService fakeConverter = new FakeCrsConverterService();
+        fakeConverter.setFailureRate(1.0);
+        when(this.crsConverterFactory.create(any())).thenReturn(fakeConverter);
+        for (int i = 0; i < 5; i++) {
+            try {
+                this.crsConverterBulkhead.execute(() -> fakeConverter.convertPoints(null));
+            } catch (CrsConverterException expected) {
+            }
+        }
+
+        RecordsAndStatuses crsResult = this.sut.doCrsConversion(this.originalRecords, this.conversionStatuses);
+        Assert.assertEquals(1, crsResult.getRecords().size());
+        Assert.assertEquals(1, crsResult.getConversionStatuses().size());
+        String message = String.format(CrsConversionService.CONVERTER_UNAVAILABLE, CrsConverterBulkhead.CIRCUIT_OPEN);
+        Assert.assertTrue(crsResult.getConversionStatuses().get(0).getErrors().contains(message));
+        Assert.assertEquals(5, fakeConverter.getCallCount());
+    }
+}
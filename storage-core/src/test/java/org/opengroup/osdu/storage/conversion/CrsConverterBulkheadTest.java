@@ -0,0 +1,156 @@
+// Copyright 2017-2019, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.conversion;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpStatus;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsRequest;
+import org.opengroup.osdu.core.common.model.crs.CrsConverterException;
+import org.opengroup.osdu.storage.exception.CrsConverterUnavailableException;
+
+public class CrsConverterBulkheadTest {
+
+    private final ConvertPointsRequest request = new ConvertPointsRequest("reference", "to", new ArrayList<>());
+
+    @Test
+    public void should_openCircuit_afterConsecutiveFailures() throws Exception {
+        FakeCrsConverterService converter = new FakeCrsConverterService();
+        converter.setFailureRate(1.0);
+        CrsConverterBulkhead sut = new CrsConverterBulkhead(4, 100, 3, 30000, Clock.systemUTC());
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                sut.execute(() -> converter.convertPoints(this.request));
+                Assert.fail("expected converter failure");
+            } catch (CrsConverterException e) {
+                Assert.assertEquals(HttpStatus.SC_SERVICE_UNAVAILABLE, e.getHttpResponse().getResponseCode());
+            }
+        }
+
+        try {
+            sut.execute(() -> converter.convertPoints(this.request));
+            Assert.fail("expected open circuit");
+        } catch (CrsConverterUnavailableException e) {
+            Assert.assertEquals(CrsConverterBulkhead.CIRCUIT_OPEN, e.getMessage());
+        }
+        Assert.assertTrue(sut.isOpen());
+        Assert.assertEquals(3, converter.getCallCount());
+    }
+
+    @Test
+    public void should_notCountBadRequests_asConverterFailures() throws Exception {
+        FakeCrsConverterService converter = new FakeCrsConverterService();
+        converter.setFailureRate(1.0);
+        converter.setFailureStatusCode(HttpStatus.SC_BAD_REQUEST);
+        CrsConverterBulkhead sut = new CrsConverterBulkhead(4, 100, 2, 30000, Clock.systemUTC());
+
+        for (int i = 0; i < 5; i++) {
+            try {
+                sut.execute(() -> converter.convertPoints(this.request));
+            } catch (CrsConverterException expected) {
+            }
+        }
+        Assert.assertFalse(sut.isOpen());
+        Assert.assertEquals(5, converter.getCallCount());
+    }
+
+    @Test
+    public void should_closeCircuit_whenTrialCallSucceedsAfterOpenPeriod() throws Exception {
+        FakeCrsConverterService converter = new FakeCrsConverterService();
+        converter.setFailureRate(1.0);
+        MutableClock clock = new MutableClock();
+        CrsConverterBulkhead sut = new CrsConverterBulkhead(4, 100, 1, 1000, clock);
+
+        try {
+            sut.execute(() -> converter.convertPoints(this.request));
+        } catch (CrsConverterException expected) {
+        }
+        Assert.assertTrue(sut.isOpen());
+
+        clock.advance(1001);
+        converter.setFailureRate(0.0);
+        Assert.assertNotNull(sut.execute(() -> converter.convertPoints(this.request)));
+        Assert.assertFalse(sut.isOpen());
+        Assert.assertNotNull(sut.execute(() -> converter.convertPoints(this.request)));
+    }
+
+    @Test
+    public void should_rejectCalls_whenBulkheadIsFull() throws Exception {
+        FakeCrsConverterService converter = new FakeCrsConverterService();
+        converter.setLatencyMillis(500);
+        CrsConverterBulkhead sut = new CrsConverterBulkhead(2, 10, 5, 30000, Clock.systemUTC());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch started = new CountDownLatch(2);
+        List<Future<?>> inFlight = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2; i++) {
+                inFlight.add(executor.submit(() -> sut.execute(() -> {
+                    started.countDown();
+                    return converter.convertPoints(this.request);
+                })));
+            }
+            Assert.assertTrue(started.await(1, TimeUnit.SECONDS));
+
+            try {
+                sut.execute(() -> converter.convertPoints(this.request));
+                Assert.fail("expected full bulkhead");
+            } catch (CrsConverterUnavailableException e) {
+                Assert.assertEquals(CrsConverterBulkhead.BULKHEAD_FULL, e.getMessage());
+            }
+            for (Future<?> future : inFlight) {
+                future.get(2, TimeUnit.SECONDS);
+            }
+            Assert.assertFalse(sut.isOpen());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private long millis = System.currentTimeMillis();
+
+        void advance(long delta) {
+            this.millis += delta;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(this.millis);
+        }
+    }
+}
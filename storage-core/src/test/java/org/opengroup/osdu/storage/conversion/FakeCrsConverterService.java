@@ -0,0 +1,80 @@
+// Copyright 2017-2019, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.conversion;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.crs.ICrsConverterService;
+import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.model.crs.ConvertGeoJsonRequest;
+import org.opengroup.osdu.core.common.model.crs.ConvertGeoJsonResponse;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsRequest;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsResponse;
+import org.opengroup.osdu.core.common.model.crs.CrsConverterException;
+
+import lombok.Setter;
+
+/**
+ * In-process stand-in for the CRS converter with configurable latency and error rate. Points are returned unchanged.
+ */
+@Setter
+public class FakeCrsConverterService implements ICrsConverterService {
+
+    private long latencyMillis;
+    private double failureRate;
+    private int failureStatusCode = HttpStatus.SC_SERVICE_UNAVAILABLE;
+
+    private final AtomicInteger callCount = new AtomicInteger();
+    private final Random random = new Random(0);
+
+    public int getCallCount() {
+        return this.callCount.get();
+    }
+
+    @Override
+    public ConvertPointsResponse convertPoints(ConvertPointsRequest request) throws CrsConverterException {
+        this.simulateRemoteCall();
+        ConvertPointsResponse response = new ConvertPointsResponse();
+        response.setPoints(request.getPoints() == null ? new ArrayList<>() : new ArrayList<>(request.getPoints()));
+        return response;
+    }
+
+    @Override
+    public ConvertGeoJsonResponse convertGeoJson(ConvertGeoJsonRequest request) throws CrsConverterException {
+        this.simulateRemoteCall();
+        ConvertGeoJsonResponse response = new ConvertGeoJsonResponse();
+        response.setFeatureCollection(request.getFeatureCollection());
+        return response;
+    }
+
+    private void simulateRemoteCall() throws CrsConverterException {
+        this.callCount.incrementAndGet();
+        if (this.latencyMillis > 0) {
+            try {
+                Thread.sleep(this.latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (this.failureRate > 0 && this.random.nextDouble() < this.failureRate) {
+            HttpResponse response = new HttpResponse();
+            response.setResponseCode(this.failureStatusCode);
+            throw new CrsConverterException("fake crs converter failure", response);
+        }
+    }
+}
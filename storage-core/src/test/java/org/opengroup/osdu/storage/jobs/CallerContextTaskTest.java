@@ -0,0 +1,75 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.jobs;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CallerContextTaskTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void should_runWithCallerRequestAttributes() throws Exception {
+        RequestAttributes requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+
+        CallerContextTask<RequestAttributes> task = CallerContextTask.submit(this.executor, null,
+                RequestContextHolder::getRequestAttributes);
+
+        assertSame(requestAttributes, task.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_returnFromCancel_onlyOnceTaskStoppedRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean stopped = new AtomicBoolean();
+        CallerContextTask<Void> task = CallerContextTask.submit(this.executor, null, () -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                // still busy for a moment after the interrupt, e.g. releasing a connection
+                Thread.sleep(100);
+                stopped.set(true);
+            }
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        task.cancelAndAwait();
+
+        assertTrue(stopped.get());
+    }
+}
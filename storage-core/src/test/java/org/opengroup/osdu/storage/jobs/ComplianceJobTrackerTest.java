@@ -0,0 +1,126 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.jobs;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.legal.LegalCompliance;
+import org.opengroup.osdu.storage.provider.interfaces.IComplianceJobStore;
+
+import java.time.Clock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ComplianceJobTrackerTest {
+
+    private static final String PARTITION = "opendes";
+    private static final String TAG = "opendes-tag";
+
+    @Mock
+    private IComplianceJobStore store;
+
+    @Mock
+    private Clock clock;
+
+    @InjectMocks
+    private ComplianceJobTracker sut;
+
+    @Before
+    public void setup() {
+        when(this.clock.millis()).thenReturn(1000L);
+    }
+
+    @Test
+    public void should_resumeFromCursor_when_stoppedJobTargetsSameStatus() {
+        ComplianceJobCheckpoint stopped = ComplianceJobCheckpoint.builder()
+                .partitionId(PARTITION)
+                .legalTagName(TAG)
+                .targetStatus(LegalCompliance.incompliant)
+                .state(ComplianceJobState.STOPPED)
+                .cursor("cursor-2")
+                .recordsUpdated(1000)
+                .pagesProcessed(2)
+                .startedAt(10)
+                .build();
+        when(this.store.get(PARTITION, TAG)).thenReturn(stopped);
+
+        ComplianceJobCheckpoint checkpoint = this.sut.start(PARTITION, TAG, LegalCompliance.incompliant);
+
+        assertSame(stopped, checkpoint);
+        assertEquals(ComplianceJobState.RUNNING, checkpoint.getState());
+        assertEquals("cursor-2", checkpoint.getCursor());
+        assertEquals(10, checkpoint.getStartedAt());
+        verify(this.store).save(stopped);
+    }
+
+    @Test
+    public void should_startOver_when_previousJobTargetedAnotherStatus() {
+        ComplianceJobCheckpoint stopped = ComplianceJobCheckpoint.builder()
+                .partitionId(PARTITION)
+                .legalTagName(TAG)
+                .targetStatus(LegalCompliance.incompliant)
+                .state(ComplianceJobState.STOPPED)
+                .cursor("cursor-2")
+                .build();
+        when(this.store.get(PARTITION, TAG)).thenReturn(stopped);
+
+        ComplianceJobCheckpoint checkpoint = this.sut.start(PARTITION, TAG, LegalCompliance.compliant);
+
+        assertNull(checkpoint.getCursor());
+        assertEquals(LegalCompliance.compliant, checkpoint.getTargetStatus());
+        assertEquals(1000L, checkpoint.getStartedAt());
+        assertEquals(0, checkpoint.getPagesProcessed());
+    }
+
+    @Test
+    public void should_accumulateProgressAndClearCursor_when_jobCompletes() {
+        ComplianceJobCheckpoint checkpoint = this.sut.start(PARTITION, TAG, LegalCompliance.incompliant);
+
+        this.sut.checkpoint(checkpoint, "cursor-1", 500);
+        this.sut.checkpoint(checkpoint, "cursor-2", 200);
+        assertEquals("cursor-2", checkpoint.getCursor());
+
+        this.sut.complete(checkpoint);
+
+        assertEquals(700, checkpoint.getRecordsUpdated());
+        assertEquals(2, checkpoint.getPagesProcessed());
+        assertEquals(ComplianceJobState.COMPLETED, checkpoint.getState());
+        assertNull(checkpoint.getCursor());
+        verify(this.store, times(4)).save(any(ComplianceJobCheckpoint.class));
+    }
+
+    @Test
+    public void should_return404_when_jobNotFound() {
+        try {
+            this.sut.getJob(PARTITION, TAG);
+            fail("Should not succeed");
+        } catch (AppException e) {
+            assertEquals(404, e.getError().getCode());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.jobs;
+
+import org.junit.After;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.legal.jobs.ComplianceUpdateStoppedException;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChanged;
+import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ComplianceUpdatePipelineTest {
+
+    private final ComplianceUpdatePipeline sut = new ComplianceUpdatePipeline(2);
+
+    @After
+    public void tearDown() {
+        this.sut.shutdown();
+    }
+
+    @Test
+    public void should_queryNextPage_while_currentPageIsUpdated() throws Exception {
+        CountDownLatch secondPageQueried = new CountDownLatch(1);
+        List<String> updatedPages = Collections.synchronizedList(new ArrayList<>());
+
+        this.sut.<String>forEachPage(cursor -> {
+            if (cursor == null) {
+                return new AbstractMap.SimpleEntry<>("c1", page("r1"));
+            }
+            secondPageQueried.countDown();
+            return new AbstractMap.SimpleEntry<>(null, page("r2"));
+        }, null, true, (records, nextCursor) -> {
+            if ("c1".equals(nextCursor)) {
+                try {
+                    assertTrue(secondPageQueried.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    fail("interrupted");
+                }
+            }
+            updatedPages.add(records.get(0).getId());
+        });
+
+        assertEquals(Arrays.asList("r1", "r2"), updatedPages);
+    }
+
+    @Test
+    public void should_queryNextPageAfterUpdate_when_prefetchDisabled() throws Exception {
+        List<String> calls = new ArrayList<>();
+        int[] remaining = {2};
+
+        this.sut.<String>forEachPage(cursor -> {
+            calls.add("query");
+            return new AbstractMap.SimpleEntry<>("cursor", remaining[0]-- > 0 ? page("r") : Collections.<RecordMetadata>emptyList());
+        }, null, false, (records, nextCursor) -> calls.add("update"));
+
+        assertEquals(Arrays.asList("query", "update", "query", "update", "query"), calls);
+    }
+
+    @Test
+    public void should_waitForCancelledPrefetch_before_reportingFailure() {
+        CountDownLatch prefetchStarted = new CountDownLatch(1);
+        AtomicBoolean prefetchRunning = new AtomicBoolean();
+
+        try {
+            this.sut.<String>forEachPage(cursor -> {
+                if (cursor == null) {
+                    return new AbstractMap.SimpleEntry<>("c1", page("r1"));
+                }
+                prefetchRunning.set(true);
+                prefetchStarted.countDown();
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    // still using the request for a moment after the interrupt
+                    long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+                    while (System.nanoTime() < until) {
+                        Thread.yield();
+                    }
+                } finally {
+                    prefetchRunning.set(false);
+                }
+                return null;
+            }, null, true, (records, nextCursor) -> {
+                try {
+                    assertTrue(prefetchStarted.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    fail("interrupted");
+                }
+                throw new IllegalStateException("store down");
+            });
+            fail("Should not succeed");
+        } catch (IllegalStateException | ComplianceUpdateStoppedException e) {
+            assertFalse(prefetchRunning.get());
+        }
+    }
+
+    @Test
+    public void should_updateTagsInParallel_and_reportStop_afterAllTagsDone() {
+        CyclicBarrier bothRunning = new CyclicBarrier(2);
+        Set<String> done = ConcurrentHashMap.newKeySet();
+
+        try {
+            this.sut.forEachTag(Arrays.asList(tag("tag1"), tag("tag2")), legalTag -> {
+                try {
+                    bothRunning.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    fail("tags were not updated in parallel");
+                }
+                done.add(legalTag.getChangedTagName());
+                if ("tag1".equals(legalTag.getChangedTagName())) {
+                    throw new ComplianceUpdateStoppedException(115);
+                }
+            });
+            fail("Should not succeed");
+        } catch (ComplianceUpdateStoppedException e) {
+            assertEquals(2, done.size());
+        }
+    }
+
+    private static List<RecordMetadata> page(String id) {
+        RecordMetadata record = new RecordMetadata();
+        record.setId(id);
+        return Collections.singletonList(record);
+    }
+
+    private static LegalTagChanged tag(String name) {
+        LegalTagChanged legalTag = new LegalTagChanged();
+        legalTag.setChangedTagName(name);
+        legalTag.setChangedTagStatus("incompliant");
+        return legalTag;
+    }
+}
@@ -0,0 +1,250 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.jobs;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.indexer.OperationType;
+import org.opengroup.osdu.core.common.model.storage.DatastoreQueryResult;
+import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
+import org.opengroup.osdu.core.common.util.IServiceAccountJwtClient;
+import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
+import org.opengroup.osdu.storage.provider.interfaces.IQueryRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReplayJobServiceTest {
+
+    private static final String PARTITION = "opendes";
+    private static final String KIND = "opendes:wks:doc:1.0.0";
+
+    @Mock
+    private IQueryRepository queryRepository;
+
+    @Mock
+    private IServiceAccountJwtClient serviceAccountJwtClient;
+
+    @Mock
+    private DpsHeaders headers;
+
+    private final RecordingMessageBus messageBus = new RecordingMessageBus();
+
+    private ReplayJobService sut;
+
+    @Before
+    public void setup() {
+        this.sut = new ReplayJobService(1);
+        ReflectionTestUtils.setField(this.sut, "queryRepository", this.queryRepository);
+        ReflectionTestUtils.setField(this.sut, "messageBus", this.messageBus);
+        ReflectionTestUtils.setField(this.sut, "serviceAccountJwtClient", this.serviceAccountJwtClient);
+        ReflectionTestUtils.setField(this.sut, "headers", this.headers);
+        ReflectionTestUtils.setField(this.sut, "clock", Clock.systemUTC());
+        when(this.serviceAccountJwtClient.getIdToken(PARTITION)).thenReturn("Bearer token");
+    }
+
+    @After
+    public void tearDown() {
+        this.sut.shutdown();
+    }
+
+    @Test
+    public void should_publishUpdateForEveryRecord_pageByPage() throws Exception {
+        when(this.queryRepository.getAllRecordIdsFromKind(KIND, 500, null)).thenReturn(page("cursor-1", "opendes:doc:1", "opendes:doc:2"));
+        when(this.queryRepository.getAllRecordIdsFromKind(KIND, 500, "cursor-1")).thenReturn(page(null, "opendes:doc:3"));
+
+        ReplayJob job = this.awaitState(this.sut.start(PARTITION, KIND, 1000), ReplayJobState.COMPLETED);
+
+        assertEquals(3, job.getRecordsPublished());
+        assertEquals(2, job.getPagesProcessed());
+        assertNull(job.getCursor());
+        assertEquals(2, this.messageBus.published.size());
+        PubSubInfo[] first = this.messageBus.published.get(0);
+        assertEquals("opendes:doc:2", first[1].getId());
+        assertEquals(KIND, first[1].getKind());
+        assertEquals(OperationType.update, first[1].getOp());
+        verify(this.headers, times(2)).put(DpsHeaders.AUTHORIZATION, "Bearer token");
+    }
+
+    @Test
+    public void should_stopAtCheckpoint_when_paused_and_resumeFromIt() throws Exception {
+        ReflectionTestUtils.setField(this.sut, "pageSize", 10);
+        when(this.queryRepository.getAllRecordIdsFromKind(KIND, 10, null)).thenAnswer(invocation -> {
+            this.sut.pause(PARTITION, this.sut.getJobs(PARTITION).get(0).getId());
+            return page("cursor-1", "opendes:doc:1");
+        });
+        when(this.queryRepository.getAllRecordIdsFromKind(KIND, 10, "cursor-1")).thenReturn(page(null, "opendes:doc:2"));
+
+        ReplayJob started = this.sut.start(PARTITION, KIND, 1000);
+        ReplayJob paused = this.awaitState(started, ReplayJobState.PAUSED);
+        assertEquals("cursor-1", paused.getCursor());
+        assertEquals(1, paused.getRecordsPublished());
+
+        this.sut.resume(PARTITION, started.getId());
+        ReplayJob completed = this.awaitState(started, ReplayJobState.COMPLETED);
+
+        assertEquals(2, completed.getRecordsPublished());
+        assertEquals("opendes:doc:2", this.messageBus.published.get(1)[0].getId());
+    }
+
+    @Test
+    public void should_keepPause_when_itLandsWhileWorkerCheckpoints() throws Exception {
+        ReflectionTestUtils.setField(this.sut, "store", new ReplayJobService.InMemoryReplayJobStore() {
+            private boolean paused;
+
+            @Override
+            public boolean update(ReplayJob job) {
+                // the pause is saved after the worker read the job for its checkpoint
+                if (!this.paused && "cursor-1".equals(job.getCursor())) {
+                    this.paused = true;
+                    ReplayJobServiceTest.this.sut.pause(PARTITION, job.getId());
+                }
+                return super.update(job);
+            }
+        });
+        when(this.queryRepository.getAllRecordIdsFromKind(KIND, 500, null)).thenReturn(page("cursor-1", "opendes:doc:1"));
+
+        ReplayJob started = this.sut.start(PARTITION, KIND, 1000);
+        ReplayJob paused = this.awaitState(started, ReplayJobState.PAUSED);
+        // the pause is seen before the worker saves its checkpoint over it
+        for (int i = 0; i < 200 && paused.getPagesProcessed() == 0; i++) {
+            Thread.sleep(10);
+            paused = this.sut.getJob(PARTITION, started.getId());
+        }
+
+        assertEquals(ReplayJobState.PAUSED, paused.getState());
+        assertEquals("cursor-1", paused.getCursor());
+        assertEquals(1, paused.getRecordsPublished());
+        assertEquals(1, paused.getPagesProcessed());
+        verify(this.queryRepository, never()).getAllRecordIdsFromKind(KIND, 500, "cursor-1");
+    }
+
+    @Test
+    public void should_resumeRunningJob_when_itsWorkerStoppedRenewingItsClaim() throws Exception {
+        ReplayJobService.InMemoryReplayJobStore store = new ReplayJobService.InMemoryReplayJobStore();
+        ReflectionTestUtils.setField(this.sut, "store", store);
+        // left running by an instance that went away a while ago
+        store.create(runningJob("job-1", "other-instance", System.currentTimeMillis() - 61000));
+        when(this.queryRepository.getAllRecordIdsFromKind(KIND, 500, "cursor-1")).thenReturn(page(null, "opendes:doc:2"));
+
+        ReplayJob resumed = this.sut.resume(PARTITION, "job-1");
+        try {
+            this.sut.resume(PARTITION, "job-1");
+            fail("Should not succeed");
+        } catch (AppException e) {
+            assertEquals(409, e.getError().getCode());
+        }
+
+        ReplayJob completed = this.awaitState(resumed, ReplayJobState.COMPLETED);
+        assertEquals(1, completed.getRecordsPublished());
+        assertEquals("opendes:doc:2", this.messageBus.published.get(0)[0].getId());
+    }
+
+    @Test
+    public void should_leaveJob_when_anotherWorkerHoldsIt() {
+        ReplayJobService.InMemoryReplayJobStore store = new ReplayJobService.InMemoryReplayJobStore();
+        ReflectionTestUtils.setField(this.sut, "store", store);
+        store.create(runningJob("job-1", "other-instance", System.currentTimeMillis()));
+
+        this.sut.run(PARTITION, "job-1");
+
+        ReplayJob job = this.sut.getJob(PARTITION, "job-1");
+        assertEquals("other-instance", job.getOwner());
+        assertEquals(0, job.getVersion());
+        verify(this.queryRepository, never()).getAllRecordIdsFromKind(anyString(), anyInt(), anyString());
+        try {
+            this.sut.resume(PARTITION, "job-1");
+            fail("Should not succeed");
+        } catch (AppException e) {
+            assertEquals(409, e.getError().getCode());
+        }
+    }
+
+    @Test
+    public void should_rejectRateAboveMaximum() {
+        try {
+            this.sut.start(PARTITION, KIND, 5001);
+            fail("Should not succeed");
+        } catch (AppException e) {
+            assertEquals(400, e.getError().getCode());
+        }
+    }
+
+    @Test
+    public void should_returnNotFound_when_jobDoesNotExist() {
+        try {
+            this.sut.getJob(PARTITION, "missing");
+            fail("Should not succeed");
+        } catch (AppException e) {
+            assertEquals(404, e.getError().getCode());
+        }
+    }
+
+    private ReplayJob awaitState(ReplayJob job, ReplayJobState state) throws InterruptedException {
+        ReplayJob current = this.sut.getJob(PARTITION, job.getId());
+        for (int i = 0; i < 200 && current.getState() != state; i++) {
+            Thread.sleep(10);
+            current = this.sut.getJob(PARTITION, job.getId());
+        }
+        assertEquals(state, current.getState());
+        return current;
+    }
+
+    private static ReplayJob runningJob(String id, String owner, long heartbeatAt) {
+        return ReplayJob.builder()
+                .id(id)
+                .partitionId(PARTITION)
+                .kind(KIND)
+                .state(ReplayJobState.RUNNING)
+                .cursor("cursor-1")
+                .ratePerSecond(1000)
+                .owner(owner)
+                .heartbeatAt(heartbeatAt)
+                .build();
+    }
+
+    private static DatastoreQueryResult page(String cursor, String... ids) {
+        return new DatastoreQueryResult(cursor, Arrays.asList(ids));
+    }
+
+    private static class RecordingMessageBus implements IMessageBus {
+        private final List<PubSubInfo[]> published = new ArrayList<>();
+
+        @Override
+        public void publishMessage(DpsHeaders headers, PubSubInfo... messages) {
+            this.published.add(messages);
+        }
+    }
+}
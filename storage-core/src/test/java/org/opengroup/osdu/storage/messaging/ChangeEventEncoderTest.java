@@ -0,0 +1,110 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.messaging;
+
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.indexer.OperationType;
+import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ChangeEventEncoderTest {
+
+    private final ChangeEventEncoder sut = new ChangeEventEncoder();
+
+    @Test
+    public void should_roundTripCompactEncoding_groupingRunsOfKind() {
+        ReflectionTestUtils.setField(this.sut, "compact", true);
+        PubSubInfo[] messages = this.messages(500);
+
+        String payload = this.sut.encodeToString(messages);
+        PubSubInfo[] decoded = ChangeEventEncoder.decodeString(this.sut.getEncoding(), payload);
+
+        assertEquals(ChangeEventEncoder.COMPACT_V1_GZIP, this.sut.getEncoding());
+        assertEquals(500, decoded.length);
+        assertEquals("opendes:wks:doc:1.0.0", decoded[0].getKind());
+        assertEquals("opendes:doc:0", decoded[0].getId());
+        assertEquals("opendes:wks:log:1.0.0", decoded[250].getKind());
+        assertEquals(OperationType.create, decoded[499].getOp());
+        assertTrue(payload.length() * 3 < new ChangeEventEncoder().encodeToString(messages).length());
+    }
+
+    @Test
+    public void should_keepOrderOfNotifications_when_recordRepeats() {
+        ReflectionTestUtils.setField(this.sut, "compact", true);
+        String kind = "opendes:wks:doc:1.0.0";
+        PubSubInfo[] messages = {
+                new PubSubInfo("opendes:doc:x", kind, OperationType.create),
+                new PubSubInfo("opendes:doc:y", kind, OperationType.create),
+                new PubSubInfo("opendes:doc:x", kind, OperationType.delete),
+                new PubSubInfo("opendes:doc:x", kind, OperationType.create)};
+
+        PubSubInfo[] decoded = ChangeEventEncoder.decode(this.sut.getEncoding(), this.sut.encode(messages));
+
+        assertEquals(messages.length, decoded.length);
+        for (int i = 0; i < messages.length; i++) {
+            assertEquals(messages[i].getId(), decoded[i].getId());
+            assertEquals(messages[i].getKind(), decoded[i].getKind());
+            assertEquals(messages[i].getOp(), decoded[i].getOp());
+        }
+    }
+
+    @Test
+    public void should_readUncompressedCompactEncoding_andSchemaNotifications() {
+        ReflectionTestUtils.setField(this.sut, "compact", true);
+        ReflectionTestUtils.setField(this.sut, "compress", false);
+        PubSubInfo[] messages = {new PubSubInfo(null, "opendes:wks:doc:1.0.0", OperationType.create_schema)};
+
+        PubSubInfo[] decoded = ChangeEventEncoder.decode(ChangeEventEncoder.COMPACT_V1, this.sut.encode(messages));
+
+        assertEquals(1, decoded.length);
+        assertNull(decoded[0].getId());
+        assertEquals(OperationType.create_schema, decoded[0].getOp());
+    }
+
+    @Test
+    public void should_readJsonEncoding_when_encodingIsMissing() {
+        PubSubInfo[] decoded = ChangeEventEncoder.decodeString(null, this.sut.encodeToString(this.messages(3)));
+
+        assertEquals(ChangeEventEncoder.JSON, this.sut.getEncoding());
+        assertEquals(50, this.sut.getBatchSize());
+        assertEquals(3, decoded.length);
+        assertEquals("opendes:doc:2", decoded[2].getId());
+    }
+
+    @Test
+    public void should_rejectUnknownEncoding() {
+        try {
+            ChangeEventEncoder.decode("avro", new byte[0]);
+            fail("Should not succeed");
+        } catch (AppException e) {
+            assertEquals(400, e.getError().getCode());
+        }
+    }
+
+    private PubSubInfo[] messages(int count) {
+        PubSubInfo[] messages = new PubSubInfo[count];
+        for (int i = 0; i < count; i++) {
+            String kind = i < count / 2 ? "opendes:wks:doc:1.0.0" : "opendes:wks:log:1.0.0";
+            messages[i] = new PubSubInfo("opendes:doc:" + i, kind, OperationType.create);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,143 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.messaging;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.indexer.OperationType;
+import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CoalescingPublisherTest {
+
+    private static final String KIND = "opendes:wks:doc:1.0.0";
+
+    @Mock
+    private ObjectProvider<OutboxMessageBus> messageBusProvider;
+
+    @InjectMocks
+    private CoalescingPublisher sut;
+
+    private final RecordingMessageBus messageBus = new RecordingMessageBus();
+
+    private DpsHeaders headers;
+
+    @Before
+    public void setup() {
+        Map<String, String> headerMap = new HashMap<>();
+        headerMap.put(DpsHeaders.DATA_PARTITION_ID, "opendes");
+        this.headers = DpsHeaders.createFromMap(headerMap);
+        ReflectionTestUtils.setField(this.sut, "messageBus", this.messageBusProvider);
+        ReflectionTestUtils.setField(this.sut, "maxPending", 100);
+        when(this.messageBusProvider.getObject()).thenReturn(this.messageBus);
+    }
+
+    @Test
+    public void should_publishLatestStatePerRecord_keepingCreations() {
+        this.sut.add(this.headers, message("opendes:doc:1", OperationType.create), message("opendes:doc:2", OperationType.create));
+        this.sut.add(this.headers, message("opendes:doc:1", OperationType.update));
+        this.sut.add(this.headers, message("opendes:doc:2", OperationType.update), message("opendes:doc:2", OperationType.delete));
+        assertTrue(this.messageBus.published.isEmpty());
+
+        this.sut.flush();
+
+        assertEquals(1, this.messageBus.published.size());
+        PubSubInfo[] published = this.messageBus.published.get(0);
+        assertEquals(2, published.length);
+        assertEquals("opendes:doc:1", published[0].getId());
+        assertEquals(OperationType.create, published[0].getOp());
+        assertEquals("opendes:doc:2", published[1].getId());
+        assertEquals(OperationType.delete, published[1].getOp());
+    }
+
+    @Test
+    public void should_publishSchemaChanges_withoutHoldingThem() {
+        PubSubInfo schema = new PubSubInfo(null, KIND, OperationType.create_schema);
+
+        this.sut.add(this.headers, schema);
+
+        assertEquals(1, this.messageBus.published.size());
+        assertArrayEquals(new PubSubInfo[]{schema}, this.messageBus.published.get(0));
+    }
+
+    @Test
+    public void should_keepNewerNotification_when_requeueingAFailedWindow() {
+        this.sut.add(this.headers, message("opendes:doc:1", OperationType.create));
+        this.messageBus.failures = 1;
+        this.sut.flush();
+
+        this.sut.add(this.headers, message("opendes:doc:1", OperationType.delete));
+        this.sut.flush();
+
+        assertEquals(1, this.messageBus.published.size());
+        PubSubInfo[] retried = this.messageBus.published.get(0);
+        assertEquals(1, retried.length);
+        assertEquals(OperationType.delete, retried[0].getOp());
+    }
+
+    @Test
+    public void should_publishWindow_withoutCallerCredentials() {
+        Map<String, String> headerMap = new HashMap<>();
+        headerMap.put(DpsHeaders.DATA_PARTITION_ID, "opendes");
+        headerMap.put(DpsHeaders.CORRELATION_ID, "correlation");
+        headerMap.put(DpsHeaders.AUTHORIZATION, "Bearer caller");
+        this.sut.add(DpsHeaders.createFromMap(headerMap), message("opendes:doc:1", OperationType.create));
+
+        this.sut.flush();
+
+        Map<String, String> published = this.messageBus.headers.get(0).getHeaders();
+        assertEquals("opendes", published.get(DpsHeaders.DATA_PARTITION_ID));
+        assertEquals("correlation", published.get(DpsHeaders.CORRELATION_ID));
+        assertFalse(published.containsKey(DpsHeaders.AUTHORIZATION));
+    }
+
+    private static PubSubInfo message(String id, OperationType op) {
+        return new PubSubInfo(id, KIND, op);
+    }
+
+    private static class RecordingMessageBus extends OutboxMessageBus {
+        private final List<PubSubInfo[]> published = new ArrayList<>();
+        private final List<DpsHeaders> headers = new ArrayList<>();
+        private int failures;
+
+        @Override
+        void publishNow(DpsHeaders headers, PubSubInfo... messages) {
+            if (this.failures > 0) {
+                this.failures--;
+                throw new IllegalStateException("broker down");
+            }
+            this.published.add(messages);
+            this.headers.add(headers);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.messaging;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.indexer.OperationType;
+import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
+import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
+import org.opengroup.osdu.storage.provider.interfaces.IOutboxRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OutboxMessageBusTest {
+
+    @Mock
+    private ObjectProvider<IMessageBus> messageBuses;
+
+    @Mock
+    private IMessageBus providerMessageBus;
+
+    @Mock
+    private IOutboxRepository outboxRepository;
+
+    @Mock
+    private CoalescingPublisher coalescingPublisher;
+
+    @Mock
+    private Clock clock;
+
+    @InjectMocks
+    private OutboxMessageBus sut;
+
+    private DpsHeaders headers;
+
+    private final PubSubInfo message = new PubSubInfo("opendes:doc:1", "opendes:wks:doc:1.0.0", OperationType.create);
+
+    @Before
+    public void setup() {
+        Map<String, String> headerMap = new HashMap<>();
+        headerMap.put(DpsHeaders.DATA_PARTITION_ID, "opendes");
+        headerMap.put(DpsHeaders.AUTHORIZATION, "Bearer token");
+        this.headers = DpsHeaders.createFromMap(headerMap);
+        ReflectionTestUtils.setField(this.sut, "messageBuses", this.messageBuses);
+        when(this.messageBuses.stream()).thenReturn(Stream.of(this.sut, this.providerMessageBus));
+        when(this.clock.millis()).thenReturn(1000L);
+    }
+
+    @Test
+    public void should_writeToOutbox_insteadOfPublishing_when_enabled() {
+        ReflectionTestUtils.setField(this.sut, "enabled", true);
+
+        this.sut.publishMessage(this.headers, this.message);
+
+        ArgumentCaptor<OutboxEntry> entry = ArgumentCaptor.forClass(OutboxEntry.class);
+        verify(this.outboxRepository).add(entry.capture());
+        assertEquals("opendes", entry.getValue().getPartitionId());
+        assertEquals(Collections.singletonList(this.message), entry.getValue().getMessages());
+        assertEquals(1000L, entry.getValue().getCreatedAt());
+        assertEquals(this.headers.getCorrelationId(), entry.getValue().getHeaders().get(DpsHeaders.CORRELATION_ID));
+        assertFalse(entry.getValue().getHeaders().containsKey(DpsHeaders.AUTHORIZATION));
+        verify(this.providerMessageBus, never()).publishMessage(any(DpsHeaders.class), anyVararg());
+    }
+
+    @Test
+    public void should_publishThroughProviderMessageBus_when_disabled() {
+        ReflectionTestUtils.setField(this.sut, "enabled", false);
+
+        this.sut.publishMessage(this.headers, this.message);
+
+        verify(this.providerMessageBus).publishMessage(this.headers, this.message);
+        verify(this.outboxRepository, never()).add(any(OutboxEntry.class));
+    }
+}
@@ -0,0 +1,156 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.messaging;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.indexer.OperationType;
+import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+import org.opengroup.osdu.core.common.provider.interfaces.ITenantFactory;
+import org.opengroup.osdu.storage.provider.interfaces.IOutboxRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OutboxRelayTest {
+
+    private static final String PARTITION = "opendes";
+
+    @Mock
+    private IOutboxRepository outboxRepository;
+
+    @Mock
+    private OutboxMessageBus messageBus;
+
+    @Mock
+    private ITenantFactory tenantFactory;
+
+    @Mock
+    private Clock clock;
+
+    @InjectMocks
+    private OutboxRelay sut;
+
+    @Before
+    public void setup() {
+        ReflectionTestUtils.setField(this.sut, "batchSize", 2);
+        ReflectionTestUtils.setField(this.sut, "lagWarningMillis", 60000L);
+        ReflectionTestUtils.setField(this.sut, "leaseMillis", 30000L);
+        when(this.clock.millis()).thenReturn(5000L);
+    }
+
+    @Test
+    public void should_drainBatches_untilOutboxIsEmpty() {
+        when(this.outboxRepository.fetch(PARTITION, 2))
+                .thenReturn(Arrays.asList(entry("e1", 1000L), entry("e2", 2000L)))
+                .thenReturn(Collections.singletonList(entry("e3", 3000L)));
+
+        assertEquals(3, this.sut.relay(PARTITION, Long.MAX_VALUE));
+
+        verify(this.outboxRepository).delete(PARTITION, Arrays.asList("e1", "e2"));
+        verify(this.outboxRepository).delete(PARTITION, Collections.singletonList("e3"));
+    }
+
+    @Test
+    public void should_keepUnpublishedEntries_when_publishingFails() {
+        when(this.outboxRepository.fetch(PARTITION, 2))
+                .thenReturn(Arrays.asList(entry("e1", 1000L), entry("e2", 2000L)));
+        doNothing().doThrow(new IllegalStateException("broker down"))
+                .when(this.messageBus).publishNow(any(DpsHeaders.class), anyVararg());
+
+        try {
+            this.sut.relay(PARTITION, Long.MAX_VALUE);
+            fail("Should not succeed");
+        } catch (IllegalStateException e) {
+            verify(this.outboxRepository).delete(PARTITION, Collections.singletonList("e1"));
+        }
+    }
+
+    @Test
+    public void should_relayOnlyPartitionsWhoseLeaseIsClaimed_and_claimOncePerLease() {
+        TenantInfo claimed = new TenantInfo();
+        claimed.setDataPartitionId(PARTITION);
+        TenantInfo taken = new TenantInfo();
+        taken.setDataPartitionId("other");
+        when(this.tenantFactory.listTenantInfo()).thenReturn(Arrays.asList(claimed, taken));
+        when(this.outboxRepository.claimLease(eq(PARTITION), eq(0L), anyString())).thenReturn(true);
+        when(this.outboxRepository.claimLease(eq("other"), eq(0L), anyString())).thenReturn(false);
+        when(this.outboxRepository.fetch(PARTITION, 2)).thenReturn(Collections.emptyList());
+
+        this.sut.relayAll();
+        this.sut.relayAll();
+
+        verify(this.outboxRepository, times(2)).fetch(PARTITION, 2);
+        verify(this.outboxRepository, never()).fetch(eq("other"), anyInt());
+        verify(this.outboxRepository, times(1)).claimLease(eq(PARTITION), eq(0L), anyString());
+        verify(this.outboxRepository, times(1)).claimLease(eq("other"), eq(0L), anyString());
+    }
+
+    @Test
+    public void should_stopRelaying_when_leaseEnds() {
+        assertEquals(0, this.sut.relay(PARTITION, 5000L));
+
+        verify(this.outboxRepository, never()).fetch(anyString(), anyInt());
+    }
+
+    @Test
+    public void should_reportLagFromOutbox_withoutHoldingLease() {
+        when(this.messageBus.isEnabled()).thenReturn(true);
+        when(this.outboxRepository.fetch(PARTITION, 1)).thenReturn(Collections.singletonList(entry("e1", 1000L)));
+        when(this.outboxRepository.fetch("other", 1)).thenReturn(Collections.emptyList());
+
+        assertEquals(4000L, this.sut.getLagMillis(PARTITION));
+        assertEquals(0L, this.sut.getLagMillis("other"));
+        verify(this.outboxRepository, never()).claimLease(anyString(), anyLong(), anyString());
+    }
+
+    private static OutboxEntry entry(String id, long createdAt) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(DpsHeaders.DATA_PARTITION_ID, PARTITION);
+        return OutboxEntry.builder()
+                .id(id)
+                .partitionId(PARTITION)
+                .headers(headers)
+                .messages(Collections.singletonList(new PubSubInfo(id, "opendes:wks:doc:1.0.0", OperationType.create)))
+                .createdAt(createdAt)
+                .build();
+    }
+}
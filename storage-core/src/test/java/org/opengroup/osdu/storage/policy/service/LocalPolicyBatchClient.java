@@ -0,0 +1,72 @@
+// Copyright © Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.policy.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for the batch storage policy: a record is allowed when the caller belongs to one of its owners,
+ * or to one of its viewers for the view operation.
+ */
+public class LocalPolicyBatchClient implements IPolicyBatchClient {
+
+    private final AtomicInteger callCount = new AtomicInteger();
+
+    @Override
+    public JsonObject evaluate(String policyId, JsonObject input) {
+        this.callCount.incrementAndGet();
+
+        Set<String> groups = new HashSet<>();
+        for (JsonElement group : input.getAsJsonArray("groups")) {
+            groups.add(group.getAsString());
+        }
+        boolean view = "view".equals(input.get("operation").getAsString());
+
+        JsonArray decisions = new JsonArray();
+        for (JsonElement element : input.getAsJsonArray("records")) {
+            JsonObject record = element.getAsJsonObject();
+            JsonObject acl = record.getAsJsonObject("acl");
+            boolean allow = this.isMember(groups, acl.getAsJsonArray("owners"))
+                    || (view && this.isMember(groups, acl.getAsJsonArray("viewers")));
+
+            JsonObject decision = new JsonObject();
+            decision.addProperty("id", record.get("id").getAsString());
+            decision.addProperty("allow", allow);
+            decisions.add(decision);
+        }
+
+        JsonObject result = new JsonObject();
+        result.add("records", decisions);
+        return result;
+    }
+
+    public int getCallCount() {
+        return this.callCount.get();
+    }
+
+    private boolean isMember(Set<String> groups, JsonArray aclGroups) {
+        if (aclGroups == null) return false;
+        for (JsonElement aclGroup : aclGroups) {
+            if (groups.contains(aclGroup.getAsString())) return true;
+        }
+        return false;
+    }
+}
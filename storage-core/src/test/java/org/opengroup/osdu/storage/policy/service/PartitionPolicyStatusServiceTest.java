@@ -0,0 +1,174 @@
+// Copyright © Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.policy.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+import org.opengroup.osdu.core.common.partition.PartitionInfo;
+import org.opengroup.osdu.core.common.partition.Property;
+import org.opengroup.osdu.core.common.provider.interfaces.ITenantFactory;
+import org.opengroup.osdu.storage.policy.cache.PolicyCache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PartitionPolicyStatusServiceTest {
+
+    private static final String PARTITION = "tenant1";
+
+    @Mock
+    private IPartitionService partitionService;
+
+    @Mock
+    private ITenantFactory tenantFactory;
+
+    @Mock
+    private DpsHeaders headers;
+
+    @Spy
+    private PolicyCache cache = new PolicyCache(5);
+
+    @InjectMocks
+    private PartitionPolicyStatusService sut;
+
+    @Test
+    public void should_loadStatusOnce_when_cacheIsCold() {
+        when(this.partitionService.getPartition(eq(PARTITION), any())).thenReturn(this.getPartitionInfo("true"));
+
+        assertTrue(this.sut.policyEnabled(PARTITION));
+        assertTrue(this.sut.policyEnabled(PARTITION));
+
+        verify(this.partitionService, times(1)).getPartition(eq(PARTITION), any());
+    }
+
+    @Test
+    public void should_serveStaleStatus_while_refreshingExpiredEntry() throws Exception {
+        when(this.partitionService.getPartition(eq(PARTITION), any())).thenReturn(this.getPartitionInfo("true"));
+        assertTrue(this.sut.policyEnabled(PARTITION));
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(this.partitionService.getPartition(eq(PARTITION), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return this.getPartitionInfo("false");
+        });
+        this.cache.delete(PARTITION + "-policy");
+
+        assertTrue(this.sut.policyEnabled(PARTITION));
+        assertTrue(this.sut.policyEnabled(PARTITION));
+        release.countDown();
+
+        verify(this.partitionService, timeout(5000).times(2)).getPartition(eq(PARTITION), any());
+        this.awaitCached(PARTITION);
+        assertFalse(this.sut.policyEnabled(PARTITION));
+    }
+
+    @Test
+    public void should_keepLastKnownStatusWithoutCaching_when_refreshFails() {
+        when(this.partitionService.getPartition(eq(PARTITION), any())).thenReturn(this.getPartitionInfo("true"));
+        assertTrue(this.sut.policyEnabled(PARTITION));
+
+        when(this.partitionService.getPartition(eq(PARTITION), any())).thenThrow(new RuntimeException("partition service down"));
+        this.cache.delete(PARTITION + "-policy");
+
+        assertTrue(this.sut.policyEnabled(PARTITION));
+        verify(this.partitionService, timeout(5000).times(2)).getPartition(eq(PARTITION), any());
+        assertFalse(this.cache.containsKey(PARTITION + "-policy"));
+
+        assertTrue(this.sut.policyEnabled(PARTITION));
+        verify(this.partitionService, timeout(5000).times(3)).getPartition(eq(PARTITION), any());
+    }
+
+    @Test
+    public void should_retrySynchronously_until_statusIsLoaded() {
+        when(this.partitionService.getPartition(eq(PARTITION), any()))
+                .thenThrow(new RuntimeException("partition service down"))
+                .thenReturn(this.getPartitionInfo("true"));
+
+        assertFalse(this.sut.policyEnabled(PARTITION));
+        assertFalse(this.cache.containsKey(PARTITION + "-policy"));
+
+        assertTrue(this.sut.policyEnabled(PARTITION));
+        verify(this.partitionService, times(2)).getPartition(eq(PARTITION), any());
+    }
+
+    @Test
+    public void should_warmUpAllKnownPartitions() {
+        TenantInfo tenant1 = new TenantInfo();
+        tenant1.setDataPartitionId("tenant1");
+        TenantInfo tenant2 = new TenantInfo();
+        tenant2.setDataPartitionId("tenant2");
+        when(this.tenantFactory.listTenantInfo()).thenReturn(Arrays.asList(tenant1, tenant2));
+        when(this.partitionService.getPartition(any(), any())).thenReturn(this.getPartitionInfo("true"));
+
+        this.sut.warmUp();
+        this.awaitCached("tenant1");
+        this.awaitCached("tenant2");
+
+        assertTrue(this.sut.policyEnabled("tenant1"));
+        assertTrue(this.sut.policyEnabled("tenant2"));
+        verify(this.partitionService, times(2)).getPartition(any(), any());
+    }
+
+    @Test
+    public void should_loadBundleVersion_along_withStatus() {
+        PartitionInfo partitionInfo = this.getPartitionInfo("true");
+        Property bundleVersion = new Property();
+        bundleVersion.setValue("42");
+        partitionInfo.getProperties().put("policy-bundle-version", bundleVersion);
+        when(this.partitionService.getPartition(eq(PARTITION), any())).thenReturn(partitionInfo);
+
+        assertEquals("", this.sut.bundleVersion(PARTITION));
+        assertTrue(this.sut.policyEnabled(PARTITION));
+        assertEquals("42", this.sut.bundleVersion(PARTITION));
+    }
+
+    private void awaitCached(String partitionId) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!this.cache.containsKey(partitionId + "-policy") && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+    }
+
+    private PartitionInfo getPartitionInfo(String enabled) {
+        Property property = new Property();
+        property.setValue(enabled);
+        Map<String, Property> properties = new HashMap<>();
+        properties.put("policy-service-enabled", property);
+
+        PartitionInfo partitionInfo = new PartitionInfo();
+        partitionInfo.setProperties(properties);
+        return partitionInfo;
+    }
+}
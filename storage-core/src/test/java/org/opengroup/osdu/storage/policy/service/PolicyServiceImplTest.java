@@ -0,0 +1,153 @@
+// Copyright © Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.policy.service;
+
+import com.google.gson.JsonObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.entitlements.Acl;
+import org.opengroup.osdu.core.common.model.entitlements.GroupInfo;
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.indexer.OperationType;
+import org.opengroup.osdu.core.common.model.policy.PolicyResponse;
+import org.opengroup.osdu.core.common.model.policy.Result;
+import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+import org.opengroup.osdu.core.common.policy.IPolicyFactory;
+import org.opengroup.osdu.core.common.policy.IPolicyProvider;
+import org.opengroup.osdu.storage.policy.di.PolicyServiceConfiguration;
+import org.opengroup.osdu.storage.service.IEntitlementsExtensionService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PolicyServiceImplTest {
+
+    private static final String OWNER = "data.owner@tenant1.osdu.com";
+    private static final String VIEWER = "data.viewer@tenant1.osdu.com";
+
+    @Mock
+    private PolicyServiceConfiguration policyServiceConfiguration;
+
+    @Mock
+    private IPolicyFactory policyFactory;
+
+    @Mock
+    private IPolicyProvider policyProvider;
+
+    @Mock
+    private DpsHeaders headers;
+
+    @Mock
+    private IEntitlementsExtensionService entitlementsService;
+
+    @Spy
+    private LocalPolicyBatchClient policyBatchClient = new LocalPolicyBatchClient();
+
+    @InjectMocks
+    private PolicyServiceImpl sut;
+
+    @Before
+    public void setup() {
+        GroupInfo groupInfo = new GroupInfo();
+        groupInfo.setEmail(VIEWER);
+        Groups groups = new Groups();
+        groups.setGroups(Collections.singletonList(groupInfo));
+        when(this.entitlementsService.getGroups(any())).thenReturn(groups);
+    }
+
+    @Test
+    public void should_evaluateAllRecordsInOneQuery_when_batchPolicyConfigured() throws Exception {
+        when(this.policyServiceConfiguration.getBatchPolicyId()).thenReturn("storage_batch");
+
+        List<RecordMetadata> records = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            records.add(this.getRecordMetadata("tenant1:kind:" + i, i % 2 == 0 ? VIEWER : "other@tenant1.osdu.com"));
+        }
+
+        Map<String, Boolean> decisions = this.sut.evaluateStorageDataAuthorizationPolicy(records, OperationType.view);
+
+        assertEquals(1, this.policyBatchClient.getCallCount());
+        assertEquals(100, decisions.size());
+        assertTrue(decisions.get("tenant1:kind:0"));
+        assertFalse(decisions.get("tenant1:kind:1"));
+        verify(this.entitlementsService, times(1)).getGroups(any());
+        verify(this.policyFactory, never()).create(any());
+    }
+
+    @Test
+    public void should_denyRecords_missingFromBatchResponse() {
+        when(this.policyServiceConfiguration.getBatchPolicyId()).thenReturn("storage_batch");
+        IPolicyBatchClient emptyClient = (policyId, input) -> new JsonObject();
+        ReflectionTestUtils.setField(this.sut, "policyBatchClient", emptyClient);
+
+        Map<String, Boolean> decisions = this.sut.evaluateStorageDataAuthorizationPolicy(
+                Collections.singletonList(this.getRecordMetadata("tenant1:kind:1", VIEWER)), OperationType.view);
+
+        assertFalse(decisions.get("tenant1:kind:1"));
+    }
+
+    @Test
+    public void should_evaluatePerRecord_when_noBatchPolicyConfigured() throws Exception {
+        when(this.policyServiceConfiguration.getBatchPolicyId()).thenReturn("");
+        when(this.policyServiceConfiguration.getPolicyId()).thenReturn("storage");
+        when(this.policyFactory.create(any())).thenReturn(this.policyProvider);
+        Result result = new Result();
+        result.setAllow(true);
+        PolicyResponse response = new PolicyResponse();
+        response.setResult(result);
+        when(this.policyProvider.evaluatePolicy(any())).thenReturn(response);
+
+        Map<String, Boolean> decisions = this.sut.evaluateStorageDataAuthorizationPolicy(Arrays.asList(
+                this.getRecordMetadata("tenant1:kind:1", OWNER), this.getRecordMetadata("tenant1:kind:2", OWNER)), OperationType.update);
+
+        assertTrue(decisions.get("tenant1:kind:1"));
+        assertTrue(decisions.get("tenant1:kind:2"));
+        assertEquals(0, this.policyBatchClient.getCallCount());
+        verify(this.policyProvider, times(2)).evaluatePolicy(any());
+        verify(this.entitlementsService, times(1)).getGroups(any());
+    }
+
+    private RecordMetadata getRecordMetadata(String id, String viewer) {
+        Acl acl = new Acl();
+        acl.setViewers(new String[]{viewer});
+        acl.setOwners(new String[]{OWNER});
+
+        RecordMetadata record = new RecordMetadata();
+        record.setId(id);
+        record.setKind("tenant1:source:type:1.0.0");
+        record.setAcl(acl);
+        return record;
+    }
+}
@@ -0,0 +1,113 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+import org.opengroup.osdu.storage.provider.interfaces.IRecordsMetadataRepository;
+import org.opengroup.osdu.storage.response.ChangeFeedResponse;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ChangeFeedServiceTest {
+
+    @Mock
+    private IRecordsMetadataRepository recordRepository;
+
+    @Mock
+    private Clock clock;
+
+    @InjectMocks
+    private ChangeFeedService sut;
+
+    @Before
+    public void setup() {
+        when(this.clock.millis()).thenReturn(100_000L);
+    }
+
+    @Test
+    public void should_mergeCreationsAndModifications_inTimeOrder() {
+        RecordMetadata created = record("opendes:doc:1", 1000, 0);
+        RecordMetadata createdThenModified = record("opendes:doc:2", 2000, 4000);
+        RecordMetadata modified = record("opendes:doc:3", 500, 3000);
+        when(this.recordRepository.queryByTime(IRecordsMetadataRepository.CREATE_TIME, 1L, "", 3))
+                .thenReturn(Arrays.asList(created, createdThenModified));
+        when(this.recordRepository.queryByTime(IRecordsMetadataRepository.MODIFY_TIME, 1L, "", 3))
+                .thenReturn(Arrays.asList(modified, createdThenModified));
+
+        ChangeFeedResponse page = this.sut.getChanges(null, null, 3);
+
+        // the creation of doc 2 is passed over, doc 2 is reported by the modification scan on the next page
+        assertEquals(Arrays.asList(created, modified), page.getRecords());
+        ChangeFeedService.Position position = ChangeFeedService.decode(page.getCursor());
+        assertEquals(2000, position.getCreateTime());
+        assertEquals("opendes:doc:2", position.getCreateId());
+        assertEquals(3000, position.getModifyTime());
+        assertEquals("opendes:doc:3", position.getModifyId());
+
+        this.sut.getChanges(page.getCursor(), null, 3);
+
+        verify(this.recordRepository).queryByTime(IRecordsMetadataRepository.CREATE_TIME, 2000L, "opendes:doc:2", 3);
+        verify(this.recordRepository).queryByTime(IRecordsMetadataRepository.MODIFY_TIME, 3000L, "opendes:doc:3", 3);
+    }
+
+    @Test
+    public void should_holdBackUnsettledChanges_andKeepCursor() {
+        when(this.recordRepository.queryByTime(IRecordsMetadataRepository.CREATE_TIME, 50_000L, "", 100))
+                .thenReturn(Collections.singletonList(record("opendes:doc:1", 95_000, 0)));
+        when(this.recordRepository.queryByTime(IRecordsMetadataRepository.MODIFY_TIME, 50_000L, "", 100))
+                .thenReturn(Collections.emptyList());
+
+        ChangeFeedResponse page = this.sut.getChanges(null, 50_000L, null);
+
+        assertTrue(page.getRecords().isEmpty());
+        ChangeFeedService.Position position = ChangeFeedService.decode(page.getCursor());
+        assertEquals(50_000, position.getCreateTime());
+        assertEquals("", position.getCreateId());
+    }
+
+    @Test
+    public void should_rejectInvalidCursor() {
+        try {
+            this.sut.getChanges("not a cursor", null, null);
+            fail("Should not succeed");
+        } catch (AppException e) {
+            assertEquals(400, e.getError().getCode());
+        }
+    }
+
+    private static RecordMetadata record(String id, long createTime, long modifyTime) {
+        RecordMetadata record = new RecordMetadata();
+        record.setId(id);
+        record.setCreateTime(createTime);
+        record.setModifyTime(modifyTime);
+        return record;
+    }
+}
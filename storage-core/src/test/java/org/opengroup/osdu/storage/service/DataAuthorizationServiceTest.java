@@ -1,10 +1,12 @@
 package org.opengroup.osdu.storage.service;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.opengroup.osdu.core.common.model.entitlements.Acl;
 import org.opengroup.osdu.core.common.model.entitlements.GroupInfo;
@@ -15,13 +17,21 @@ import org.opengroup.osdu.core.common.model.policy.PolicyResponse;
 import org.opengroup.osdu.core.common.model.policy.Result;
 import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
 import org.opengroup.osdu.core.common.model.storage.RecordState;
+import org.opengroup.osdu.storage.cache.AuthorizationDecisionCache;
 import org.opengroup.osdu.storage.policy.service.IPolicyService;
 import org.opengroup.osdu.storage.policy.service.PartitionPolicyStatusService;
 import org.opengroup.osdu.storage.provider.interfaces.ICloudStorage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.*;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -40,6 +50,8 @@ public class DataAuthorizationServiceTest {
     private IEntitlementsExtensionService entitlementsService;
     @Mock
     private ICloudStorage cloudStorage;
+    @Spy
+    private AuthorizationDecisionCache decisionCache = new AuthorizationDecisionCache(30, 1000);
     @InjectMocks
     private DataAuthorizationService sut;
 
@@ -51,6 +63,11 @@ public class DataAuthorizationServiceTest {
         this.headers = DpsHeaders.createFromMap(headerMap);
     }
 
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
     private void setDefaultHeaders() {
         headerMap.put(DpsHeaders.ACCOUNT_ID, HEADER_ACCOUNT_ID);
         headerMap.put(DpsHeaders.AUTHORIZATION, HEADER_AUTHORIZATION);
@@ -90,6 +107,104 @@ public class DataAuthorizationServiceTest {
         verify(this.entitlementsService, times(1)).hasOwnerAccess(any(), any());
     }
 
+    @Test
+    public void should_reuseDecision_when_recordsShareAclLegalAndKind() {
+        when(this.statusService.policyEnabled(this.headers.getPartitionId())).thenReturn(true);
+        when(this.entitlementsService.getGroups(any())).thenReturn(this.getGroups());
+        when(this.policyService.evaluateStorageDataAuthorizationPolicy(any(RecordMetadata.class), any())).thenReturn(true);
+
+        assertTrue(this.sut.validateViewerOrOwnerAccess(this.getRecordMetadata("id:1"), OperationType.view));
+        assertTrue(this.sut.validateViewerOrOwnerAccess(this.getRecordMetadata("id:2"), OperationType.view));
+
+        verify(this.policyService, times(1)).evaluateStorageDataAuthorizationPolicy(any(RecordMetadata.class), any());
+    }
+
+    @Test
+    public void should_evaluateOneRecordPerDistinctAcl_when_evaluatingBatch() {
+        when(this.entitlementsService.getGroups(any())).thenReturn(this.getGroups());
+        Map<String, Boolean> evaluated = new HashMap<>();
+        evaluated.put("id:0", true);
+        when(this.policyService.evaluateStorageDataAuthorizationPolicy(anyListOf(RecordMetadata.class), any())).thenReturn(evaluated);
+
+        List<RecordMetadata> records = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            records.add(this.getRecordMetadata("id:" + i));
+        }
+
+        Map<String, Boolean> decisions = this.sut.evaluatePolicy(records, OperationType.view);
+
+        assertEquals(50, decisions.size());
+        assertTrue(decisions.values().stream().allMatch(Boolean::booleanValue));
+        verify(this.policyService, times(1)).evaluateStorageDataAuthorizationPolicy(anyListOf(RecordMetadata.class), any());
+
+        this.sut.evaluatePolicy(records, OperationType.view);
+        verify(this.policyService, times(1)).evaluateStorageDataAuthorizationPolicy(anyListOf(RecordMetadata.class), any());
+    }
+
+    @Test
+    public void should_evaluateBatchInOnePolicyCall_when_validatingViewerAccessForBatch() {
+        when(this.statusService.policyEnabled(this.headers.getPartitionId())).thenReturn(true);
+        when(this.entitlementsService.getGroups(any())).thenReturn(this.getGroups());
+
+        RecordMetadata allowed = this.getRecordMetadata("id:allowed");
+        RecordMetadata denied = this.getRecordMetadata("id:denied");
+        denied.getAcl().setViewers(new String[]{"other@devint.osdu.com"});
+        Map<String, Boolean> evaluated = new HashMap<>();
+        evaluated.put("id:allowed", true);
+        evaluated.put("id:denied", false);
+        when(this.policyService.evaluateStorageDataAuthorizationPolicy(anyListOf(RecordMetadata.class), any())).thenReturn(evaluated);
+
+        List<RecordMetadata> result = this.sut.validateViewerOrOwnerAccess(Arrays.asList(allowed, denied), OperationType.view);
+
+        assertEquals(Collections.singletonList(allowed), result);
+        verify(this.policyService, times(1)).evaluateStorageDataAuthorizationPolicy(anyListOf(RecordMetadata.class), any());
+        verify(this.policyService, never()).evaluateStorageDataAuthorizationPolicy(any(RecordMetadata.class), any());
+    }
+
+    @Test
+    public void should_computeCallerDigestOncePerRequest_when_checkingSeveralRecords() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(this.statusService.policyEnabled(this.headers.getPartitionId())).thenReturn(true);
+        when(this.entitlementsService.getGroups(any())).thenReturn(this.getGroups());
+        when(this.policyService.evaluateStorageDataAuthorizationPolicy(any(RecordMetadata.class), any())).thenReturn(true);
+
+        RecordMetadata other = this.getRecordMetadata("id:2");
+        other.setKind("other kind");
+        this.sut.validateViewerOrOwnerAccess(this.getRecordMetadata("id:1"), OperationType.view);
+        this.sut.validateViewerOrOwnerAccess(other, OperationType.view);
+
+        verify(this.entitlementsService, times(1)).getGroups(any());
+        verify(this.decisionCache, times(1)).callerDigest(any(), any(), any());
+    }
+
+    @Test
+    public void should_evaluateAgain_when_policyBundleVersionChanged() {
+        when(this.statusService.policyEnabled(this.headers.getPartitionId())).thenReturn(true);
+        when(this.statusService.bundleVersion(this.headers.getPartitionId())).thenReturn("1", "2");
+        when(this.entitlementsService.getGroups(any())).thenReturn(this.getGroups());
+        when(this.policyService.evaluateStorageDataAuthorizationPolicy(any(RecordMetadata.class), any())).thenReturn(true, false);
+
+        assertTrue(this.sut.validateViewerOrOwnerAccess(this.getRecordMetadata("id:1"), OperationType.view));
+        assertFalse(this.sut.validateViewerOrOwnerAccess(this.getRecordMetadata("id:1"), OperationType.view));
+
+        verify(this.policyService, times(2)).evaluateStorageDataAuthorizationPolicy(any(RecordMetadata.class), any());
+    }
+
+    private Groups getGroups() {
+        GroupInfo groupInfo = new GroupInfo();
+        groupInfo.setName("data.owner1@devint.osdu.com");
+        groupInfo.setEmail("data.owner1@devint.osdu.com");
+        Groups groups = new Groups();
+        groups.setGroups(Collections.singletonList(groupInfo));
+        return groups;
+    }
+
+    private RecordMetadata getRecordMetadata(String id) {
+        RecordMetadata record = this.getRecordMetadata();
+        record.setId(id);
+        return record;
+    }
+
     private RecordMetadata getRecordMetadata() {
         Acl acl = new Acl();
         String[] viewers = new String[]{"viewer1@devint.osdu.com", "viewer2@devint.osdu.com"};
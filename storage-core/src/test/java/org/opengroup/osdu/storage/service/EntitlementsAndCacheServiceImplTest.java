@@ -20,6 +20,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.opengroup.osdu.core.common.model.entitlements.Acl;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
@@ -33,10 +34,22 @@ import org.opengroup.osdu.core.common.entitlements.IEntitlementsFactory;
 import org.opengroup.osdu.core.common.entitlements.IEntitlementsService;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
 import org.opengroup.osdu.core.common.model.storage.RecordMetadata;
+import org.opengroup.osdu.storage.cache.GroupsNearCache;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
@@ -53,6 +66,9 @@ public class EntitlementsAndCacheServiceImplTest {
     @Mock
     private ICache<String, Groups> cache;
 
+    @Spy
+    private GroupsNearCache nearCache = new GroupsNearCache(5, 60, 1000, 20, 1, 10);
+
     private DpsHeaders headers;
 
     @Mock
@@ -196,6 +212,7 @@ public class EntitlementsAndCacheServiceImplTest {
         assertEquals(MEMBER_EMAIL, this.sut.authorize(this.headers, "role2"));
 
         when(this.cache.get("NLdxKQ==")).thenReturn(groups);
+        this.nearCache.delete("NLdxKQ==");
 
         // Second call, getting groups from cache
         assertEquals(MEMBER_EMAIL, this.sut.authorize(this.headers, "role2"));
@@ -204,6 +221,76 @@ public class EntitlementsAndCacheServiceImplTest {
         verify(this.cache, times(1)).put("NLdxKQ==", groups);
     }
 
+    @Test
+    public void should_getGroupsFromNearCache_when_requestHashWasRecentlyResolved() throws EntitlementsException {
+
+        GroupInfo g1 = new GroupInfo();
+        g1.setEmail("role1@gmail.com");
+        g1.setName("role1");
+
+        List<GroupInfo> groupsInfo = new ArrayList<>();
+        groupsInfo.add(g1);
+
+        Groups groups = new Groups();
+        groups.setGroups(groupsInfo);
+        groups.setDesId(MEMBER_EMAIL);
+
+        when(this.cache.get("NLdxKQ==")).thenReturn(groups);
+
+        // First call, getting groups from the shared cache
+        assertEquals(MEMBER_EMAIL, this.sut.authorize(this.headers, "role1"));
+
+        // Following calls, getting groups from the near cache only
+        assertEquals(MEMBER_EMAIL, this.sut.authorize(this.headers, "role1"));
+        assertEquals(MEMBER_EMAIL, this.sut.authorize(this.headers, "role1"));
+        verify(this.cache, times(1)).get("NLdxKQ==");
+        verify(this.cache, never()).put(anyString(), any());
+        verify(this.entitlementService, never()).getGroups();
+    }
+
+    @Test
+    public void should_refreshFromEntitlements_when_sharedEntryIsDueForRefresh() throws EntitlementsException {
+        ReflectionTestUtils.setField(this.sut, "nearCache", new GroupsNearCache(5, 0, 1000, 0, 1, 10));
+
+        Groups groups = new Groups();
+        groups.setGroups(Collections.singletonList(new GroupInfo()));
+        groups.setDesId(MEMBER_EMAIL);
+        when(this.entitlementFactory.create(any(DpsHeaders.class))).thenReturn(this.entitlementService);
+        when(this.entitlementService.getGroups()).thenReturn(groups);
+
+        // First call loads the groups, the second one serves them and reloads them in the background
+        this.sut.getGroups(this.headers);
+        this.sut.getGroups(this.headers);
+
+        verify(this.entitlementService, timeout(5000).times(2)).getGroups();
+        verify(this.cache, timeout(5000).times(2)).put("NLdxKQ==", groups);
+        verify(this.cache, times(1)).get("NLdxKQ==");
+    }
+
+    @Test
+    public void should_keepGroupCacheKeyForTheRequest_and_recomputeIt_when_tokenChanges() {
+        Groups groups = new Groups();
+        groups.setGroups(Collections.singletonList(new GroupInfo()));
+        groups.setDesId(MEMBER_EMAIL);
+        when(this.cache.get(anyString())).thenReturn(groups);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            DpsHeaders requestHeaders = DpsHeaders.createFromMap(new HashMap<>(headerMap));
+            this.sut.getGroups(requestHeaders);
+            assertNotNull(RequestContextHolder.getRequestAttributes().getAttribute(
+                    EntitlementsAndCacheServiceImpl.class.getName() + ".groupCacheKey", RequestAttributes.SCOPE_REQUEST));
+
+            requestHeaders.put(DpsHeaders.AUTHORIZATION, "otherToken");
+            this.sut.getGroups(requestHeaders);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        verify(this.cache, times(1)).get("NLdxKQ==");
+        verify(this.cache, times(2)).get(anyString());
+    }
+
     @Test
     public void should_returnTrue_when_AclIsValid() throws EntitlementsException {
         GroupInfo g1 = new GroupInfo();
@@ -414,4 +501,42 @@ public class EntitlementsAndCacheServiceImplTest {
         List<RecordMetadata> result = this.sut.hasValidAccess(input, this.headers);
         assertEquals(0, result.size());
     }
+
+    @Test
+    public void should_callEntitlementsOnce_when_concurrentRequestsMissTheCache() throws Exception {
+        GroupInfo g1 = new GroupInfo();
+        g1.setEmail("role1@gmail.com");
+        g1.setName("role1");
+
+        List<GroupInfo> groupsInfo = new ArrayList<>();
+        groupsInfo.add(g1);
+
+        Groups groups = new Groups();
+        groups.setGroups(groupsInfo);
+        groups.setDesId(MEMBER_EMAIL);
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(this.entitlementService.getGroups()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return groups;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> this.sut.authorize(this.headers, "role1")));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals(MEMBER_EMAIL, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(this.entitlementService, times(1)).getGroups();
+        verify(this.cache, times(1)).put("NLdxKQ==", groups);
+    }
 }
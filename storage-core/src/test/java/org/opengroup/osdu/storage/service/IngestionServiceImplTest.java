@@ -100,6 +100,9 @@ public class IngestionServiceImplTest {
     @Mock
     private RecordUtil recordUtil;
 
+    @Mock
+    private KindRegistry kindRegistry;
+
     @InjectMocks
     private IngestionServiceImpl sut;
 
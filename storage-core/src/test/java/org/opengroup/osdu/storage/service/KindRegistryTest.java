@@ -0,0 +1,135 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.storage.DatastoreQueryResult;
+import org.opengroup.osdu.storage.provider.interfaces.IQueryRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KindRegistryTest {
+
+    private static final String KIND_A = "tenant1:test:a:1.0.0";
+    private static final String KIND_B = "tenant1:test:b:1.0.0";
+    private static final String KIND_C = "tenant1:test:c:1.0.0";
+
+    @Mock
+    private IQueryRepository queryRepository;
+
+    @Mock
+    private DpsHeaders headers;
+
+    @Mock
+    private Clock clock;
+
+    @InjectMocks
+    private KindRegistry sut;
+
+    @Before
+    public void setup() {
+        ReflectionTestUtils.setField(this.sut, "enabled", true);
+        ReflectionTestUtils.setField(this.sut, "ttlSeconds", 60);
+        ReflectionTestUtils.setField(this.sut, "recordKinds", true);
+        when(this.headers.getPartitionId()).thenReturn("tenant1");
+        when(this.clock.millis()).thenReturn(0L);
+    }
+
+    @Test
+    public void should_loadAllPagesOnce_and_pageByLastKind() {
+        when(this.queryRepository.getAllKinds(null, null))
+                .thenReturn(new DatastoreQueryResult("page2", Arrays.asList(KIND_C, KIND_A)));
+        when(this.queryRepository.getAllKinds(null, "page2"))
+                .thenReturn(new DatastoreQueryResult(null, Collections.singletonList(KIND_B)));
+
+        DatastoreQueryResult first = this.sut.getAllKinds(2, null);
+        assertEquals(Arrays.asList(KIND_A, KIND_B), first.getResults());
+        assertEquals(KIND_B, first.getCursor());
+
+        DatastoreQueryResult second = this.sut.getAllKinds(2, first.getCursor());
+        assertEquals(Collections.singletonList(KIND_C), second.getResults());
+        assertNull(second.getCursor());
+
+        verify(this.queryRepository, times(1)).getAllKinds(null, null);
+        verify(this.queryRepository, times(1)).getAllKinds(null, "page2");
+    }
+
+    @Test
+    public void should_listAddedKinds_withoutReloading() {
+        when(this.queryRepository.getAllKinds(null, null))
+                .thenReturn(new DatastoreQueryResult(null, Collections.singletonList(KIND_A)));
+        this.sut.getAllKinds(null, null);
+
+        this.sut.addRecordKinds(Arrays.asList(KIND_C, KIND_B));
+
+        assertEquals(Arrays.asList(KIND_A, KIND_B, KIND_C), this.sut.getAllKinds(null, null).getResults());
+        verify(this.queryRepository, times(1)).getAllKinds(null, null);
+    }
+
+    @Test
+    public void should_listOnlyKindsTheRepositoryLists_inEachMode() {
+        when(this.queryRepository.getAllKinds(null, null))
+                .thenReturn(new DatastoreQueryResult(null, Collections.singletonList(KIND_A)));
+        this.sut.getAllKinds(null, null);
+
+        this.sut.addSchemaKind(KIND_C);
+        assertEquals(Collections.singletonList(KIND_A), this.sut.getAllKinds(null, null).getResults());
+
+        ReflectionTestUtils.setField(this.sut, "recordKinds", false);
+        this.sut.addRecordKinds(Collections.singleton(KIND_B));
+        this.sut.addSchemaKind(KIND_C);
+        assertEquals(Arrays.asList(KIND_A, KIND_C), this.sut.getAllKinds(null, null).getResults());
+    }
+
+    @Test
+    public void should_reload_when_invalidatedOrExpired() {
+        when(this.queryRepository.getAllKinds(null, null))
+                .thenReturn(new DatastoreQueryResult(null, Collections.singletonList(KIND_A)));
+        this.sut.getAllKinds(null, null);
+
+        this.sut.invalidate();
+        this.sut.getAllKinds(null, null);
+
+        when(this.clock.millis()).thenReturn(60_000L);
+        this.sut.getAllKinds(null, null);
+
+        verify(this.queryRepository, times(3)).getAllKinds(null, null);
+    }
+
+    @Test
+    public void should_queryRepository_when_disabled() {
+        ReflectionTestUtils.setField(this.sut, "enabled", false);
+        DatastoreQueryResult result = new DatastoreQueryResult("cursor", Collections.singletonList(KIND_A));
+        when(this.queryRepository.getAllKinds(10, "cursor")).thenReturn(result);
+
+        assertEquals(result, this.sut.getAllKinds(10, "cursor"));
+    }
+}
@@ -24,6 +24,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.cache.ICache;
@@ -33,7 +34,13 @@ import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.http.HttpResponse;
 import org.opengroup.osdu.core.common.legal.ILegalFactory;
 import org.opengroup.osdu.core.common.legal.ILegalProvider;
+import org.opengroup.osdu.core.common.util.IServiceAccountJwtClient;
+import org.opengroup.osdu.storage.cache.LegalCountryCodesCache;
+import org.opengroup.osdu.storage.cache.LegalTagNearCache;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.time.Clock;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -52,9 +59,18 @@ public class LegalServiceImplTest {
     @Mock
     private ICache<String, String> cache;
 
+    @Spy
+    private LegalTagNearCache nearCache = new LegalTagNearCache(30, 15, 100);
+
+    @Spy
+    private LegalCountryCodesCache countryCodesCache = new LegalCountryCodesCache(3600, 600, Clock.systemUTC());
+
     @Mock
     private ILegalFactory factory;
 
+    @Mock
+    private IServiceAccountJwtClient jwtClient;
+
     @Mock
     private ILegalProvider legalService;
 
@@ -88,15 +104,57 @@ public class LegalServiceImplTest {
         when(this.cache.get("tag2")).thenReturn("cache hit");
         when(this.cache.get("tag3")).thenReturn(null);
 
-        when(this.legalService.validate("tag1", "tag2", "tag3")).thenReturn(invalidTags);
+        when(this.legalService.validate("tag3")).thenReturn(invalidTags);
 
         this.sut.validateLegalTags(legaltags);
 
-        verify(this.cache).put("tag1", "Valid LegalTag");
-        verify(this.cache).put("tag2", "Valid LegalTag");
+        verify(this.legalService, times(1)).validate("tag3");
+        verify(this.cache, never()).put("tag1", "Valid LegalTag");
+        verify(this.cache, never()).put("tag2", "Valid LegalTag");
         verify(this.cache).put("tag3", "Valid LegalTag");
     }
 
+    @Test
+    public void should_notHitSharedCache_when_legalTagsWereValidatedRecently() throws Exception {
+        Set<String> legaltags = Sets.newHashSet("tag1");
+
+        InvalidTagsWithReason invalidTags = new InvalidTagsWithReason();
+        invalidTags.setInvalidLegalTags(new InvalidTagWithReason[] {});
+        when(this.legalService.validate("tag1")).thenReturn(invalidTags);
+
+        this.sut.validateLegalTags(legaltags);
+        this.sut.validateLegalTags(legaltags);
+
+        verify(this.cache, times(1)).get("tag1");
+        verify(this.legalService, times(1)).validate("tag1");
+    }
+
+    @Test
+    public void should_notCallLegalServiceAgain_when_retryingWithAnInvalidLegalTag() throws Exception {
+        InvalidTagWithReason invalidTag = new InvalidTagWithReason();
+        invalidTag.setName("tag3");
+        invalidTag.setReason("not found");
+
+        InvalidTagsWithReason invalidTags = new InvalidTagsWithReason();
+        invalidTags.setInvalidLegalTags(new InvalidTagWithReason[] { invalidTag });
+
+        when(this.legalService.validate("tag3")).thenReturn(invalidTags);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                this.sut.validateLegalTags(Sets.newHashSet("tag3"));
+
+                fail("Should not succeed");
+            } catch (AppException e) {
+                assertEquals(HttpStatus.SC_BAD_REQUEST, e.getError().getCode());
+                assertEquals("Invalid legal tags: tag3", e.getError().getMessage());
+            }
+        }
+
+        verify(this.legalService, times(1)).validate("tag3");
+        verify(this.cache, never()).put("tag3", "Valid LegalTag");
+    }
+
     @Test
     public void should_throwAppExceptionWithBadRequestCode_when_anInvalidLegalTagIsReturnedFromLegalService()
             throws Exception {
@@ -197,8 +255,6 @@ public class LegalServiceImplTest {
         when(this.legalService.getLegalTagProperties()).thenThrow(legalException);
 
         try {
-            LegalServiceImpl.validCountryCodes = null;
-
             this.sut.validateOtherRelevantDataCountries(countries);
 
             fail("Should not succeed");
@@ -211,6 +267,60 @@ public class LegalServiceImplTest {
         }
     }
 
+    @Test
+    public void should_loadCountryCodesPerPartition() throws Exception {
+        Map<String, String> tenant1Countries = new HashMap<>();
+        tenant1Countries.put("US", "USA");
+        Map<String, String> tenant2Countries = new HashMap<>();
+        tenant2Countries.put("US", "USA");
+        tenant2Countries.put("FR", "France");
+
+        LegalTagProperties tenant1Properties = new LegalTagProperties();
+        tenant1Properties.setOtherRelevantDataCountries(tenant1Countries);
+        LegalTagProperties tenant2Properties = new LegalTagProperties();
+        tenant2Properties.setOtherRelevantDataCountries(tenant2Countries);
+        when(this.legalService.getLegalTagProperties()).thenReturn(tenant1Properties, tenant2Properties);
+
+        when(this.headers.getPartitionId()).thenReturn("tenant1");
+        this.sut.validateOtherRelevantDataCountries(Sets.newHashSet("US"));
+        try {
+            this.sut.validateOtherRelevantDataCountries(Sets.newHashSet("FR"));
+
+            fail("Should not succeed");
+        } catch (AppException e) {
+            assertEquals("The country code 'FR' is invalid", e.getError().getMessage());
+        }
+
+        when(this.headers.getPartitionId()).thenReturn("tenant2");
+        this.sut.validateOtherRelevantDataCountries(Sets.newHashSet("FR"));
+
+        verify(this.legalService, times(2)).getLegalTagProperties();
+    }
+
+    @Test
+    public void should_serveCachedCountryCodes_while_refreshingInBackground() throws Exception {
+        ReflectionTestUtils.setField(this.sut, "countryCodesCache", new LegalCountryCodesCache(3600, 0, Clock.systemUTC()));
+
+        Map<String, String> countries = new HashMap<>();
+        countries.put("US", "USA");
+        LegalTagProperties legalTagProperties = new LegalTagProperties();
+        legalTagProperties.setOtherRelevantDataCountries(countries);
+        when(this.legalService.getLegalTagProperties()).thenReturn(legalTagProperties);
+        when(this.factory.create(any())).thenReturn(this.legalService);
+        // like the request scoped client on GCP, the token is only available inside a request
+        when(this.jwtClient.getIdToken(any())).thenAnswer(invocation -> {
+            if (RequestContextHolder.getRequestAttributes() == null) {
+                throw new IllegalStateException("No thread-bound request found");
+            }
+            return "service-token";
+        });
+
+        assertEquals(countries, this.sut.getValidCountryCodes());
+        assertEquals(countries, this.sut.getValidCountryCodes());
+
+        verify(this.legalService, timeout(5000).times(2)).getLegalTagProperties();
+    }
+
     @Test
     public void should_inheritTagsAndOrdcFromParents_when_processingDerivativesSuccessfully() {
 
@@ -17,12 +17,18 @@ package org.opengroup.osdu.storage.service;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.Map;
 
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.storage.provider.interfaces.IMessageBus;
@@ -33,7 +39,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 
+import org.opengroup.osdu.storage.cache.SchemaNearCache;
 import org.opengroup.osdu.storage.logging.StorageAuditLogger;
 import org.opengroup.osdu.core.common.model.indexer.OperationType;
 import org.opengroup.osdu.core.common.model.storage.PubSubInfo;
@@ -73,6 +81,12 @@ public class SchemaServiceImplTest {
     @Mock
     private StorageAuditLogger auditLogger;
 
+    @Mock
+    private KindRegistry kindRegistry;
+
+    @Spy
+    private SchemaNearCache nearCache = new SchemaNearCache(60, 100);
+
     @InjectMocks
     private SchemaServiceImpl sut;
 
@@ -125,6 +139,45 @@ public class SchemaServiceImplTest {
         }
     }
 
+    @Test
+    public void should_fetchReferencedSchemasInOneBatchPerLevel_when_checkingCircularReferences() {
+        String kindA = "tenant1:test:a:1.0.0";
+        String kindB = "tenant1:test:b:1.0.0";
+        String kindC = "tenant1:test:c:1.0.0";
+        String kindD = "tenant1:test:d:1.0.0";
+
+        Map<String, Schema> stored = new HashMap<>();
+        stored.put(kindA, new Schema(kindA, new SchemaItem[] { new SchemaItem("c", kindC, new HashMap<>(), null) }, null));
+        stored.put(kindB, new Schema(kindB, new SchemaItem[] { new SchemaItem("d", "[]" + kindD, new HashMap<>(), null) }, null));
+        stored.put(kindC, new Schema(kindC, new SchemaItem[] { new SchemaItem("a", kindA, new HashMap<>(), null) }, null));
+        stored.put(kindD, new Schema(kindD, new SchemaItem[] { new SchemaItem("age", "int", new HashMap<>(), null) }, null));
+
+        when(this.schemaRepository.get(anyCollection())).thenAnswer(invocation -> {
+            Map<String, Schema> found = new HashMap<>();
+            for (Object kind : (Collection<?>) invocation.getArguments()[0]) {
+                found.put((String) kind, stored.get(kind));
+            }
+            return found;
+        });
+
+        Schema schema = new Schema();
+        schema.setKind(KIND);
+        schema.setSchema(new SchemaItem[] { new SchemaItem("a", kindA, new HashMap<>(), null), new SchemaItem("b", kindB, new HashMap<>(), null) });
+
+        try {
+            this.sut.createSchema(schema);
+
+            fail("Should not succeed");
+        } catch (AppException e) {
+            assertEquals(HttpStatus.SC_BAD_REQUEST, e.getError().getCode());
+            assertEquals("Found circular reference kind: 'tenant1:test:a:1.0.0' Schema list: "
+                    + "[tenant1:test:unit:1.0.0, tenant1:test:a:1.0.0, tenant1:test:c:1.0.0]", e.getError().getMessage());
+        }
+
+        verify(this.schemaRepository, times(2)).get(anyCollection());
+        verify(this.schemaRepository, never()).get(anyString());
+    }
+
     @Test
     public void should_createSchemaSuccessfully_when_noValidationErrorsAreFound() {
 
@@ -138,6 +191,7 @@ public class SchemaServiceImplTest {
 
         verify(this.schemaRepository).add(schema, USER);
         verify(this.cacheService).put("EUerYg==", schema);
+        verify(this.kindRegistry).addSchemaKind(KIND);
         verify(this.pubSubClient).publishMessage(this.headers,
                 new PubSubInfo(null, KIND, OperationType.create_schema));
     }
@@ -218,6 +272,7 @@ public class SchemaServiceImplTest {
 
         verify(this.schemaRepository).delete(KIND);
         verify(this.cacheService).delete("EUerYg==");
+        verify(this.kindRegistry).invalidate();
     }
 
     @Test
@@ -246,6 +301,20 @@ public class SchemaServiceImplTest {
         assertEquals(schema, foundSchema);
     }
 
+    @Test
+    public void should_getSchemaFromNearCache_when_schemaWasReadBefore() {
+        Schema schema = new Schema();
+        schema.setKind(KIND);
+
+        when(this.cacheService.get("EUerYg==")).thenReturn(schema);
+
+        this.sut.getSchema(KIND);
+        Schema foundSchema = this.sut.getSchema(KIND);
+
+        assertEquals(schema, foundSchema);
+        verify(this.cacheService, times(1)).get("EUerYg==");
+    }
+
     @Test
     public void should_getSchemaFromDatastore_when_schemaIsNotInCache() {
         Schema schema = new Schema();
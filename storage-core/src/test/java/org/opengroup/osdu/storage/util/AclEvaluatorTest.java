@@ -0,0 +1,94 @@
+// Copyright 2017-2021, Schlumberger
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.opengroup.osdu.storage.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.entitlements.Acl;
+import org.opengroup.osdu.core.common.model.entitlements.GroupInfo;
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
+
+public class AclEvaluatorTest {
+
+    @Test
+    public void should_matchViewerOrOwner_ignoringCase() {
+        AclEvaluator sut = AclEvaluator.compile(groups("data.viewers@tenant.gmail.com", "data.owners@tenant.gmail.com"));
+
+        Acl acl = new Acl();
+        acl.setViewers(new String[]{"Data.Viewers@tenant.gmail.com"});
+        acl.setOwners(new String[]{"someone.else@tenant.gmail.com"});
+        assertTrue(sut.hasViewerOrOwnerAccess(acl));
+
+        acl.setViewers(new String[]{"other.viewers@tenant.gmail.com"});
+        assertFalse(sut.hasViewerOrOwnerAccess(acl));
+        assertTrue(sut.isMemberOfAny(new String[]{"other@tenant.gmail.com", "data.owners@tenant.gmail.com"}));
+    }
+
+    @Test
+    public void should_checkAclDomain_againstFirstGroupDomain() {
+        AclEvaluator sut = AclEvaluator.compile(groups("data.viewers@tenant.gmail.com"));
+
+        assertEquals("tenant.gmail.com", sut.getDomain());
+        assertTrue(sut.isInDomain(new HashSet<>(Arrays.asList("a@tenant.gmail.com", "b@TENANT.gmail.com"))));
+        assertFalse(sut.isInDomain(new HashSet<>(Arrays.asList("a@tenant.gmail.com", "b@other.com"))));
+        assertFalse(sut.isInDomain(new HashSet<>(Arrays.asList("no-domain"))));
+    }
+
+    @Test
+    public void should_takeAclDomain_afterLastAt() {
+        AclEvaluator sut = AclEvaluator.compile(groups("data.viewers@tenant.gmail.com"));
+
+        assertTrue(sut.isInDomain(new HashSet<>(Arrays.asList("a@other.com@tenant.gmail.com"))));
+        assertFalse(sut.isInDomain(new HashSet<>(Arrays.asList("a@tenant.gmail.com@other.com"))));
+        assertFalse(sut.isInDomain(new HashSet<>(Arrays.asList("a@tenant.gmail.co"))));
+    }
+
+    @Test
+    public void should_haveNoDomain_whenGroupEmailIsInvalid() {
+        AclEvaluator sut = AclEvaluator.compile(groups("test@tenantgmailcom"));
+
+        assertTrue(sut.hasGroups());
+        assertNull(sut.getDomain());
+        assertFalse(sut.isInDomain(new HashSet<>(Arrays.asList("a@tenantgmailcom"))));
+    }
+
+    @Test
+    public void should_haveNoGroups_whenGroupsAreEmpty() {
+        assertFalse(AclEvaluator.compile(new Groups()).hasGroups());
+        assertFalse(AclEvaluator.compile(groups()).hasGroups());
+    }
+
+    private static Groups groups(String... emails) {
+        List<GroupInfo> groupsInfo = new ArrayList<>();
+        for (String email : emails) {
+            GroupInfo group = new GroupInfo();
+            group.setEmail(email);
+            group.setName(email.split("@")[0]);
+            groupsInfo.add(group);
+        }
+        Groups groups = new Groups();
+        groups.setGroups(groupsInfo);
+        return groups;
+    }
+}